@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Compresses a large serialized value of the query parameter. A value that is longer than
+ * the {@link #threshold()} is written as a marker prefix followed by the url safe base64 of
+ * its deflated UTF-8 bytes. Shorter values are written as is.
+ * </p><p>
+ * Applicable to {@code String} values and values converted with a
+ * {@link boringyuri.api.adapter.BoringTypeAdapter BoringTypeAdapter}. A getter of a uri data
+ * interface annotated with <code>&#64;Compressed</code> inflates the value on the first access.
+ * </p>
+ * <pre><code>
+ *     &#64;UriBuilder("search")
+ *     public Uri buildSearchUri(&#64;Param &#64;Compressed &#64;TypeAdapter(FilterAdapter.class) Filter filter);
+ * </code></pre>
+ *
+ * @see boringyuri.api.codec.UriCompression
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.PARAMETER, ElementType.METHOD})
+public @interface Compressed {
+
+    /**
+     * Minimal length of the serialized value to be compressed. Default is 512.
+     */
+    int threshold() default 512;
+}
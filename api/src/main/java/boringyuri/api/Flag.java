@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Packs a {@code boolean} query parameter into a bitmask shared with the other flags
+ * that have the same {@link Param} name. The mask is written as a single query parameter
+ * in base32 (digits {@code 0-9} and letters {@code a-v}) and all the flags of the group are
+ * read from the {@code Uri} at once.
+ * </p><p>
+ * Examples:
+ *
+ * <pre><code>
+ *     &#64;UriBuilder("settings")
+ *     public Uri buildSettingsUri(
+ *             &#64;Param("ui") &#64;Flag(0) boolean darkMode,
+ *             &#64;Param("ui") &#64;Flag(1) boolean compact,
+ *             &#64;Param("ui") &#64;Flag(5) boolean tablet);
+ * </code></pre>
+ * Calling with {@code foo.buildSettingsUri(true, false, true)} yields {@code /settings?ui=11}
+ *
+ * <pre><code>
+ *     &#64;Param("ui")
+ *     &#64;Flag(1)
+ *     boolean isCompact();
+ * </code></pre>
+ * Calling with {@code foo.isCompact()} yields {@code false} for the {@code Uri} above.
+ * </p><p>
+ * A flag with {@code @DefaultValue("true")} is set when the whole group is missing
+ * in the {@code Uri}.
+ * </p>
+ *
+ * @see Param
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.PARAMETER, ElementType.METHOD})
+public @interface Flag {
+
+    /**
+     * Index of the bit in the group mask. Must be in range from 0 to 62 and unique
+     * within the group.
+     */
+    int value();
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Makes the builder method return a canonical {@code Uri} instance for the same arguments
+ * as long as the previously built instance is still in use.
+ * </p><p>
+ * Applied to a {@link UriFactory} it is inherited by all of its builder methods, applied to
+ * a method annotated with {@link UriBuilder} it affects only this method. Every interned
+ * method gets its own {@link boringyuri.api.uri.UriInterner UriInterner} which is exposed
+ * as a static field of the factory implementation, so its hit rate can be monitored.
+ * </p><p>
+ * Example:
+ * </p>
+ * <pre><code>
+ *     &#64;UriBuilder("user/{id}/avatar")
+ *     &#64;Interned(maxSize = 512)
+ *     Uri buildAvatarUri(&#64;Path long id, &#64;Param int size);
+ * </code></pre>
+ * <p>
+ * Primitive arguments that fit in 64 bits altogether are packed into a single {@code long}
+ * key without boxing. Array and {@link java.nio.ByteBuffer ByteBuffer} arguments are compared
+ * by their content and copied when the {@code Uri} is interned. Arguments converted by
+ * a {@link boringyuri.api.adapter.TypeAdapter TypeAdapter} are keyed by their serialized form,
+ * so they may be mutable, but arrays of them are not supported.
+ * </p>
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Interned {
+
+    /**
+     * The maximum number of the canonical instances kept by the method's interner.
+     * When the limit is reached, new {@code Uri}s are not interned until some of the
+     * interned ones are garbage collected. Default is 256.
+     */
+    int maxSize() default 256;
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Makes the generated implementation of a {@link UriBuilder} method keep a bounded LRU cache
+ * from the method arguments to the built {@code Uri}.
+ * </p><p>
+ * It is meant for the methods with a small domain of arguments (e.g. a locale, a theme or
+ * a size bucket) which are called at a high rate with the same arguments. Unlike
+ * {@link Interned}, the cached {@code Uri}s are strongly referenced until they are evicted.
+ * Every memoized method gets its own {@link boringyuri.api.uri.UriCache UriCache} which is
+ * exposed as a static field of the factory implementation.
+ * </p><p>
+ * Primitive arguments that fit in 64 bits altogether are packed into a single {@code long}
+ * key without boxing. Array and {@link java.nio.ByteBuffer ByteBuffer} arguments are compared
+ * by their content and copied when the {@code Uri} is cached. Arguments converted by
+ * a {@link boringyuri.api.adapter.TypeAdapter TypeAdapter} are keyed by their serialized form,
+ * so they may be mutable, but arrays of them are not supported.
+ * </p><p>
+ * Example:
+ * </p>
+ * <pre><code>
+ *     &#64;UriBuilder("thumbnail/{bucket}")
+ *     &#64;Memoized(capacity = 32)
+ *     Uri buildThumbnailUri(&#64;Path int bucket, &#64;Param boolean dark);
+ * </code></pre>
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.METHOD)
+public @interface Memoized {
+
+    /**
+     * The maximum number of the cached {@code Uri}s. Default is 64.
+     */
+    int capacity() default 64;
+
+    /**
+     * The number of the independently locked parts of the cache. It is rounded to a power
+     * of two not greater than the {@link #capacity()} and 65536. Default is 4.
+     */
+    int stripes() default 4;
+
+    /**
+     * Specifies whether the hits and misses are counted. Default is <code>false</code>.
+     */
+    boolean recordStats() default false;
+}
@@ -27,10 +27,11 @@ import java.lang.annotation.Target;
  * </p><p>
  * <code>null</code> values are ignored to be added to the {@code Uri} query parameter.
  * An array annotated with <code>&#64;Param</code> will result a query parameter for every
- * non-<code>null</code> array element.
+ * non-<code>null</code> array element. The only exception is {@code byte[]} with
+ * {@link ValueFormat#BASE64_URL} format which is written as a single query parameter.
  * </p><p>
- * Values of primitive types, primitive wrapper types, {@code String} or {@code Uri} can be
- * serialized and deserialized with a built-in type converter. For every other type of the
+ * Values of primitive types, primitive wrapper types, {@code String}, {@code Uri} or
+ * {@code ByteBuffer} can be serialized and deserialized with a built-in type converter. For every other type of the
  * method parameter annotated with <code>&#64;Param</code> there should exist a
  * {@link boringyuri.api.adapter.BoringTypeAdapter BoringTypeAdapter} implementation
  * registered with {@link boringyuri.api.adapter.TypeAdapter TypeAdapter}.
@@ -66,6 +67,23 @@ import java.lang.annotation.Target;
  *     public Uri buildFetchUserDetailsUri(&#64;Param("id") int[] ids);
  * </code></pre>
  * Calling {@code foo.buildFetchUserDetailsUri(new int[] { 100, 200 })} yields {@code /user?id=100&id=200}
+ * </p><p>
+ * Values are URL encoded by default. If the argument is already encoded, the encoding
+ * can be skipped with {@code encoded = true}:
+ *
+ * <pre><code>
+ *     &#64;UriBuilder("user")
+ *     public Uri buildUserUri(&#64;Param String token);
+ *
+ *     &#64;UriBuilder("user")
+ *     public Uri buildEncodedUserUri(&#64;Param(encoded = true) String token);
+ * </code></pre>
+ * Calling {@code foo.buildUserUri("a%2Bb")} yields {@code /user?token=a%252Bb} whereas
+ * {@code foo.buildEncodedUserUri("a%2Bb")} yields {@code /user?token=a%2Bb}.
+ * </p><p>
+ * A getter of a uri data interface annotated with {@code encoded = true} returns the
+ * value exactly as it is present in the {@code Uri} query without decoding it.
+ * </p>
  *
  * @see boringyuri.api.Path
  * @see boringyuri.api.adapter.TypeAdapter
@@ -95,4 +113,17 @@ public @interface Param {
      * Becomes "enabled"
      */
     String value() default "";
+
+    /**
+     * Specifies whether the value of the query parameter is already URL encoded.
+     * Default is <code>false</code>.
+     */
+    boolean encoded() default false;
+
+    /**
+     * Specifies the string representation of the value. Default is {@link ValueFormat#DEFAULT}.
+     *
+     * @see ValueFormat
+     */
+    ValueFormat format() default ValueFormat.DEFAULT;
 }
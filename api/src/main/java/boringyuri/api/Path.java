@@ -122,4 +122,13 @@ public @interface Path {
      * Becomes "enabled"
      */
     String value() default "";
+
+    /**
+     * Specifies the string representation of the segment value. Default is
+     * {@link ValueFormat#DEFAULT}. A numeric segment with any other format is
+     * matched as a text segment by the generated {@code UriMatcher}.
+     *
+     * @see ValueFormat
+     */
+    ValueFormat format() default ValueFormat.DEFAULT;
 }
@@ -70,4 +70,43 @@ public @interface UriFactory {
      * <p>Examples: "google.com", "bob@google.com:80"</p>
      */
     String authority();
+
+    /**
+     * <p>
+     * Specifies whether a static {@code fingerprintXxx()} method is generated in the factory
+     * implementation for every {@code buildXxx()} method. Default is <code>false</code>.
+     * </p><p>
+     * The fingerprint method takes the same arguments as the builder method and returns
+     * a 64-bit hash of the exact {@code Uri} the builder method would produce, without
+     * building the {@code Uri} itself. It's meant to be used as a cache key:
+     * {@code fingerprintXxx(args) == UriFingerprint.of(buildXxx(args).toString())}
+     * </p><p>
+     * The fingerprint method is not allocation-free: the argument values are still converted
+     * to strings the same way as for the {@code Uri} itself.
+     * </p>
+     *
+     * @see boringyuri.api.uri.UriFingerprint
+     */
+    boolean fingerprints() default false;
+
+    /**
+     * <p>
+     * Specifies whether the query parameters of the built {@code Uri}s are written in
+     * a canonical order. Default is <code>false</code>.
+     * </p><p>
+     * By default the query parameters are written in the order of the method parameters
+     * followed by the constant {@code String}, {@code boolean}, {@code long} and {@code double}
+     * parameters. In the canonical order all the query parameters are sorted by name at
+     * compile time, so the same values always produce the same {@code Uri} string no matter
+     * how the builder method declares them. It makes the built {@code Uri}s stable keys of
+     * the HTTP or disk caches shared by several factories.
+     * </p><p>
+     * The names are compared as they are declared, not as they are encoded in the {@code Uri}.
+     * The parameters with the same name keep their declaration order and the elements of
+     * an array parameter are written in the order of the array, because it may be meaningful.
+     * </p><p>
+     * Parsing of the query parameters doesn't depend on their order.
+     * </p>
+     */
+    boolean canonicalQuery() default false;
 }
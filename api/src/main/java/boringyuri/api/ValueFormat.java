@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api;
+
+/**
+ * <p>
+ * String representation of the values of {@link Param} and {@link Path} annotated
+ * arguments and getters.
+ * </p><p>
+ * {@link DefaultValue} is always specified in the standard representation and converted to
+ * the requested format by the annotation processor.
+ * </p>
+ *
+ * @see Param#format()
+ * @see Path#format()
+ */
+public enum ValueFormat {
+
+    /**
+     * <p>
+     * Standard representation of the value: {@code String.valueOf()} for primitives,
+     * one query parameter per element for arrays.
+     * </p><p>
+     * {@code java.nio.ByteBuffer} has no other representation than {@link #BASE64_URL}, so
+     * it is used for the buffers by default.
+     * </p>
+     */
+    DEFAULT,
+
+    /**
+     * <p>
+     * URL safe base64 without padding (RFC 4648, section 5). Applicable to {@code byte[]},
+     * {@code java.nio.ByteBuffer}, {@code int} and {@code long} values.
+     * </p><p>
+     * {@code byte[]} and {@code ByteBuffer} values are written as a single query parameter.
+     * All the bits of {@code int} and {@code long} values are written as exactly 6 and 11
+     * characters respectively.
+     * </p>
+     * <pre><code>
+     *     &#64;UriBuilder("feed")
+     *     public Uri buildFeedUri(&#64;Param(format = ValueFormat.BASE64_URL) byte[] cursor);
+     * </code></pre>
+     * Calling with {@code foo.buildFeedUri(new byte[] { 1, 2, -1 })} yields {@code /feed?cursor=AQL_}
+     */
+    BASE64_URL,
+
+    /**
+     * <p>
+     * Radix 36 representation (digits and lowercase latin letters) of {@code int}
+     * and {@code long} values.
+     * </p>
+     * <pre><code>
+     *     &#64;UriBuilder("user/{id}")
+     *     public Uri buildUserUri(&#64;Path(format = ValueFormat.RADIX_36) long id);
+     * </code></pre>
+     * Calling with {@code foo.buildUserUri(1234567890123L)} yields {@code /user/fr5hugnf}
+     */
+    RADIX_36
+}
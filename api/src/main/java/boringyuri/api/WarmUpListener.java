@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api;
+
+import androidx.annotation.NonNull;
+
+/**
+ * <p>
+ * Receives the duration of the warm-up of a generated class.
+ * </p><p>
+ * Generated {@code UriMatcher}s and routers have {@code warmUp()} methods, and generated
+ * factory implementations have them in their nested {@code WarmUp} class. The methods
+ * initialize the factory implementation with its type adapters and caches, or the matching
+ * tree, on the given {@link java.util.concurrent.Executor Executor}, so the work doesn't land
+ * on the first {@code Uri} built or matched on the critical path. The listener is called on
+ * the executor's thread when the warm-up is finished.
+ * </p>
+ */
+public interface WarmUpListener {
+
+    /**
+     * Called when the warm-up of the {@code target} class is finished.
+     *
+     * @param target the generated class that was warmed up.
+     * @param durationNanos the time the warm-up took in nanoseconds.
+     */
+    void onWarmedUp(@NonNull Class<?> target, long durationNanos);
+}
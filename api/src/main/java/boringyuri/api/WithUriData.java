@@ -99,4 +99,39 @@ public @interface WithUriData {
      * </p>
      */
     String value() default "";
+
+    /**
+     * <p>
+     * Specifies whether the generated data class can be rebound to another {@code Uri}.
+     * Default is <code>false</code>.
+     * </p>
+     * <p>
+     * A reusable data class gets a {@code rebind(Uri)} method that drops the values parsed
+     * so far and binds the instance to the new {@code Uri}, and a static {@code obtain(Uri)}
+     * factory that rebinds and returns an instance owned by the calling thread. It lets hot
+     * request handling paths parse incoming {@code Uri}s without allocating a data object
+     * per request. An instance returned by {@code obtain(Uri)} is only valid until the next
+     * call on the same thread and must not be retained.
+     * </p>
+     * <p>
+     * Since its values change on rebind, a reusable data class doesn't get the value based
+     * {@code equals()} and {@code hashCode()} and is compared by identity.
+     * </p>
+     */
+    boolean reusable() default false;
+
+    /**
+     * <p>
+     * Specifies whether the generated data class parses the {@code Uri} straight from
+     * a string. Default is <code>false</code>.
+     * </p>
+     * <p>
+     * Such a data class gets an additional constructor that takes a {@link CharSequence}
+     * and reads path segments and query parameters with
+     * {@link boringyuri.api.uri.UriString UriString} instead of {@code android.net.Uri}.
+     * Path and query boundaries are located once, so it suits {@code Uri}s received
+     * as raw strings and the code running without the Android framework.
+     * </p>
+     */
+    boolean fromString() default false;
 }
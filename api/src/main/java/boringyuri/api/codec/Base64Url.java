@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.codec;
+
+import androidx.annotation.NonNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * URL safe base64 codec without padding (RFC 4648, section 5) used by the generated code to
+ * serialize {@code byte[]} and {@code ByteBuffer} values.
+ * </p><p>
+ * The alphabet consists of letters, digits, {@code '-'} and {@code '_'} only, so the encoded
+ * value never needs to be escaped in a {@code Uri}.
+ * </p>
+ */
+public final class Base64Url {
+
+    static final char[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private static final byte[] DECODE_TABLE = new byte[128];
+
+    static {
+        for (int i = 0; i < DECODE_TABLE.length; i++) {
+            DECODE_TABLE[i] = -1;
+        }
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = (byte) i;
+        }
+    }
+
+    private Base64Url() {
+        // static methods only
+    }
+
+    /**
+     * Encodes all the bytes of the given array.
+     */
+    @NonNull
+    public static String encode(@NonNull byte[] data) {
+        char[] out = new char[encodedLength(data.length)];
+        encode(data, 0, data.length, out);
+        return new String(out);
+    }
+
+    /**
+     * Encodes the remaining bytes of the given buffer. Position of the buffer is not changed.
+     */
+    @NonNull
+    public static String encode(@NonNull ByteBuffer data) {
+        if (data.hasArray()) {
+            int offset = data.arrayOffset() + data.position();
+            char[] out = new char[encodedLength(data.remaining())];
+            encode(data.array(), offset, offset + data.remaining(), out);
+            return new String(out);
+        }
+
+        return encode(copyRemaining(data));
+    }
+
+    /**
+     * Appends encoded bytes of the given array right to the {@code out} buffer.
+     *
+     * @return the same {@code out} buffer
+     */
+    @NonNull
+    public static StringBuilder encode(@NonNull byte[] data, @NonNull StringBuilder out) {
+        return encode(data, 0, data.length, out);
+    }
+
+    /**
+     * Appends encoded remaining bytes of the given buffer right to the {@code out} buffer.
+     * Position of the buffer is not changed.
+     *
+     * @return the same {@code out} buffer
+     */
+    @NonNull
+    public static StringBuilder encode(@NonNull ByteBuffer data, @NonNull StringBuilder out) {
+        if (data.hasArray()) {
+            int offset = data.arrayOffset() + data.position();
+            return encode(data.array(), offset, offset + data.remaining(), out);
+        }
+
+        byte[] bytes = copyRemaining(data);
+        return encode(bytes, 0, bytes.length, out);
+    }
+
+    /**
+     * Decodes the given value into a new array of the exact length. Only the canonical
+     * encoding is accepted: the unused bits of the last character must be zero, so every
+     * array has exactly one encoded form.
+     *
+     * @throws IllegalArgumentException if the value is not a valid URL safe base64 string
+     */
+    @NonNull
+    public static byte[] decode(@NonNull CharSequence value) {
+        int length = value.length();
+        int tail = length % 4;
+        if (tail == 1) {
+            throw new IllegalArgumentException("Invalid base64 length: " + length);
+        }
+
+        byte[] out = new byte[length / 4 * 3 + (tail == 0 ? 0 : tail - 1)];
+        int in = 0;
+        int index = 0;
+        int fullLength = length - tail;
+        while (in < fullLength) {
+            int bits = decodeChar(value, in++) << 18
+                    | decodeChar(value, in++) << 12
+                    | decodeChar(value, in++) << 6
+                    | decodeChar(value, in++);
+            out[index++] = (byte) (bits >> 16);
+            out[index++] = (byte) (bits >> 8);
+            out[index++] = (byte) bits;
+        }
+        if (tail == 2) {
+            int bits = decodeChar(value, in++) << 18 | decodeChar(value, in) << 12;
+            checkTrailingBits(bits, 0xFFFF, value);
+            out[index] = (byte) (bits >> 16);
+        } else if (tail == 3) {
+            int bits = decodeChar(value, in++) << 18
+                    | decodeChar(value, in++) << 12
+                    | decodeChar(value, in) << 6;
+            checkTrailingBits(bits, 0xFF, value);
+            out[index++] = (byte) (bits >> 16);
+            out[index] = (byte) (bits >> 8);
+        }
+
+        return out;
+    }
+
+    /**
+     * Decodes the given value into a new heap buffer that wraps an array of the exact length.
+     *
+     * @throws IllegalArgumentException if the value is not a valid URL safe base64 string
+     */
+    @NonNull
+    public static ByteBuffer decodeBuffer(@NonNull CharSequence value) {
+        return ByteBuffer.wrap(decode(value));
+    }
+
+    private static int encodedLength(int dataLength) {
+        return dataLength / 3 * 4 + (dataLength % 3 == 0 ? 0 : dataLength % 3 + 1);
+    }
+
+    private static void encode(byte[] data, int from, int to, char[] out) {
+        int index = 0;
+        int in = from;
+        int fullTo = to - (to - from) % 3;
+        while (in < fullTo) {
+            int bits = (data[in++] & 0xFF) << 16 | (data[in++] & 0xFF) << 8 | (data[in++] & 0xFF);
+            out[index++] = ALPHABET[bits >>> 18];
+            out[index++] = ALPHABET[(bits >>> 12) & 0x3F];
+            out[index++] = ALPHABET[(bits >>> 6) & 0x3F];
+            out[index++] = ALPHABET[bits & 0x3F];
+        }
+        int tail = to - fullTo;
+        if (tail == 1) {
+            int bits = (data[in] & 0xFF) << 16;
+            out[index++] = ALPHABET[bits >>> 18];
+            out[index] = ALPHABET[(bits >>> 12) & 0x3F];
+        } else if (tail == 2) {
+            int bits = (data[in++] & 0xFF) << 16 | (data[in] & 0xFF) << 8;
+            out[index++] = ALPHABET[bits >>> 18];
+            out[index++] = ALPHABET[(bits >>> 12) & 0x3F];
+            out[index] = ALPHABET[(bits >>> 6) & 0x3F];
+        }
+    }
+
+    static StringBuilder encode(byte[] data, int from, int to, StringBuilder out) {
+        out.ensureCapacity(out.length() + encodedLength(to - from));
+        int in = from;
+        int fullTo = to - (to - from) % 3;
+        while (in < fullTo) {
+            int bits = (data[in++] & 0xFF) << 16 | (data[in++] & 0xFF) << 8 | (data[in++] & 0xFF);
+            out.append(ALPHABET[bits >>> 18])
+                    .append(ALPHABET[(bits >>> 12) & 0x3F])
+                    .append(ALPHABET[(bits >>> 6) & 0x3F])
+                    .append(ALPHABET[bits & 0x3F]);
+        }
+        int tail = to - fullTo;
+        if (tail == 1) {
+            int bits = (data[in] & 0xFF) << 16;
+            out.append(ALPHABET[bits >>> 18]).append(ALPHABET[(bits >>> 12) & 0x3F]);
+        } else if (tail == 2) {
+            int bits = (data[in++] & 0xFF) << 16 | (data[in] & 0xFF) << 8;
+            out.append(ALPHABET[bits >>> 18])
+                    .append(ALPHABET[(bits >>> 12) & 0x3F])
+                    .append(ALPHABET[(bits >>> 6) & 0x3F]);
+        }
+        return out;
+    }
+
+    /**
+     * The encoder always leaves the bits of the last character that don't belong to any
+     * byte zero, any other value is a non-canonical encoding of the same bytes.
+     */
+    private static void checkTrailingBits(int bits, int unusedMask, CharSequence value) {
+        if ((bits & unusedMask) != 0) {
+            throw new IllegalArgumentException("Non-canonical base64 value: " + value);
+        }
+    }
+
+    private static int decodeChar(CharSequence value, int index) {
+        char c = value.charAt(index);
+        int decoded = decodeDigit(c);
+        if (decoded < 0) {
+            throw new IllegalArgumentException(
+                    "Illegal base64 character '" + c + "' at position " + index);
+        }
+        return decoded;
+    }
+
+    /**
+     * @return 6-bit value of the base64 character or -1 if the character is not a part
+     * of the URL safe base64 alphabet.
+     */
+    static int decodeDigit(char c) {
+        return c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+    }
+
+    private static byte[] copyRemaining(ByteBuffer data) {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return bytes;
+    }
+}
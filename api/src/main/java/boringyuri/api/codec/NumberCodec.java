@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.codec;
+
+import androidx.annotation.NonNull;
+
+/**
+ * <p>
+ * Compact string representations of {@code int} and {@code long} values used by the generated
+ * code for the parameters with {@link boringyuri.api.ValueFormat#RADIX_36 RADIX_36} or
+ * {@link boringyuri.api.ValueFormat#BASE64_URL BASE64_URL} format.
+ * </p><p>
+ * Parsing methods throw {@code NumberFormatException} on malformed input, the same way
+ * {@code Long.parseLong()} does. Only the representation produced by the corresponding
+ * writing method is accepted, so every value has exactly one string form: radix 36 digits
+ * must be lowercase ASCII without redundant leading zeros.
+ * </p>
+ */
+public final class NumberCodec {
+
+    private static final int RADIX = 36;
+
+    private static final char[] RADIX_DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    // "-1y2p0ij32e8e8" is the longest radix 36 representation of long
+    private static final int MAX_RADIX_LENGTH = 14;
+
+    private static final int INT_BASE64_LENGTH = 6;
+
+    private static final int LONG_BASE64_LENGTH = 11;
+
+    private NumberCodec() {
+        // static methods only
+    }
+
+    @NonNull
+    public static String toRadix36(int value) {
+        return toRadix36((long) value);
+    }
+
+    @NonNull
+    public static String toRadix36(long value) {
+        char[] buffer = new char[MAX_RADIX_LENGTH];
+        int position = MAX_RADIX_LENGTH;
+        boolean negative = value < 0;
+        // accumulate in negative range to handle Long.MIN_VALUE
+        long remaining = negative ? value : -value;
+        do {
+            buffer[--position] = RADIX_DIGITS[(int) -(remaining % RADIX)];
+            remaining /= RADIX;
+        } while (remaining != 0);
+
+        if (negative) {
+            buffer[--position] = '-';
+        }
+
+        return new String(buffer, position, MAX_RADIX_LENGTH - position);
+    }
+
+    public static int parseRadix36Int(@NonNull CharSequence value) {
+        return (int) parseRadix36(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    public static long parseRadix36Long(@NonNull CharSequence value) {
+        return parseRadix36(value, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Writes all 32 bits of the value as exactly 6 URL safe base64 characters.
+     */
+    @NonNull
+    public static String toBase64Url(int value) {
+        char[] buffer = new char[INT_BASE64_LENGTH];
+        for (int i = 0, shift = 30; i < INT_BASE64_LENGTH; i++, shift -= 6) {
+            buffer[i] = Base64Url.ALPHABET[(value >>> shift) & 0x3F];
+        }
+        return new String(buffer);
+    }
+
+    /**
+     * Writes all 64 bits of the value as exactly 11 URL safe base64 characters.
+     */
+    @NonNull
+    public static String toBase64Url(long value) {
+        char[] buffer = new char[LONG_BASE64_LENGTH];
+        for (int i = 0, shift = 60; i < LONG_BASE64_LENGTH; i++, shift -= 6) {
+            buffer[i] = Base64Url.ALPHABET[(int) (value >>> shift) & 0x3F];
+        }
+        return new String(buffer);
+    }
+
+    public static int parseBase64UrlInt(@NonNull CharSequence value) {
+        return (int) parseBase64Url(value, INT_BASE64_LENGTH);
+    }
+
+    public static long parseBase64UrlLong(@NonNull CharSequence value) {
+        return parseBase64Url(value, LONG_BASE64_LENGTH);
+    }
+
+    private static long parseRadix36(CharSequence value, long min, long max) {
+        int length = value.length();
+        boolean negative = length > 0 && value.charAt(0) == '-';
+        int index = negative ? 1 : 0;
+        if (index == length) {
+            throw invalidNumber(value);
+        }
+
+        // only the canonical form is accepted: no redundant leading zeros and no "-0"
+        if (value.charAt(index) == '0' && (negative || length - index > 1)) {
+            throw invalidNumber(value);
+        }
+
+        // accumulate in negative range to handle the minimal value
+        long limit = negative ? min : -max;
+        long multiplyLimit = limit / RADIX;
+        long result = 0;
+        while (index < length) {
+            int digit = radixDigit(value.charAt(index++));
+            if (digit < 0 || result < multiplyLimit) {
+                throw invalidNumber(value);
+            }
+            result *= RADIX;
+            if (result < limit + digit) {
+                throw invalidNumber(value);
+            }
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+    /**
+     * @return value of the lowercase ASCII radix 36 digit or -1 for any other character.
+     */
+    private static int radixDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private static long parseBase64Url(CharSequence value, int expectedLength) {
+        if (value.length() != expectedLength) {
+            throw invalidNumber(value);
+        }
+
+        // the first character holds only the highest 2 (int) or 4 (long) bits
+        int firstDigitLimit = expectedLength == INT_BASE64_LENGTH ? 4 : 16;
+        long result = 0;
+        for (int i = 0; i < expectedLength; i++) {
+            int digit = Base64Url.decodeDigit(value.charAt(i));
+            if (digit < 0 || (i == 0 && digit >= firstDigitLimit)) {
+                throw invalidNumber(value);
+            }
+            result = result << 6 | digit;
+        }
+
+        return result;
+    }
+
+    private static NumberFormatException invalidNumber(CharSequence value) {
+        return new NumberFormatException("Invalid compact number: \"" + value + "\"");
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.codec;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ * Deflate + url safe base64 codec used by the generated code for the query parameters
+ * annotated with {@link boringyuri.api.Compressed Compressed}.
+ * </p><p>
+ * Compressed values start with {@link #MARKER} which never appears at the beginning of
+ * a value written as is. The intermediate byte buffer is reused by every thread. Deflater
+ * and inflater hold native zlib memory, so they are created for a single call and ended
+ * right after it instead of being kept by every thread that ever used the codec.
+ * </p>
+ */
+public final class UriCompression {
+
+    /**
+     * Prefix of a compressed value.
+     */
+    public static final String MARKER = "~z";
+
+    // protects from inflating a malicious input into a huge string
+    private static final int MAX_INFLATED_LENGTH = 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    // larger buffers are not kept between the calls
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final ThreadLocal<Buffers> BUFFERS = new ThreadLocal<Buffers>() {
+        @Override
+        protected Buffers initialValue() {
+            return new Buffers();
+        }
+    };
+
+    private UriCompression() {
+        // static methods only
+    }
+
+    /**
+     * Compresses the value if it's not shorter than the {@code threshold} and the compressed
+     * representation is shorter than the original one. A value that starts with the
+     * {@link #MARKER} is always compressed to be distinguishable from the compressed ones.
+     */
+    @NonNull
+    public static String compress(@NonNull String value, int threshold) {
+        boolean forced = value.startsWith(MARKER);
+        if (value.length() < threshold && !forced) {
+            return value;
+        }
+
+        Buffers buffers = BUFFERS.get();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        byte[] buffer = buffers.acquire();
+        int length = 0;
+        try {
+            deflater.setInput(value.getBytes(UTF_8));
+            deflater.finish();
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = grow(buffer);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+        } finally {
+            deflater.end();
+            buffers.release(buffer);
+        }
+
+        int compressedLength = MARKER.length() + (length * 4 + 2) / 3;
+        if (compressedLength >= value.length() && !forced) {
+            return value;
+        }
+
+        StringBuilder result = new StringBuilder(compressedLength).append(MARKER);
+        return Base64Url.encode(buffer, 0, length, result).toString();
+    }
+
+    /**
+     * Inflates the value if it starts with the {@link #MARKER}, otherwise returns it as is.
+     *
+     * @return inflated value or {@code null} if the value is {@code null} or corrupted.
+     */
+    @Nullable
+    public static String decompress(@Nullable String value) {
+        if (value == null || !value.startsWith(MARKER)) {
+            return value;
+        }
+
+        byte[] compressed;
+        try {
+            compressed = Base64Url.decode(CharBuffer.wrap(value, MARKER.length(), value.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        Buffers buffers = BUFFERS.get();
+        Inflater inflater = new Inflater(true);
+        byte[] buffer = buffers.acquire();
+        int length = 0;
+        try {
+            inflater.setInput(compressed);
+            while (!inflater.finished()) {
+                if (length == buffer.length) {
+                    if (length >= MAX_INFLATED_LENGTH) {
+                        return null;
+                    }
+                    buffer = grow(buffer);
+                }
+                int inflated = inflater.inflate(buffer, length, buffer.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    return null; // truncated input
+                }
+                length += inflated;
+            }
+            return new String(buffer, 0, length, UTF_8);
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+            buffers.release(buffer);
+        }
+    }
+
+    private static byte[] grow(byte[] buffer) {
+        byte[] grown = new byte[buffer.length * 2];
+        System.arraycopy(buffer, 0, grown, 0, buffer.length);
+        return grown;
+    }
+
+    private static final class Buffers {
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+        byte[] acquire() {
+            return buffer;
+        }
+
+        void release(byte[] used) {
+            if (used.length <= MAX_RETAINED_BUFFER_SIZE) {
+                buffer = used;
+            }
+        }
+    }
+}
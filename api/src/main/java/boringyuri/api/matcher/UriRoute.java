@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.matcher;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A {@code Uri} resolved by a generated {@link UriRouter}: the {@code UriMatcher} that
+ * declares the matched path and the code this matcher returns for it.
+ */
+public final class UriRoute {
+
+    @NonNull
+    private final Class<?> mMatcher;
+
+    private final int mCode;
+
+    public UriRoute(@NonNull Class<?> matcher, int code) {
+        mMatcher = matcher;
+        mCode = code;
+    }
+
+    /**
+     * The generated {@code UriMatcher} that declares the matched path.
+     */
+    @NonNull
+    public Class<?> getMatcher() {
+        return mMatcher;
+    }
+
+    /**
+     * The code returned by {@link #getMatcher()} for the matched {@code Uri}.
+     */
+    public int getCode() {
+        return mCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UriRoute)) {
+            return false;
+        }
+        UriRoute that = (UriRoute) o;
+        return mCode == that.mCode && mMatcher.equals(that.mMatcher);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * mMatcher.hashCode() + mCode;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "UriRoute{matcher=" + mMatcher.getName() + ", code=" + mCode + "}";
+    }
+}
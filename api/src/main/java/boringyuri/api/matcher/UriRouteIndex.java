@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.matcher;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Route index of a generated {@code UriMatcher} that is picked up by the {@link UriRouter}
+ * generation in the dependent modules.
+ * </p>
+ * <p>
+ * The annotation is applied by the annotation processor only and is not supposed to be used
+ * in the client code.
+ * </p>
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface UriRouteIndex {
+    /**
+     * A fully qualified name of the generated {@code UriMatcher}.
+     */
+    String matcher();
+
+    /**
+     * The authority of the matched {@code Uri}s.
+     */
+    String authority();
+
+    /**
+     * Path templates of the matcher in the order they were added to it.
+     */
+    String[] paths();
+
+    /**
+     * Matcher codes of the {@link #paths()} with the same index.
+     */
+    int[] codes();
+}
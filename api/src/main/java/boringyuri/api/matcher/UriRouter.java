@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.matcher;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * An annotation that requests a global router for all the {@code UriMatcher}s generated
+ * for {@link WithUriMatcher} factories of the application and its library modules.
+ * </p>
+ * <p>
+ * Every module compiled with the annotation processor emits a route index for each of its
+ * matchers. The annotated type is usually placed in the application module, where all
+ * the indexes found on the classpath are merged into a single generated router, so a deep
+ * link is resolved with one lookup by authority and path instead of trying matchers one by one.
+ * </p>
+ * <p>
+ * Example:
+ * </p>
+ * <pre><code>
+ *     &#64;UriRouter("AppUriRouter")
+ *     interface AppRoutes {
+ *     }
+ * </code></pre>
+ * <p>
+ * The generated {@code AppUriRouter} resolves a {@code Uri} to the matcher that owns it and
+ * the matcher code:
+ * </p>
+ * <pre><code>
+ *     UriRoute route = new AppUriRouter().route(uri);
+ *
+ *     if (route != null &amp;&amp; route.getMatcher() == UserProviderUriMatcher.class) {
+ *         switch (route.getCode()) {
+ *             case UserProviderUriMatcher.MatcherCode.REGULAR_USER:
+ *                 ...
+ *         }
+ *     }
+ * </code></pre>
+ *
+ * @see UriRoute
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface UriRouter {
+    /**
+     * <p>
+     * A name of the generated router. It can be a fully qualified name or a simple name
+     * (in this case the annotated type's package will be used).
+     * </p>
+     * <p>
+     * If the router's name is not provided it will be generated based on the annotated
+     * type's class name adding the default class name suffix.
+     * </p>
+     */
+    String value() default "";
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Arguments of a builder method compared by value, arrays are compared by their content.
+ * It's used as a key by {@link UriInterner} and {@link UriCache}.
+ * </p><p>
+ * A key created by {@link #of(Object[])} refers to the passed arguments, which is enough
+ * for a lookup. Before a key is stored by {@link UriInterner} or {@link UriCache}, the arrays
+ * and the {@link ByteBuffer}s among the arguments are copied, so the stored key doesn't change
+ * if the caller modifies them afterwards. Other arguments are kept as is, so they must be
+ * immutable.
+ * </p>
+ */
+public final class UriArguments {
+
+    @NonNull
+    private final Object[] mArgs;
+
+    private final int mHashCode;
+
+    private UriArguments(@NonNull Object[] args) {
+        mArgs = args;
+        mHashCode = Arrays.deepHashCode(args);
+    }
+
+    /**
+     * Creates the lookup key of the builder method arguments. Neither the array nor
+     * the arguments are copied until the key is stored.
+     */
+    @NonNull
+    public static UriArguments of(@NonNull Object[] args) {
+        return new UriArguments(args);
+    }
+
+    /**
+     * Returns the key that doesn't share any array or {@link ByteBuffer} with the caller.
+     */
+    @NonNull
+    UriArguments copy() {
+        return new UriArguments((Object[]) copyOf(mArgs));
+    }
+
+    @Nullable
+    private static Object copyOf(@Nullable Object arg) {
+        if (arg instanceof Object[]) {
+            Object[] array = ((Object[]) arg).clone();
+            for (int i = 0; i < array.length; i++) {
+                array[i] = copyOf(array[i]);
+            }
+            return array;
+        } else if (arg instanceof ByteBuffer) {
+            // only the remaining bytes take part in equals() and hashCode()
+            ByteBuffer buffer = (ByteBuffer) arg;
+            ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+            copy.put(buffer.duplicate());
+            copy.flip();
+            return copy;
+        } else if (arg instanceof byte[]) {
+            return ((byte[]) arg).clone();
+        } else if (arg instanceof short[]) {
+            return ((short[]) arg).clone();
+        } else if (arg instanceof int[]) {
+            return ((int[]) arg).clone();
+        } else if (arg instanceof long[]) {
+            return ((long[]) arg).clone();
+        } else if (arg instanceof char[]) {
+            return ((char[]) arg).clone();
+        } else if (arg instanceof float[]) {
+            return ((float[]) arg).clone();
+        } else if (arg instanceof double[]) {
+            return ((double[]) arg).clone();
+        } else if (arg instanceof boolean[]) {
+            return ((boolean[]) arg).clone();
+        }
+        return arg;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        return this == o || o instanceof UriArguments
+                && mHashCode == ((UriArguments) o).mHashCode
+                && Arrays.deepEquals(mArgs, ((UriArguments) o).mArgs);
+    }
+
+    @Override
+    public int hashCode() {
+        return mHashCode;
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Bounded lock-striped LRU cache of the {@code Uri}s built by a
+ * {@link boringyuri.api.Memoized Memoized} builder method.
+ * </p><p>
+ * Keys are spread over the stripes by their hash and every stripe is an independent LRU
+ * cache guarded by its own lock, so concurrent callers with different arguments rarely
+ * contend. Arguments that fit in 64 bits are packed into a {@code long} key by the generated
+ * code and are kept in primitive arrays without boxing.
+ * </p>
+ *
+ * @param <T> the type of the cached {@code Uri}.
+ */
+public final class UriCache<T> {
+
+    private static final int MAX_STRIPE_COUNT = 1 << 16;
+
+    @NonNull
+    private final Stripe<T>[] mStripes;
+
+    private final boolean mRecordStats;
+
+    /**
+     * @param capacity the maximum number of the cached {@code Uri}s. It is divided evenly
+     * between the stripes, so the actual capacity may be slightly bigger.
+     * @param stripeCount the number of the independently locked parts of the cache.
+     * It is rounded to a power of two not greater than the {@code capacity} and 65536.
+     * @param recordStats whether the hits and misses are counted.
+     */
+    public UriCache(int capacity, int stripeCount, boolean recordStats) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity " + capacity + " must be positive");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("stripeCount " + stripeCount + " must be positive");
+        }
+
+        int roundedStripeCount = Math.min(stripeCount, MAX_STRIPE_COUNT) * 2 - 1;
+        int stripes = Integer.highestOneBit(Math.min(roundedStripeCount, capacity));
+        int stripeCapacity = (capacity + stripes - 1) / stripes;
+
+        mStripes = newStripes(stripes);
+        for (int i = 0; i < stripes; i++) {
+            mStripes[i] = new Stripe<>(stripeCapacity);
+        }
+        mRecordStats = recordStats;
+    }
+
+    @Nullable
+    public T get(@Nullable Object key) {
+        Stripe<T> stripe = stripeOf(key != null ? key.hashCode() : 0);
+        synchronized (stripe) {
+            T value = stripe.get(key);
+            stripe.record(mRecordStats, value != null);
+            return value;
+        }
+    }
+
+    @Nullable
+    public T get(long key) {
+        Stripe<T> stripe = stripeOf((int) (key ^ (key >>> 32)));
+        synchronized (stripe) {
+            T value = stripe.get(key);
+            stripe.record(mRecordStats, value != null);
+            return value;
+        }
+    }
+
+    /**
+     * Puts the {@code value} into the cache evicting the least recently used one from
+     * the key's stripe if it's full. A {@link UriArguments} key is copied first, so it doesn't
+     * share arrays and {@code ByteBuffer}s with the caller, other keys must be immutable.
+     *
+     * @return the {@code value} itself.
+     */
+    @NonNull
+    public T put(@Nullable Object key, @NonNull T value) {
+        Object storedKey = key instanceof UriArguments ? ((UriArguments) key).copy() : key;
+        Stripe<T> stripe = stripeOf(storedKey != null ? storedKey.hashCode() : 0);
+        synchronized (stripe) {
+            stripe.put(storedKey, value);
+        }
+        return value;
+    }
+
+    /**
+     * Puts the {@code value} into the cache evicting the least recently used one from
+     * the key's stripe if it's full.
+     *
+     * @return the {@code value} itself.
+     */
+    @NonNull
+    public T put(long key, @NonNull T value) {
+        Stripe<T> stripe = stripeOf((int) (key ^ (key >>> 32)));
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * The number of the lookups that returned a cached {@code Uri}. Always {@code 0} if
+     * the stats are not recorded.
+     */
+    public long getHitCount() {
+        long hitCount = 0;
+        for (Stripe<T> stripe : mStripes) {
+            synchronized (stripe) {
+                hitCount += stripe.mHitCount;
+            }
+        }
+        return hitCount;
+    }
+
+    /**
+     * The number of the lookups that had to build a new {@code Uri}. Always {@code 0} if
+     * the stats are not recorded.
+     */
+    public long getMissCount() {
+        long missCount = 0;
+        for (Stripe<T> stripe : mStripes) {
+            synchronized (stripe) {
+                missCount += stripe.mMissCount;
+            }
+        }
+        return missCount;
+    }
+
+    /**
+     * The ratio of the hits to all the lookups or {@code 0} if there were no lookups yet
+     * or the stats are not recorded.
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long lookupCount = hitCount + getMissCount();
+        return lookupCount == 0 ? 0.0 : (double) hitCount / lookupCount;
+    }
+
+    /**
+     * The number of the cached {@code Uri}s.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe<T> stripe : mStripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private static <T> Stripe<T>[] newStripes(int count) {
+        return (Stripe<T>[]) new Stripe<?>[count];
+    }
+
+    @NonNull
+    private Stripe<T> stripeOf(int hash) {
+        int spread = hash ^ (hash >>> 16);
+        return mStripes[spread & (mStripes.length - 1)];
+    }
+
+    /**
+     * A part of the cache guarded by its own lock. Object keys are kept in an access ordered
+     * {@link LinkedHashMap}. Long keys are kept in primitive arrays indexed by an open
+     * addressing hash table and linked into a list from the least to the most recently used
+     * entry, so both the lookup and the eviction take constant time without boxing.
+     */
+    private static final class Stripe<T> {
+
+        private static final int INITIAL_LONG_CAPACITY = 8;
+
+        private static final int MAX_LONG_TABLE_SIZE = 1 << 30;
+
+        private final int mCapacity;
+
+        @Nullable
+        private LinkedHashMap<Object, T> mObjectEntries;
+
+        @Nullable
+        private long[] mLongKeys;
+
+        @Nullable
+        private Object[] mLongValues;
+
+        @Nullable
+        private int[] mLongPrevious;
+
+        @Nullable
+        private int[] mLongNext;
+
+        /**
+         * Indices of the long entries shifted by one, so that {@code 0} marks a free slot.
+         */
+        @Nullable
+        private int[] mLongTable;
+
+        private int mLongSize;
+
+        private int mLongEldest = -1;
+
+        private int mLongNewest = -1;
+
+        long mHitCount;
+
+        long mMissCount;
+
+        Stripe(int capacity) {
+            mCapacity = capacity;
+        }
+
+        void record(boolean recordStats, boolean hit) {
+            if (recordStats) {
+                if (hit) {
+                    mHitCount++;
+                } else {
+                    mMissCount++;
+                }
+            }
+        }
+
+        @Nullable
+        T get(@Nullable Object key) {
+            return mObjectEntries != null ? mObjectEntries.get(key) : null;
+        }
+
+        void put(@Nullable Object key, @NonNull T value) {
+            LinkedHashMap<Object, T> entries = mObjectEntries;
+            if (entries == null) {
+                final int capacity = mCapacity;
+                entries = new LinkedHashMap<Object, T>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Object, T> eldest) {
+                        return size() > capacity;
+                    }
+                };
+                mObjectEntries = entries;
+            }
+            entries.put(key, value);
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        T get(long key) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return null;
+            }
+            moveToNewest(index);
+            return (T) mLongValues[index];
+        }
+
+        void put(long key, @NonNull T value) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                mLongValues[index] = value;
+                moveToNewest(index);
+                return;
+            }
+
+            if (mLongKeys == null || mLongSize == mLongKeys.length && mLongSize < mCapacity) {
+                growLongEntries();
+            }
+            if (mLongSize < mLongKeys.length) {
+                index = mLongSize++;
+            } else {
+                index = mLongEldest;
+                removeFromTable(index);
+                unlink(index);
+            }
+            mLongKeys[index] = key;
+            mLongValues[index] = value;
+            addToTable(index);
+            linkNewest(index);
+        }
+
+        int size() {
+            return (mObjectEntries != null ? mObjectEntries.size() : 0) + mLongSize;
+        }
+
+        private void growLongEntries() {
+            int length = mLongKeys != null
+                    ? (int) Math.min(mCapacity, 2L * mLongKeys.length)
+                    : Math.min(mCapacity, INITIAL_LONG_CAPACITY);
+
+            if (mLongKeys == null) {
+                mLongKeys = new long[length];
+                mLongValues = new Object[length];
+                mLongPrevious = new int[length];
+                mLongNext = new int[length];
+            } else {
+                mLongKeys = Arrays.copyOf(mLongKeys, length);
+                mLongValues = Arrays.copyOf(mLongValues, length);
+                mLongPrevious = Arrays.copyOf(mLongPrevious, length);
+                mLongNext = Arrays.copyOf(mLongNext, length);
+            }
+
+            // keep the table at most half full, so the probe sequences stay short
+            long tableSize = Long.highestOneBit(Math.max(length, 2) - 1) << 2;
+            mLongTable = new int[(int) Math.min(tableSize, MAX_LONG_TABLE_SIZE)];
+            for (int i = 0; i < mLongSize; i++) {
+                addToTable(i);
+            }
+        }
+
+        private int indexOf(long key) {
+            int[] table = mLongTable;
+            if (table == null) {
+                return -1;
+            }
+            int mask = table.length - 1;
+            for (int slot = slotOf(key, mask); ; slot = (slot + 1) & mask) {
+                int entry = table[slot];
+                if (entry == 0) {
+                    return -1;
+                }
+                if (mLongKeys[entry - 1] == key) {
+                    return entry - 1;
+                }
+            }
+        }
+
+        private void addToTable(int index) {
+            int[] table = mLongTable;
+            int mask = table.length - 1;
+            int slot = slotOf(mLongKeys[index], mask);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+
+        private void removeFromTable(int index) {
+            int[] table = mLongTable;
+            int mask = table.length - 1;
+            int free = slotOf(mLongKeys[index], mask);
+            while (table[free] != index + 1) {
+                free = (free + 1) & mask;
+            }
+
+            // shift back the following entries of the probe sequence that may not be found
+            // anymore once the slot is free
+            for (int slot = (free + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+                int home = slotOf(mLongKeys[table[slot] - 1], mask);
+                if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                    table[free] = table[slot];
+                    free = slot;
+                }
+            }
+            table[free] = 0;
+        }
+
+        private void moveToNewest(int index) {
+            if (index != mLongNewest) {
+                unlink(index);
+                linkNewest(index);
+            }
+        }
+
+        private void unlink(int index) {
+            int previous = mLongPrevious[index];
+            int next = mLongNext[index];
+            if (previous < 0) {
+                mLongEldest = next;
+            } else {
+                mLongNext[previous] = next;
+            }
+            if (next < 0) {
+                mLongNewest = previous;
+            } else {
+                mLongPrevious[next] = previous;
+            }
+        }
+
+        private void linkNewest(int index) {
+            mLongPrevious[index] = mLongNewest;
+            mLongNext[index] = -1;
+            if (mLongNewest < 0) {
+                mLongEldest = index;
+            } else {
+                mLongNext[mLongNewest] = index;
+            }
+            mLongNewest = index;
+        }
+
+        private static int slotOf(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * <p>
+ * Stable 64-bit hash of a {@code Uri} string computed without materializing it.
+ * </p><p>
+ * The methods mirror {@code Uri.Builder}: every part is encoded the same way and streamed
+ * through a 64-bit FNV-1a hash character by character in the order it appears in the
+ * {@code Uri} string, so {@link #build()} returns exactly the same value as {@link #of}
+ * for the string of the {@code Uri} built with the same calls. Path segments must be
+ * appended before the query parameters, which is the order the generated code uses.
+ * </p><p>
+ * It's used by the {@code fingerprintXxx()} methods generated for
+ * {@link boringyuri.api.UriFactory#fingerprints()} and is not thread safe.
+ * </p><p>
+ * The fingerprint methods are not allocation-free: every call creates a new instance and
+ * the argument values are converted to strings (e.g. {@code String.valueOf()},
+ * {@code Base64Url}, type adapters or compression) exactly as the builder method does it.
+ * Only {@code Uri.Builder}, the encoded parts and the {@code Uri} string are not created.
+ * </p>
+ */
+public final class UriFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final String ALLOWED_CHARS = "_-!.~'()*";
+    private static final String HEX_DIGITS = "0123456789ABCDEF";
+
+    private long mHash = FNV_OFFSET_BASIS;
+
+    private boolean mHasPath;
+    private boolean mPathEndsWithSlash;
+    private boolean mHasQuery;
+
+    /**
+     * Computes the fingerprint of an already built {@code Uri} string.
+     */
+    public static long of(@NonNull CharSequence uri) {
+        long hash = FNV_OFFSET_BASIS;
+        int length = uri.length();
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ uri.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    @NonNull
+    public UriFingerprint scheme(@Nullable String scheme) {
+        if (scheme != null) {
+            append(scheme);
+            append(':');
+        }
+        return this;
+    }
+
+    /**
+     * Appends the authority which is already encoded the way the {@code Uri} backend does it.
+     */
+    @NonNull
+    public UriFingerprint encodedAuthority(@Nullable String authority) {
+        if (authority != null) {
+            append('/');
+            append('/');
+            append(authority);
+        }
+        return this;
+    }
+
+    @NonNull
+    public UriFingerprint appendPath(@NonNull String segment) {
+        startSegment();
+        appendEncoded(segment);
+        return this;
+    }
+
+    @NonNull
+    public UriFingerprint appendEncodedPath(@NonNull String segment) {
+        startSegment();
+        append(segment);
+        return this;
+    }
+
+    /**
+     * Appends a query parameter encoding both {@code key} and {@code value} the same way as
+     * {@code Uri.Builder.appendQueryParameter()} does.
+     */
+    @NonNull
+    public UriFingerprint appendQueryParameter(@NonNull String key, @Nullable String value) {
+        startParameter();
+        appendEncoded(key);
+        append('=');
+        // null value is written as "null" the same way as Uri.Builder does
+        appendEncoded(String.valueOf(value));
+        return this;
+    }
+
+    /**
+     * Appends a query parameter which key and value are already encoded.
+     */
+    @NonNull
+    public UriFingerprint appendEncodedQueryParameter(
+            @NonNull String encodedKey,
+            @NonNull String encodedValue
+    ) {
+        startParameter();
+        append(encodedKey);
+        append('=');
+        append(encodedValue);
+        return this;
+    }
+
+    /**
+     * Returns the fingerprint of the {@code Uri} described so far.
+     */
+    public long build() {
+        return mHash;
+    }
+
+    private void startSegment() {
+        if (!mHasPath || !mPathEndsWithSlash) {
+            append('/');
+        }
+        mHasPath = true;
+    }
+
+    private void startParameter() {
+        append(mHasQuery ? '&' : '?');
+        mHasQuery = true;
+    }
+
+    private void append(@NonNull String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            append(value.charAt(i));
+        }
+    }
+
+    private void append(char c) {
+        mHash = (mHash ^ c) * FNV_PRIME;
+        mPathEndsWithSlash = c == '/';
+    }
+
+    private void appendEncoded(@NonNull String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (isAllowed(c)) {
+                append(c);
+            } else if (c < 0x80) {
+                appendEscaped(c);
+            } else if (c < 0x800) {
+                appendEscaped(0xC0 | (c >> 6));
+                appendEscaped(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                appendEscaped(0xF0 | (codePoint >> 18));
+                appendEscaped(0x80 | ((codePoint >> 12) & 0x3F));
+                appendEscaped(0x80 | ((codePoint >> 6) & 0x3F));
+                appendEscaped(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogates are replaced with '?' by the UTF-8 encoder
+                appendEscaped('?');
+            } else {
+                appendEscaped(0xE0 | (c >> 12));
+                appendEscaped(0x80 | ((c >> 6) & 0x3F));
+                appendEscaped(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void appendEscaped(int b) {
+        append('%');
+        append(HEX_DIGITS.charAt((b >> 4) & 0x0F));
+        append(HEX_DIGITS.charAt(b & 0x0F));
+    }
+
+    private static boolean isAllowed(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || ALLOWED_CHARS.indexOf(c) != -1;
+    }
+}
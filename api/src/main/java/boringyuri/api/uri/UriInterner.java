@@ -0,0 +1,323 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.api.uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Bounded concurrent interner of the {@code Uri}s built by an
+ * {@link boringyuri.api.Interned Interned} builder method.
+ * </p><p>
+ * Canonical instances are weakly referenced and keyed by the arguments of the builder method,
+ * so an instance stays canonical only while it is used somewhere else. Once the interner holds
+ * {@code maxSize} live instances, new ones are returned as is without being interned.
+ * </p><p>
+ * Arguments that fit in 64 bits are packed into a {@code long} key by the generated code and
+ * are looked up without boxing.
+ * </p>
+ *
+ * @param <T> the type of the interned {@code Uri}.
+ */
+public final class UriInterner<T> {
+
+    private final int mMaxSize;
+
+    @NonNull
+    private final ConcurrentHashMap<UriArguments, Entry<T>> mEntries = new ConcurrentHashMap<>();
+
+    @NonNull
+    private final LongEntries<T> mLongEntries = new LongEntries<>();
+
+    @NonNull
+    private final ReferenceQueue<T> mQueue = new ReferenceQueue<>();
+
+    @NonNull
+    private final AtomicLong mHitCount = new AtomicLong();
+
+    @NonNull
+    private final AtomicLong mMissCount = new AtomicLong();
+
+    public UriInterner(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize " + maxSize + " must be positive");
+        }
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * Returns the canonical instance for the {@code key} or <code>null</code> if there is
+     * no live instance for it.
+     */
+    @Nullable
+    public T get(@NonNull UriArguments key) {
+        Entry<T> entry = mEntries.get(key);
+        return record(entry != null ? entry.get() : null);
+    }
+
+    /**
+     * Returns the canonical instance for the packed {@code key} or <code>null</code> if there
+     * is no live instance for it.
+     */
+    @Nullable
+    public T get(long key) {
+        Entry<T> entry;
+        synchronized (mLongEntries) {
+            entry = mLongEntries.get(key);
+        }
+        return record(entry != null ? entry.get() : null);
+    }
+
+    /**
+     * Makes the {@code value} canonical for the {@code key} unless another thread has already
+     * interned a live instance for it or the interner is full.
+     *
+     * @return the canonical instance for the {@code key} or the {@code value} itself.
+     */
+    @NonNull
+    public T intern(@NonNull UriArguments key, @NonNull T value) {
+        expungeStaleEntries();
+
+        if (size() >= mMaxSize) {
+            return value;
+        }
+
+        UriArguments storedKey = key.copy();
+        Entry<T> entry = new Entry<>(storedKey, 0L, value, mQueue);
+        Entry<T> existing = mEntries.putIfAbsent(storedKey, entry);
+        if (existing != null) {
+            T canonical = existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+            mEntries.replace(storedKey, existing, entry);
+        }
+        return value;
+    }
+
+    /**
+     * Makes the {@code value} canonical for the packed {@code key} unless another thread has
+     * already interned a live instance for it or the interner is full.
+     *
+     * @return the canonical instance for the {@code key} or the {@code value} itself.
+     */
+    @NonNull
+    public T intern(long key, @NonNull T value) {
+        expungeStaleEntries();
+
+        if (size() >= mMaxSize) {
+            return value;
+        }
+
+        synchronized (mLongEntries) {
+            Entry<T> existing = mLongEntries.get(key);
+            T canonical = existing != null ? existing.get() : null;
+            if (canonical != null) {
+                return canonical;
+            }
+            mLongEntries.put(key, new Entry<>(null, key, value, mQueue));
+        }
+        return value;
+    }
+
+    /**
+     * The number of the lookups that returned a canonical instance.
+     */
+    public long getHitCount() {
+        return mHitCount.get();
+    }
+
+    /**
+     * The number of the lookups that had to build a new {@code Uri}.
+     */
+    public long getMissCount() {
+        return mMissCount.get();
+    }
+
+    /**
+     * The ratio of the hits to all the lookups or {@code 0} if there were no lookups yet.
+     */
+    public double getHitRate() {
+        long hitCount = mHitCount.get();
+        long lookupCount = hitCount + mMissCount.get();
+        return lookupCount == 0 ? 0.0 : (double) hitCount / lookupCount;
+    }
+
+    /**
+     * The number of the interned instances including the ones that are already garbage
+     * collected but not expunged yet.
+     */
+    public int size() {
+        int longSize;
+        synchronized (mLongEntries) {
+            longSize = mLongEntries.mSize;
+        }
+        return mEntries.size() + longSize;
+    }
+
+    @Nullable
+    private T record(@Nullable T value) {
+        if (value != null) {
+            mHitCount.incrementAndGet();
+        } else {
+            mMissCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expungeStaleEntries() {
+        Entry<T> entry;
+        while ((entry = (Entry<T>) mQueue.poll()) != null) {
+            if (entry.mKey != null) {
+                mEntries.remove(entry.mKey, entry);
+            } else {
+                synchronized (mLongEntries) {
+                    mLongEntries.remove(entry.mLongKey, entry);
+                }
+            }
+        }
+    }
+
+    private static final class Entry<T> extends WeakReference<T> {
+
+        /**
+         * The key of the arguments or <code>null</code> if they are packed into
+         * the {@link #mLongKey}.
+         */
+        @Nullable
+        final UriArguments mKey;
+
+        final long mLongKey;
+
+        Entry(
+                @Nullable UriArguments key,
+                long longKey,
+                @NonNull T value,
+                @NonNull ReferenceQueue<T> queue
+        ) {
+            super(value, queue);
+            mKey = key;
+            mLongKey = longKey;
+        }
+    }
+
+    /**
+     * Open addressing hash table from the packed keys to the entries. It isn't thread-safe,
+     * all the calls are synchronized on the table itself.
+     */
+    private static final class LongEntries<T> {
+
+        private static final int INITIAL_TABLE_SIZE = 16;
+
+        @NonNull
+        private long[] mKeys = new long[INITIAL_TABLE_SIZE];
+
+        /**
+         * Entries of the keys in the same slots, <code>null</code> marks a free slot.
+         */
+        @NonNull
+        private Object[] mValues = new Object[INITIAL_TABLE_SIZE];
+
+        int mSize;
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        Entry<T> get(long key) {
+            int slot = slotOf(key);
+            return slot >= 0 ? (Entry<T>) mValues[slot] : null;
+        }
+
+        void put(long key, @NonNull Entry<T> entry) {
+            int slot = slotOf(key);
+            if (slot >= 0) {
+                mValues[slot] = entry;
+                return;
+            }
+
+            // keep the table at most half full, so the probe sequences stay short
+            if (2 * (mSize + 1) > mKeys.length) {
+                resize(mKeys.length * 2);
+            }
+            insert(key, entry);
+            mSize++;
+        }
+
+        void remove(long key, @NonNull Entry<T> entry) {
+            int free = slotOf(key);
+            if (free < 0 || mValues[free] != entry) {
+                return;
+            }
+
+            // shift back the following entries of the probe sequence that may not be found
+            // anymore once the slot is free
+            int mask = mKeys.length - 1;
+            for (int slot = (free + 1) & mask; mValues[slot] != null; slot = (slot + 1) & mask) {
+                int home = homeOf(mKeys[slot], mask);
+                if (((slot - home) & mask) >= ((slot - free) & mask)) {
+                    mKeys[free] = mKeys[slot];
+                    mValues[free] = mValues[slot];
+                    free = slot;
+                }
+            }
+            mValues[free] = null;
+            mSize--;
+        }
+
+        private int slotOf(long key) {
+            int mask = mKeys.length - 1;
+            for (int slot = homeOf(key, mask); mValues[slot] != null; slot = (slot + 1) & mask) {
+                if (mKeys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void insert(long key, @NonNull Object entry) {
+            int mask = mKeys.length - 1;
+            int slot = homeOf(key, mask);
+            while (mValues[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            mKeys[slot] = key;
+            mValues[slot] = entry;
+        }
+
+        private void resize(int tableSize) {
+            long[] keys = mKeys;
+            Object[] values = mValues;
+            mKeys = new long[tableSize];
+            mValues = new Object[tableSize];
+            for (int i = 0; i < keys.length; i++) {
+                if (values[i] != null) {
+                    insert(keys[i], values[i]);
+                }
+            }
+        }
+
+        private static int homeOf(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.api.uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Read-only hierarchical {@code Uri} parsed straight from a {@link CharSequence}.
+ * </p><p>
+ * Path and query boundaries are located once when the instance is created, every read
+ * method indexes into the original characters afterwards. It mirrors the reading part of
+ * {@code android.net.Uri}, so the values are decoded exactly the same way: path segments
+ * are percent-decoded, query values are percent-decoded with '+' treated as a space and
+ * a malformed escape sequence is replaced with U+FFFD.
+ * </p><p>
+ * It doesn't depend on the Android framework and is used by the data classes generated with
+ * {@code fromString = true} to parse {@code Uri}s received as raw strings.
+ * </p>
+ */
+public final class UriString {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String ALLOWED_CHARS = "_-!.~'()*";
+
+    // replaces malformed escape sequences the same way android.net.Uri.decode() does
+    private static final char INVALID_INPUT_CHARACTER = '\ufffd';
+
+    @NonNull
+    private final CharSequence mSource;
+
+    // -1 if the uri is relative
+    private final int mSchemeEnd;
+
+    // -1 if the uri doesn't have an authority
+    private final int mAuthorityStart;
+    private final int mAuthorityEnd;
+
+    private final int mPathStart;
+    private final int mPathEnd;
+
+    // -1 if the uri doesn't have a query
+    private final int mQueryStart;
+    private final int mQueryEnd;
+
+    @Nullable
+    private List<String> mPathSegments;
+
+    private UriString(@NonNull CharSequence source) {
+        mSource = source;
+
+        int length = source.length();
+        int end = indexOf(source, '#', 0, length);
+        if (end == -1) {
+            end = length;
+        }
+
+        int pathStart = 0;
+        int schemeEnd = findSchemeEnd(source, end);
+        mSchemeEnd = schemeEnd;
+        if (schemeEnd != -1) {
+            pathStart = schemeEnd + 1;
+            if (pathStart == end || source.charAt(pathStart) != '/') {
+                // opaque uri (eg. mailto:user@example.com) has neither path nor query
+                mAuthorityStart = -1;
+                mAuthorityEnd = -1;
+                mPathStart = end;
+                mPathEnd = end;
+                mQueryStart = -1;
+                mQueryEnd = -1;
+                return;
+            }
+        }
+
+        if (pathStart + 1 < end
+                && source.charAt(pathStart) == '/'
+                && source.charAt(pathStart + 1) == '/') {
+            pathStart += 2;
+            mAuthorityStart = pathStart;
+            while (pathStart < end) {
+                char c = source.charAt(pathStart);
+                if (c == '/' || c == '?') {
+                    break;
+                }
+                pathStart++;
+            }
+            mAuthorityEnd = pathStart;
+        } else {
+            mAuthorityStart = -1;
+            mAuthorityEnd = -1;
+        }
+
+        int queryStart = indexOf(source, '?', pathStart, end);
+
+        mPathStart = pathStart;
+        mPathEnd = queryStart == -1 ? end : queryStart;
+        mQueryStart = queryStart == -1 ? -1 : queryStart + 1;
+        mQueryEnd = queryStart == -1 ? -1 : end;
+    }
+
+    /**
+     * Locates path and query of the given {@code uri}. The characters are not copied,
+     * so the given sequence must not be modified while the result is in use.
+     */
+    @NonNull
+    public static UriString parse(@NonNull CharSequence uri) {
+        return new UriString(uri);
+    }
+
+    /**
+     * Returns the scheme or <code>null</code> if the uri is relative.
+     */
+    @Nullable
+    public String getScheme() {
+        return mSchemeEnd == -1 ? null : mSource.subSequence(0, mSchemeEnd).toString();
+    }
+
+    /**
+     * Returns decoded authority or <code>null</code> if the uri doesn't have an authority.
+     */
+    @Nullable
+    public String getAuthority() {
+        if (mAuthorityStart == -1) {
+            return null;
+        }
+        return decode(mSource, mAuthorityStart, mAuthorityEnd, false);
+    }
+
+    /**
+     * Returns decoded path segments. Empty segments are skipped.
+     */
+    @NonNull
+    public List<String> getPathSegments() {
+        List<String> segments = mPathSegments;
+        if (segments != null) {
+            return segments;
+        }
+
+        segments = new ArrayList<>();
+        int start = mPathStart;
+        while (start < mPathEnd) {
+            int end = indexOf(mSource, '/', start, mPathEnd);
+            if (end == -1) {
+                end = mPathEnd;
+            }
+            if (end > start) {
+                segments.add(decode(mSource, start, end, false));
+            }
+            start = end + 1;
+        }
+
+        mPathSegments = segments = Collections.unmodifiableList(segments);
+        return segments;
+    }
+
+    /**
+     * Returns the query without decoding it or <code>null</code> if there is no query.
+     */
+    @Nullable
+    public String getEncodedQuery() {
+        return mQueryStart == -1 ? null : mSource.subSequence(mQueryStart, mQueryEnd).toString();
+    }
+
+    /**
+     * Returns the first decoded value of the query parameter with the given {@code name} or
+     * <code>null</code> if there is no such parameter. A parameter without a value yields
+     * an empty string.
+     */
+    @Nullable
+    public String getQueryParameter(@NonNull String name) {
+        if (mQueryStart == -1) {
+            return null;
+        }
+
+        String encodedName = encode(name);
+        int start = mQueryStart;
+        while (start <= mQueryEnd) {
+            int end = indexOf(mSource, '&', start, mQueryEnd);
+            if (end == -1) {
+                end = mQueryEnd;
+            }
+            int valueStart = matchName(encodedName, start, end);
+            if (valueStart != -1) {
+                return decode(mSource, valueStart, end, true);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Returns all decoded values of the query parameter with the given {@code name}.
+     */
+    @NonNull
+    public List<String> getQueryParameters(@NonNull String name) {
+        if (mQueryStart == -1) {
+            return Collections.emptyList();
+        }
+
+        String encodedName = encode(name);
+        List<String> values = null;
+        int start = mQueryStart;
+        while (start <= mQueryEnd) {
+            int end = indexOf(mSource, '&', start, mQueryEnd);
+            if (end == -1) {
+                end = mQueryEnd;
+            }
+            int valueStart = matchName(encodedName, start, end);
+            if (valueStart != -1) {
+                if (values == null) {
+                    values = new ArrayList<>();
+                }
+                values.add(decode(mSource, valueStart, end, true));
+            }
+            start = end + 1;
+        }
+        return values == null ? Collections.<String>emptyList() : values;
+    }
+
+    /**
+     * <p>
+     * Returns the uri string with every query parameter with the given {@code name} replaced
+     * by the {@code encodedPairs}. The pairs are put in place of the first replaced parameter
+     * or appended to the query if there is no such parameter.
+     * </p><p>
+     * The {@code encodedPairs} are already encoded {@code name=value} pairs every one of
+     * which is prefixed with {@code '&'}, e.g. {@code "&page=2"}. An empty sequence removes
+     * the parameter. All the other parts of the uri are copied as is without decoding them.
+     * </p>
+     */
+    @NonNull
+    public String replaceQueryParameter(@NonNull String name, @NonNull CharSequence encodedPairs) {
+        int length = mSource.length();
+        StringBuilder result = new StringBuilder(length + encodedPairs.length());
+
+        if (mQueryStart == -1) {
+            if (encodedPairs.length() == 0) {
+                return mSource.toString();
+            }
+            return result.append(mSource, 0, mPathEnd)
+                    .append('?')
+                    .append(encodedPairs, 1, encodedPairs.length())
+                    .append(mSource, mPathEnd, length)
+                    .toString();
+        }
+
+        result.append(mSource, 0, mQueryStart);
+        int queryStart = result.length();
+
+        String encodedName = encode(name);
+        boolean replaced = false;
+        int start = mQueryStart;
+        while (start < mQueryEnd) {
+            int end = indexOf(mSource, '&', start, mQueryEnd);
+            if (end == -1) {
+                end = mQueryEnd;
+            }
+            if (matchName(encodedName, start, end) != -1) {
+                if (!replaced) {
+                    result.append(encodedPairs);
+                    replaced = true;
+                }
+            } else if (start < end) {
+                result.append('&').append(mSource, start, end);
+            }
+            start = end + 1;
+        }
+        if (!replaced) {
+            result.append(encodedPairs);
+        }
+
+        if (result.length() > queryStart) {
+            // the query is collected with a separator before every parameter
+            result.deleteCharAt(queryStart);
+        } else {
+            // drop '?' of the empty query
+            result.setLength(queryStart - 1);
+        }
+
+        return result.append(mSource, mQueryEnd, length).toString();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return mSource.toString();
+    }
+
+    /**
+     * Returns the index where the value of the parameter starts if the parameter
+     * in the [start, end) range has the given name, -1 otherwise.
+     */
+    private int matchName(@NonNull String encodedName, int start, int end) {
+        int nameLength = encodedName.length();
+        int separator = start + nameLength;
+        if (separator > end) {
+            return -1;
+        }
+        for (int i = 0; i < nameLength; i++) {
+            if (mSource.charAt(start + i) != encodedName.charAt(i)) {
+                return -1;
+            }
+        }
+        if (separator == end) {
+            return end;
+        }
+        return mSource.charAt(separator) == '=' ? separator + 1 : -1;
+    }
+
+    private static int findSchemeEnd(@NonNull CharSequence source, int end) {
+        for (int i = 0; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == ':') {
+                return i;
+            }
+            if (c == '/' || c == '?') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(@NonNull CharSequence source, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (source.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Percent-encodes every character of the {@code value} except letters, digits and
+     * {@code _-!.~'()*} the same way as {@code android.net.Uri.encode(String)} does.
+     */
+    @NonNull
+    public static String encode(@NonNull String value) {
+        return encode(value, "");
+    }
+
+    /**
+     * Percent-encodes every character of the {@code value} except letters, digits,
+     * {@code _-!.~'()*} and the characters from {@code allow}.
+     */
+    @NonNull
+    public static String encode(@NonNull String value, @NonNull String allow) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (!isAllowed(value.charAt(i), allow)) {
+                return encode(value, allow, i);
+            }
+        }
+        return value;
+    }
+
+    @NonNull
+    private static String encode(@NonNull String value, @NonNull String allow, int firstEncoded) {
+        StringBuilder encoded = new StringBuilder(value.length() + 16);
+        encoded.append(value, 0, firstEncoded);
+        byte[] bytes = value.substring(firstEncoded).getBytes(UTF_8);
+        for (byte b : bytes) {
+            char c = (char) (b & 0xFF);
+            if (c < 0x80 && isAllowed(c, allow)) {
+                encoded.append(c);
+            } else {
+                encoded.append('%')
+                        .append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    private static boolean isAllowed(char c, @NonNull String allow) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || ALLOWED_CHARS.indexOf(c) != -1
+                || allow.indexOf(c) != -1;
+    }
+
+    @NonNull
+    private static String decode(
+            @NonNull CharSequence source,
+            int start,
+            int end,
+            boolean convertPlus
+    ) {
+        int i = start;
+        while (i < end) {
+            char c = source.charAt(i);
+            if (c == '%' || (convertPlus && c == '+')) {
+                break;
+            }
+            i++;
+        }
+        if (i == end) {
+            // nothing to decode
+            return source.subSequence(start, end).toString();
+        }
+
+        StringBuilder decoded = new StringBuilder(end - start);
+        decoded.append(source, start, i);
+        ByteArrayOutputStream bytes = null;
+        while (i < end) {
+            char c = source.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= end) {
+                    // truncated escape sequence, the rest of the value is dropped
+                    flushBytes(bytes, decoded);
+                    return decoded.append(INVALID_INPUT_CHARACTER).toString();
+                }
+                int high = hexDigit(source.charAt(i + 1));
+                int low = hexDigit(source.charAt(i + 2));
+                if (high == -1 || low == -1) {
+                    // the invalid character is consumed along with the preceding ones
+                    flushBytes(bytes, decoded);
+                    decoded.append(INVALID_INPUT_CHARACTER);
+                    i += high == -1 ? 2 : 3;
+                    continue;
+                }
+                if (bytes == null) {
+                    bytes = new ByteArrayOutputStream();
+                }
+                bytes.write((high << 4) | low);
+                i += 3;
+                continue;
+            }
+            flushBytes(bytes, decoded);
+            decoded.append(convertPlus && c == '+' ? ' ' : c);
+            i++;
+        }
+        flushBytes(bytes, decoded);
+        return decoded.toString();
+    }
+
+    private static void flushBytes(@Nullable ByteArrayOutputStream bytes, StringBuilder out) {
+        if (bytes != null && bytes.size() > 0) {
+            // malformed UTF-8 sequences are replaced with U+FFFD as well
+            out.append(new String(bytes.toByteArray(), UTF_8));
+            bytes.reset();
+        }
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import boringyuri.benchmarks.uri.BenchmarkUriFactory;
+import boringyuri.benchmarks.uri.Point;
+import boringyuri.jvm.Uri;
+
+/**
+ * Measures the generated builder methods.
+ */
+@State(Scope.Benchmark)
+public class BuildBenchmark {
+
+    private final BenchmarkUriFactory mFactory = BenchmarkUriFactory.create();
+
+    private final int[] mTags = {1, 2, 3, 5, 8};
+    private final long[] mIds = {100L, 200L, 300L};
+    private final Point mCenter = new Point(52.52, 13.405);
+
+    @Benchmark
+    public Uri buildScalars() {
+        return mFactory.buildUserUri(42L, "John Doe", 33, true, "john@example.com", "en");
+    }
+
+    @Benchmark
+    public Uri buildArrays() {
+        return mFactory.buildSearchUri("books", "boring uri", mTags, mIds);
+    }
+
+    @Benchmark
+    public Uri buildTypeAdapter() {
+        return mFactory.buildMapUri(12, mCenter, null);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import boringyuri.benchmarks.uri.BenchmarkUriFactory;
+import boringyuri.benchmarks.uri.BenchmarkUriMatcher;
+import boringyuri.jvm.Uri;
+import boringyuri.jvm.UriMatcher;
+
+/**
+ * Measures {@code Uri} matching. The generated matcher has a fixed set of routes, so
+ * the scaling with the number of routes is measured with a matcher filled with the same
+ * kind of path templates the generated matchers register.
+ */
+public class MatchBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class GeneratedMatcherState {
+        final BenchmarkUriMatcher mMatcher = new BenchmarkUriMatcher();
+
+        Uri mUserUri;
+
+        @Setup
+        public void setUp() {
+            mUserUri = BenchmarkUriFactory.create()
+                    .buildUserUri(42L, "John Doe", 33, true, null, "en");
+            // initialization is lazy, keep it out of the measurement
+            mMatcher.match(mUserUri);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class RoutesState {
+        @Param({"10", "100", "1000"})
+        int routes;
+
+        final UriMatcher mMatcher = new UriMatcher(UriMatcher.NO_MATCH);
+
+        Uri mFirstRouteUri;
+        Uri mLastRouteUri;
+        Uri mMissUri;
+
+        @Setup
+        public void setUp() {
+            for (int i = 0; i < routes; i++) {
+                // alternate numeric and text wildcards like the generated matchers do
+                String template = i % 2 == 0 ? "route" + i + "/#" : "route" + i + "/*/details";
+                mMatcher.addURI(BenchmarkUriFactory.AUTHORITY, template, i);
+            }
+
+            int last = routes - 1;
+            mFirstRouteUri = Uri.parse("content://" + BenchmarkUriFactory.AUTHORITY + "/route0/42");
+            mLastRouteUri = Uri.parse(
+                    "content://" + BenchmarkUriFactory.AUTHORITY + "/route" + last + "/abc/details"
+            );
+            mMissUri = Uri.parse("content://" + BenchmarkUriFactory.AUTHORITY + "/unknown/42");
+        }
+    }
+
+    @Benchmark
+    public int matchGenerated(GeneratedMatcherState state) {
+        return state.mMatcher.match(state.mUserUri);
+    }
+
+    @Benchmark
+    public int matchFirstRoute(RoutesState state) {
+        return state.mMatcher.match(state.mFirstRouteUri);
+    }
+
+    @Benchmark
+    public int matchLastRoute(RoutesState state) {
+        return state.mMatcher.match(state.mLastRouteUri);
+    }
+
+    @Benchmark
+    public int matchMiss(RoutesState state) {
+        return state.mMatcher.match(state.mMissUri);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import boringyuri.benchmarks.uri.BenchmarkUriFactory;
+import boringyuri.benchmarks.uri.MapUriData;
+import boringyuri.benchmarks.uri.Point;
+import boringyuri.benchmarks.uri.SearchUriData;
+import boringyuri.benchmarks.uri.UserUriData;
+import boringyuri.jvm.Uri;
+
+/**
+ * Measures the generated data classes. Every invocation creates a new data object,
+ * so the parsing is never served from the values cached by a previous invocation.
+ */
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    private Uri mUserUri;
+    private Uri mSearchUri;
+    private Uri mMapUri;
+
+    @Setup
+    public void setUp() {
+        BenchmarkUriFactory factory = BenchmarkUriFactory.create();
+
+        mUserUri = factory.buildUserUri(42L, "John Doe", 33, true, "john@example.com", "en");
+        mSearchUri = factory.buildSearchUri(
+                "books",
+                "boring uri",
+                new int[] {1, 2, 3, 5, 8},
+                new long[] {100L, 200L, 300L}
+        );
+        mMapUri = factory.buildMapUri(12, new Point(52.52, 13.405), new Point(48.85, 2.35));
+    }
+
+    @Benchmark
+    public void parseAllGetters(Blackhole blackhole) {
+        UserUriData data = new UserUriData(mUserUri);
+
+        blackhole.consume(data.getUserId());
+        blackhole.consume(data.getName());
+        blackhole.consume(data.getAge());
+        blackhole.consume(data.isVerified());
+        blackhole.consume(data.getEmail());
+        blackhole.consume(data.getLocale());
+    }
+
+    @Benchmark
+    public String parseOneGetter() {
+        return new UserUriData(mUserUri).getName();
+    }
+
+    @Benchmark
+    public void parseArrays(Blackhole blackhole) {
+        SearchUriData data = new SearchUriData(mSearchUri);
+
+        blackhole.consume(data.getCategory());
+        blackhole.consume(data.getTags());
+        blackhole.consume(data.getIds());
+    }
+
+    @Benchmark
+    public void parseTypeAdapter(Blackhole blackhole) {
+        MapUriData data = new MapUriData(mMapUri);
+
+        blackhole.consume(data.getCenter());
+        blackhole.consume(data.getMarker());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.benchmarks.uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import boringyuri.api.DefaultValue;
+import boringyuri.api.Param;
+import boringyuri.api.Path;
+import boringyuri.api.UriBuilder;
+import boringyuri.api.UriFactory;
+import boringyuri.api.WithUriData;
+import boringyuri.api.adapter.TypeAdapter;
+import boringyuri.api.matcher.MatcherCode;
+import boringyuri.api.matcher.WithUriMatcher;
+import boringyuri.jvm.Uri;
+
+/**
+ * Representative factory measured by the benchmarks: scalar path segments and query
+ * parameters, arrays and values serialized with a type adapter.
+ */
+@UriFactory(scheme = "content", authority = BenchmarkUriFactory.AUTHORITY)
+@WithUriMatcher("BenchmarkUriMatcher")
+public interface BenchmarkUriFactory {
+
+    String AUTHORITY = "boringyuri.benchmarks";
+
+    @NonNull
+    @UriBuilder("/user/{userId}")
+    @WithUriData
+    @MatcherCode(1)
+    Uri buildUserUri(
+            @Path long userId,
+            @NonNull @Param String name,
+            @Param int age,
+            @Param boolean verified,
+            @Nullable @Param String email,
+            @NonNull @Param @DefaultValue("en") String locale);
+
+    @NonNull
+    @UriBuilder("/search/{category}")
+    @WithUriData
+    @MatcherCode(2)
+    Uri buildSearchUri(
+            @NonNull @Path String category,
+            @NonNull @Param String query,
+            @NonNull @Param int[] tags,
+            @NonNull @Param long[] ids);
+
+    @NonNull
+    @UriBuilder("/map/{zoom}")
+    @WithUriData
+    @MatcherCode(3)
+    Uri buildMapUri(
+            @Path int zoom,
+            @NonNull @Param @TypeAdapter(PointTypeAdapter.class) Point center,
+            @Nullable @Param @TypeAdapter(PointTypeAdapter.class) Point marker);
+
+    @NonNull
+    static BenchmarkUriFactory create() {
+        return new BenchmarkUriFactoryImpl();
+    }
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 Anton Novikau
+ * Copyright 2026 Anton Novikau
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,15 +13,22 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
+package boringyuri.benchmarks.uri;
 
-package boringyuri.processor.ksp
+public final class Point {
+    private final double mX;
+    private final double mY;
 
-import com.google.devtools.ksp.processing.SymbolProcessor
-import com.google.devtools.ksp.processing.SymbolProcessorEnvironment
-import com.google.devtools.ksp.processing.SymbolProcessorProvider
+    public Point(double x, double y) {
+        mX = x;
+        mY = y;
+    }
+
+    public double getX() {
+        return mX;
+    }
 
-class IndependentUriDataProcessorProvider : SymbolProcessorProvider {
-    override fun create(environment: SymbolProcessorEnvironment): SymbolProcessor {
-        return IndependentUriDataProcessor(environment)
+    public double getY() {
+        return mY;
     }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.benchmarks.uri;
+
+import androidx.annotation.NonNull;
+
+import boringyuri.api.adapter.BoringTypeAdapter;
+
+public class PointTypeAdapter implements BoringTypeAdapter<Point> {
+
+    @NonNull
+    @Override
+    public String serialize(@NonNull Point point) {
+        return point.getX() + "," + point.getY();
+    }
+
+    @NonNull
+    @Override
+    public Point deserialize(@NonNull String serialized) {
+        int separator = serialized.indexOf(',');
+
+        return new Point(
+                Double.parseDouble(serialized.substring(0, separator)),
+                Double.parseDouble(serialized.substring(separator + 1))
+        );
+    }
+
+}
@@ -16,6 +16,7 @@
 
 package boringyuri.dagger.ksp
 
+import boringyuri.dagger.DaggerAggregateModuleGeneratorStep
 import boringyuri.dagger.DaggerModuleGeneratorStep
 import boringyuri.processor.common.base.BoringProcessingStep
 import boringyuri.processor.common.base.ProcessingSession
@@ -25,7 +26,10 @@ import com.google.devtools.ksp.processing.SymbolProcessorEnvironment
 class DaggerModuleGeneratorProcessor(
     environment: SymbolProcessorEnvironment
 ) : KspBoringAnnotationProcessor(environment) {
-    override fun initStep(session: ProcessingSession): BoringProcessingStep {
-        return DaggerModuleGeneratorStep(session)
+    override fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep> {
+        return listOf(
+            DaggerModuleGeneratorStep(session),
+            DaggerAggregateModuleGeneratorStep(session)
+        )
     }
 }
\ No newline at end of file
@@ -29,7 +29,11 @@ import javax.lang.model.SourceVersion
 @Suppress("unused") // class is used by @AutoService
 @AutoService(Processor::class)
 @SupportedSourceVersion(SourceVersion.RELEASE_11)
-@SupportedOptions(ProcessorOptions.OPT_DAGGER_BORING_MODULE)
+@SupportedOptions(
+    ProcessorOptions.OPT_DAGGER_MATCHER_SCOPE,
+    ProcessorOptions.OPT_STATS,
+    ProcessorOptions.OPT_CODEGEN_THREADS
+)
 class DaggerModuleProcessor : AptBoringAnnotationProcessor() {
 
     override fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep> {
@@ -34,7 +34,10 @@ abstract class AptBoringAnnotationProcessor(
     abstract fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep>
 
     private val delegate: BoringAnnotationProcessorDelegate by lazy {
-        object : BoringAnnotationProcessorDelegate(xProcessingEnv) {
+        object : BoringAnnotationProcessorDelegate(
+            xProcessingEnv,
+            this@AptBoringAnnotationProcessor.javaClass.simpleName
+        ) {
             override fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep> {
                 return this@AptBoringAnnotationProcessor.initSteps(session)
             }
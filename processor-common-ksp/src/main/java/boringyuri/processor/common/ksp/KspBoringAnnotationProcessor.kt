@@ -38,12 +38,15 @@ abstract class KspBoringAnnotationProcessor(
         .build()
 ) {
 
-    abstract fun initStep(session: ProcessingSession): BoringProcessingStep
+    abstract fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep>
 
     private val delegate: BoringAnnotationProcessorDelegate by lazy {
-        object : BoringAnnotationProcessorDelegate(xProcessingEnv) {
+        object : BoringAnnotationProcessorDelegate(
+            xProcessingEnv,
+            this@KspBoringAnnotationProcessor.javaClass.simpleName
+        ) {
             override fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep> {
-                return listOf(this@KspBoringAnnotationProcessor.initStep(session))
+                return this@KspBoringAnnotationProcessor.initSteps(session)
             }
         }
     }
@@ -16,39 +16,191 @@
 
 package boringyuri.processor.common
 
+import androidx.room.compiler.processing.XElement
 import androidx.room.compiler.processing.XFiler
+import androidx.room.compiler.processing.addOriginatingElement
 import boringyuri.processor.common.base.AbortProcessingException
+import boringyuri.processor.common.stats.ProcessingStats
 import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.JavaFile
 import com.squareup.javapoet.TypeSpec
 import java.io.IOException
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
 
-class FileWriter(private val logger: Logger, private val xFiler: XFiler) {
+/**
+ * Writes the generated classes.
+ *
+ * By default every class is rendered and written as soon as it is generated. When
+ * [codegenThreads] is greater than 1 the classes are only collected and [flush] renders
+ * their sources in parallel on a bounded pool and then writes them one by one in
+ * the order they were generated, so the output doesn't depend on the scheduling.
+ */
+class FileWriter(
+    private val logger: Logger,
+    private val xFiler: XFiler,
+    private val stats: ProcessingStats? = null,
+    private val codegenThreads: Int = 1
+) {
+
+    private val pendingFiles = arrayListOf<PendingFile>()
+
+    private var executor: ExecutorService? = null
 
     fun writeSourceFile(
         className: ClassName,
         classContent: TypeSpec,
-        xFilerMode: XFiler.Mode
+        xFilerMode: XFiler.Mode,
+        originatingElements: Collection<XElement>
     ) {
+        if (codegenThreads > 1) {
+            pendingFiles += PendingFile(className, classContent, xFilerMode, originatingElements)
+            return
+        }
+
+        if (stats != null) {
+            // the source is rendered once, so its size is counted from the written bytes
+            val source = renderSource(className, classContent)
+            writeSource(className, source, xFilerMode, originatingElements)
+            stats.recordFile(source.size.toLong())
+            return
+        }
+
         try {
-            val javaFile = JavaFile.builder(className.packageName(), classContent)
-                .indent(DEFAULT_INDENTATION)
-                .addFileComment(DEFAULT_FILE_COMMENT)
+            val content = classContent.toBuilder()
+                .apply { originatingElements.forEach { addOriginatingElement(it) } }
                 .build()
 
-            xFiler.write(javaFile, xFilerMode)
+            xFiler.write(createJavaFile(className, content), xFilerMode)
+        } catch (e: IOException) {
+            throw createWriteException(className, e)
+        }
+    }
+
+    /**
+     * Writes all the classes collected since the previous flush.
+     * Does nothing if the classes are written immediately.
+     */
+    fun flush() {
+        if (pendingFiles.isEmpty()) {
+            return // early exit
+        }
+
+        val files = pendingFiles.toList()
+        pendingFiles.clear()
+
+        val pool = executor ?: Executors.newFixedThreadPool(codegenThreads) { task ->
+            Thread(task, "boringyuri-codegen").apply { isDaemon = true }
+        }.also { executor = it }
+
+        val sources: List<Future<ByteArray>> = files.map { file ->
+            pool.submit<ByteArray> { renderSource(file.className, file.classContent) }
+        }
+
+        files.forEachIndexed { index, file ->
+            val source = try {
+                sources[index].get()
+            } catch (e: ExecutionException) {
+                throw AbortProcessingException(
+                    logger,
+                    null,
+                    e.cause,
+                    "Could not generate class ${file.className}: ${e.cause?.message}"
+                )
+            }
+
+            writeSource(file.className, source, file.xFilerMode, file.originatingElements)
+
+            stats?.recordFile(source.size.toLong())
+        }
+    }
+
+    /**
+     * Writes the remaining classes and releases the code generation threads.
+     */
+    fun close() {
+        flush()
+
+        executor?.shutdown()
+        executor = null
+    }
+
+    private fun renderSource(className: ClassName, classContent: TypeSpec): ByteArray {
+        return createJavaFile(className, classContent).toString().toByteArray(Charsets.UTF_8)
+    }
+
+    private fun writeSource(
+        className: ClassName,
+        source: ByteArray,
+        xFilerMode: XFiler.Mode,
+        originatingElements: Collection<XElement>
+    ) {
+        try {
+            xFiler.writeSource(
+                className.packageName(),
+                className.simpleName(),
+                JAVA_EXTENSION,
+                originatingElements.toList(),
+                xFilerMode
+            ).use { it.write(source) }
         } catch (e: IOException) {
-            throw AbortProcessingException(
-                logger,
-                null,
-                e,
-                "Could not write generated class $className: ${e.message}"
-            )
+            throw createWriteException(className, e)
         }
     }
 
-    private companion object {
-        const val DEFAULT_INDENTATION = "    "
-        const val DEFAULT_FILE_COMMENT = "Boring YURI generated this code for you. Do not modify!"
+    private fun createJavaFile(className: ClassName, classContent: TypeSpec): JavaFile {
+        return JavaFile.builder(className.packageName(), classContent)
+            .indent(DEFAULT_INDENTATION)
+            .addFileComment(DEFAULT_FILE_COMMENT)
+            .build()
+    }
+
+    private fun createWriteException(
+        className: ClassName,
+        e: IOException
+    ): AbortProcessingException {
+        return AbortProcessingException(
+            logger,
+            null,
+            e,
+            "Could not write generated class $className: ${e.message}"
+        )
+    }
+
+    private class PendingFile(
+        val className: ClassName,
+        val classContent: TypeSpec,
+        val xFilerMode: XFiler.Mode,
+        val originatingElements: Collection<XElement>
+    )
+
+    companion object {
+
+        /**
+         * Option to render the generated sources on the given number of threads.
+         * The sources are written after every round in the order they were generated.
+         *
+         * Type: [Int]
+         */
+        const val OPT_CODEGEN_THREADS = "boringyuri.codegen_threads"
+
+        private const val JAVA_EXTENSION = "java"
+        private const val DEFAULT_INDENTATION = "    "
+        private const val DEFAULT_FILE_COMMENT =
+            "Boring YURI generated this code for you. Do not modify!"
+
+        fun getCodegenThreads(options: Map<String, String>, logger: Logger): Int {
+            val value = options[OPT_CODEGEN_THREADS] ?: return 1
+
+            return value.toIntOrNull()?.takeIf { it > 0 } ?: 1.also {
+                logger.warn(
+                    null,
+                    "Invalid number of threads '$value' in '$OPT_CODEGEN_THREADS' option. " +
+                            "The sources will be generated on the processing thread."
+                )
+            }
+        }
     }
 }
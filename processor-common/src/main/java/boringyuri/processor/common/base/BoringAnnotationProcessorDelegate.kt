@@ -21,23 +21,51 @@ import androidx.room.compiler.processing.XBasicAnnotationProcessor
 import androidx.room.compiler.processing.XProcessingEnv
 import androidx.room.compiler.processing.XProcessingStep
 import androidx.room.compiler.processing.XRoundEnv
+import boringyuri.processor.common.stats.MeasuredProcessingStep
+import boringyuri.processor.common.stats.ProcessingStats
 
 @OptIn(ExperimentalProcessingApi::class)
 abstract class BoringAnnotationProcessorDelegate(
-    override val xProcessingEnv: XProcessingEnv
+    override val xProcessingEnv: XProcessingEnv,
+    processorName: String
 ) : XBasicAnnotationProcessor {
 
     private var steps: Iterable<BoringProcessingStep>? = null
 
+    private var session: ProcessingSession? = null
+
+    private val stats = ProcessingStats.create(xProcessingEnv.options, processorName)
+
     abstract fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep>
 
     override fun processingSteps(): Iterable<XProcessingStep> {
-        return initSteps(ProcessingSession(xProcessingEnv)).also { steps = it }
+        val initializedSession = ProcessingSession(xProcessingEnv, stats)
+        val initializedSteps = initSteps(initializedSession)
+        session = initializedSession
+        steps = initializedSteps
+
+        return stats?.let { stats ->
+            initializedSteps.map { MeasuredProcessingStep(it, stats) }
+        } ?: initializedSteps
     }
 
     override fun postRound(env: XProcessingEnv, round: XRoundEnv) {
         if (round.isProcessingOver) {
-            steps?.forEach { it.onProcessingOver() }
+            steps?.forEach { step ->
+                if (stats == null) {
+                    step.onProcessingOver()
+                } else {
+                    val start = System.nanoTime()
+                    step.onProcessingOver()
+                    stats.recordProcessingOver(step.javaClass.simpleName, System.nanoTime() - start)
+                }
+            }
+            session?.fileWriter?.close()
+            stats?.writeReport()
+        } else {
+            session?.fileWriter?.flush()
+            stats?.onRoundCompleted()
         }
+        session?.onRoundCompleted()
     }
 }
@@ -20,11 +20,40 @@ import androidx.room.compiler.processing.ExperimentalProcessingApi
 import androidx.room.compiler.processing.XProcessingEnv
 import boringyuri.processor.common.FileWriter
 import boringyuri.processor.common.Logger
+import boringyuri.processor.common.stats.ProcessingStats
 
 @OptIn(ExperimentalProcessingApi::class)
-class ProcessingSession(val processingEnv: XProcessingEnv) {
+class ProcessingSession(
+    val processingEnv: XProcessingEnv,
+    val stats: ProcessingStats? = null
+) {
 
     val logger = Logger(processingEnv.messager)
 
-    val fileWriter = FileWriter(logger, processingEnv.filer)
+    val fileWriter = FileWriter(
+        logger,
+        processingEnv.filer,
+        stats,
+        FileWriter.getCodegenThreads(processingEnv.options, logger)
+    )
+
+    /**
+     * Values computed by one of the processing steps and shared with the others.
+     * Elements are valid only within the round they were obtained in, so the
+     * cache is dropped as soon as the round is over.
+     */
+    private val roundCache = HashMap<Any, Any>()
+
+    /**
+     * Returns the value cached for the [key] in the current round or computes
+     * and caches a new one.
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun <T : Any> getOrCompute(key: Any, compute: () -> T): T {
+        return roundCache.getOrPut(key, compute) as T
+    }
+
+    internal fun onRoundCompleted() {
+        roundCache.clear()
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.processor.common.stats
+
+import androidx.room.compiler.processing.XElement
+import androidx.room.compiler.processing.XProcessingEnv
+import androidx.room.compiler.processing.XProcessingStep
+import boringyuri.processor.common.base.BoringProcessingStep
+
+/**
+ * Forwards the processing to [delegate] and records its time and element counts.
+ */
+internal class MeasuredProcessingStep(
+    private val delegate: BoringProcessingStep,
+    private val stats: ProcessingStats,
+) : XProcessingStep {
+
+    private val stepName = delegate.javaClass.simpleName
+
+    override fun annotations(): Set<String> {
+        return delegate.annotations()
+    }
+
+    override fun process(
+        env: XProcessingEnv,
+        elementsByAnnotation: Map<String, Set<XElement>>,
+        isLastRound: Boolean
+    ): Set<XElement> {
+        val start = System.nanoTime()
+        val deferred = delegate.process(env, elementsByAnnotation, isLastRound)
+
+        stats.recordStep(
+            stepName,
+            System.nanoTime() - start,
+            elementsByAnnotation.values.sumOf { it.size },
+            deferred.size
+        )
+
+        return deferred
+    }
+
+    override fun processOver(
+        env: XProcessingEnv,
+        elementsByAnnotation: Map<String, Set<XElement>>
+    ) {
+        val start = System.nanoTime()
+        delegate.processOver(env, elementsByAnnotation)
+
+        stats.recordStep(
+            stepName,
+            System.nanoTime() - start,
+            elementsByAnnotation.values.sumOf { it.size },
+            0
+        )
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.processor.common.stats
+
+import java.io.File
+import java.util.Locale
+
+/**
+ * Collects per-step and per-round processing time, element counts and the size of
+ * the generated code of a single annotation processor. The report is written as JSON
+ * to `<dir>/boringyuri-stats-<processor>.json` where `<dir>` is the value of
+ * the [OPT_STATS] option.
+ */
+class ProcessingStats private constructor(
+    private val reportDir: File,
+    private val processorName: String,
+) {
+
+    private val stepStats = linkedMapOf<String, StepStats>()
+
+    private val roundStats = arrayListOf<MutableMap<String, StepStats>>()
+
+    private var filesWritten = 0
+
+    private var bytesWritten = 0L
+
+    private var round = 0
+
+    fun recordStep(stepName: String, timeNanos: Long, elements: Int, deferred: Int) {
+        while (roundStats.size <= round) {
+            roundStats += linkedMapOf()
+        }
+
+        stepStats.getOrPut(stepName) { StepStats() }.add(timeNanos, elements, deferred)
+        roundStats[round].getOrPut(stepName) { StepStats() }.add(timeNanos, elements, deferred)
+    }
+
+    fun recordProcessingOver(stepName: String, timeNanos: Long) {
+        stepStats.getOrPut(stepName) { StepStats() }.processingOverNanos += timeNanos
+    }
+
+    fun recordFile(bytes: Long) {
+        filesWritten++
+        bytesWritten += bytes
+    }
+
+    fun onRoundCompleted() {
+        round++
+    }
+
+    fun writeReport() {
+        reportDir.mkdirs()
+        File(reportDir, "boringyuri-stats-$processorName.json").writeText(toJson())
+    }
+
+    private fun toJson(): String {
+        val totalNanos = stepStats.values.sumOf { it.timeNanos + it.processingOverNanos }
+
+        return buildString {
+            append("{\n")
+            append("  \"processor\": \"").append(processorName).append("\",\n")
+            append("  \"rounds\": ").append(roundStats.size).append(",\n")
+            append("  \"totalTimeMs\": ").append(totalNanos.toMillis()).append(",\n")
+            append("  \"filesWritten\": ").append(filesWritten).append(",\n")
+            append("  \"bytesWritten\": ").append(bytesWritten).append(",\n")
+            append("  \"steps\": [")
+            appendSteps(stepStats, "    ", includeProcessingOver = true)
+            append("],\n")
+            append("  \"perRound\": [")
+            roundStats.forEachIndexed { index, steps ->
+                append(if (index == 0) "\n" else ",\n")
+                append("    {\n")
+                append("      \"round\": ").append(index + 1).append(",\n")
+                append("      \"steps\": [")
+                appendSteps(steps, "        ", includeProcessingOver = false)
+                append("]\n")
+                append("    }")
+            }
+            if (roundStats.isNotEmpty()) {
+                append("\n  ")
+            }
+            append("]\n")
+            append("}\n")
+        }
+    }
+
+    private fun StringBuilder.appendSteps(
+        steps: Map<String, StepStats>,
+        indent: String,
+        includeProcessingOver: Boolean
+    ) {
+        steps.entries.forEachIndexed { index, (name, stats) ->
+            append(if (index == 0) "\n" else ",\n")
+            append(indent).append("{ \"step\": \"").append(name).append("\"")
+            append(", \"timeMs\": ").append(stats.timeNanos.toMillis())
+            append(", \"elements\": ").append(stats.elements)
+            append(", \"deferred\": ").append(stats.deferred)
+            if (includeProcessingOver) {
+                append(", \"processingOverMs\": ").append(stats.processingOverNanos.toMillis())
+            }
+            append(" }")
+        }
+        if (steps.isNotEmpty()) {
+            append("\n").append(indent.dropLast(2))
+        }
+    }
+
+    private class StepStats {
+        var timeNanos = 0L
+        var elements = 0
+        var deferred = 0
+        var processingOverNanos = 0L
+
+        fun add(timeNanos: Long, elements: Int, deferred: Int) {
+            this.timeNanos += timeNanos
+            this.elements += elements
+            this.deferred += deferred
+        }
+    }
+
+    companion object {
+
+        /**
+         * Option to enable the processing statistics report. The value is a path
+         * to the directory where the reports are written.
+         *
+         * Type: [String]
+         */
+        const val OPT_STATS = "boringyuri.stats"
+
+        fun create(options: Map<String, String>, processorName: String): ProcessingStats? {
+            return options[OPT_STATS]
+                ?.takeIf { it.isNotBlank() }
+                ?.let { ProcessingStats(File(it), processorName) }
+        }
+
+        private fun Long.toMillis(): String = String.format(Locale.US, "%.3f", this / 1_000_000.0)
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.dagger
+
+import androidx.room.compiler.processing.ExperimentalProcessingApi
+import androidx.room.compiler.processing.XElement
+import androidx.room.compiler.processing.XFiler
+import androidx.room.compiler.processing.XProcessingEnv
+import androidx.room.compiler.processing.XTypeElement
+import boringyuri.api.UriFactory
+import boringyuri.dagger.DaggerModuleGeneratorStep.Companion.getFactoryModuleName
+import boringyuri.dagger.util.DaggerTypeName
+import boringyuri.dagger.util.ProcessorOptions
+import boringyuri.processor.common.base.BoringProcessingStep
+import boringyuri.processor.common.base.ProcessingSession
+import com.squareup.javapoet.AnnotationSpec
+import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.TypeSpec
+import javax.lang.model.element.Modifier
+
+/**
+ * Generates the aggregate Dagger module that includes the modules of all `@UriFactory`
+ * interfaces. The module is written only once, in the first round when the modules of
+ * all the known factories are generated, so the Dagger graph is validated only once.
+ *
+ * It can't be postponed to the last round, since the files generated in the last round
+ * are not processed by Dagger. A factory that shows up in a later round (i.e. generated
+ * by another processor) is reported as an error instead of being silently left out.
+ */
+@OptIn(ExperimentalProcessingApi::class)
+class DaggerAggregateModuleGeneratorStep(
+    session: ProcessingSession
+) : BoringProcessingStep(session) {
+
+    private val factoryModules = sortedSetOf<ClassName>()
+    private val originatingElements = mutableSetOf<XElement>()
+
+    private var aggregateModuleName: ClassName? = null
+
+    override fun annotations(): Set<String> {
+        return setOf(UriFactory::class.java.name)
+    }
+
+    @Deprecated(
+        "We're combining processOver() and this process() overload.",
+        replaceWith = ReplaceWith("process(XProcessingEnv, Map<String, Set<XElement>>, Boolean)"),
+        level = DeprecationLevel.WARNING
+    )
+    override fun process(
+        env: XProcessingEnv,
+        elementsByAnnotation: Map<String, Set<XElement>>
+    ): Set<XElement> {
+        val factories = elementsByAnnotation[UriFactory::class.java.name]
+            ?.mapNotNull { it as? XTypeElement }
+            ?: return emptySet()
+
+        val deferredElements = mutableSetOf<XTypeElement>()
+        for (factory in factories) {
+            val moduleName = getFactoryModuleName(factory.className)
+            // the module of the factory is generated after its implementation,
+            // so we get back to the factory in the next processing round.
+            if (session.processingEnv.findTypeElement(moduleName) == null) {
+                deferredElements.add(factory)
+                continue
+            }
+
+            val generatedModuleName = aggregateModuleName
+            if (generatedModuleName != null) {
+                // the aggregate module can't be rewritten, so the bindings of the factory
+                // would be silently missing from the Dagger graph
+                logger.error(
+                    factory,
+                    "%s is generated after %s and can't be included into it. " +
+                            "@%s interfaces generated by other processors are not supported " +
+                            "with the aggregate Dagger module.",
+                    moduleName,
+                    generatedModuleName,
+                    UriFactory::class.java.simpleName
+                )
+                continue
+            }
+
+            factoryModules.add(moduleName)
+            originatingElements.add(factory)
+        }
+
+        if (deferredElements.isEmpty() && factoryModules.isNotEmpty()
+            && aggregateModuleName == null
+        ) {
+            val moduleName = ProcessorOptions.getModuleName(session)
+            generateAggregateModule(moduleName)
+            aggregateModuleName = moduleName
+        }
+
+        return deferredElements
+    }
+
+    override fun onProcessingOver() {
+        factoryModules.clear()
+        originatingElements.clear()
+        aggregateModuleName = null
+    }
+
+    private fun generateAggregateModule(moduleName: ClassName) {
+        val moduleAnnotation = AnnotationSpec.builder(DaggerTypeName.MODULE)
+        factoryModules.forEach { moduleAnnotation.addMember("includes", "\$T.class", it) }
+
+        val moduleContent = TypeSpec.classBuilder(moduleName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addAnnotation(moduleAnnotation.build())
+            .addMethod(
+                MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build()
+            )
+
+        session.fileWriter.writeSourceFile(
+            moduleName,
+            moduleContent.build(),
+            XFiler.Mode.Aggregating,
+            originatingElements
+        )
+    }
+}
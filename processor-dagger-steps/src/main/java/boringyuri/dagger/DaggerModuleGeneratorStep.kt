@@ -21,25 +21,31 @@ import androidx.room.compiler.processing.XElement
 import androidx.room.compiler.processing.XFiler
 import androidx.room.compiler.processing.XProcessingEnv
 import androidx.room.compiler.processing.XTypeElement
-import androidx.room.compiler.processing.addOriginatingElement
 import boringyuri.api.UriFactory
+import boringyuri.api.matcher.WithUriMatcher
 import boringyuri.dagger.util.DaggerTypeName
 import boringyuri.dagger.util.ProcessorOptions
 import boringyuri.processor.common.base.BoringProcessingStep
 import boringyuri.processor.common.base.ProcessingSession
+import boringyuri.processor.common.ext.getAnnotation
 import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.TypeSpec
 import javax.lang.model.element.Modifier
 
 
+/**
+ * Generates an isolating Dagger module for every `@UriFactory`, so a change of one factory
+ * regenerates only its own module. All the modules are included by the aggregate module
+ * generated with [DaggerAggregateModuleGeneratorStep].
+ */
 @OptIn(ExperimentalProcessingApi::class)
 class DaggerModuleGeneratorStep(session: ProcessingSession) : BoringProcessingStep(session) {
 
-    private val providesFunctions = mutableListOf<MethodSpec>()
-    private val originatingElements = mutableSetOf<XElement>()
     private val deferredFactoryNames = mutableSetOf<String>()
 
+    private val matcherScope = ProcessorOptions.getMatcherScope(session)
+
     override fun annotations(): Set<String> {
         return setOf(UriFactory::class.java.name)
     }
@@ -61,27 +67,23 @@ class DaggerModuleGeneratorStep(session: ProcessingSession) : BoringProcessingSt
 
         for (factory in expectedFactories) {
             val factoryImpl = findFactoryImpl(factory)
-            // if a factory implementation is not compiled or generated on this round,
-            // we put the factory to a deferred list so we could get back to it
-            // in the next processing round.
-            if (factoryImpl == null) {
+            val matcherName = obtainMatcherName(factory)
+            val matcher = matcherName?.let { session.processingEnv.findTypeElement(it) }
+            // if a factory implementation or its matcher is not compiled or generated
+            // on this round, we put the factory to a deferred list so we could get back
+            // to it in the next processing round.
+            if (factoryImpl == null || (matcherName != null && matcher == null)) {
                 deferredElements.add(factory)
                 deferredFactoryNames += factory.qualifiedName
             } else {
                 deferredFactoryNames.remove(factory.qualifiedName)
-                providesFunctions.add(buildProvidesMethod(factory, factoryImpl))
-                originatingElements.add(factory)
-            }
-        }
 
-        // generate dagger module class only when all factory implementations are generated
-        // and compiled by the current processing round.
-        if (deferredElements.isEmpty()) {
-            generateBoringDaggerModule(
-                moduleName = ProcessorOptions.getModuleName(session),
-                providesFunctions = providesFunctions.sortedBy { it.name },
-                originatingElements = originatingElements,
-            )
+                val providesFunctions = listOfNotNull(
+                    buildProvidesMethod(factory, factoryImpl),
+                    matcher?.let { buildProvidesMatcherMethod(it) }
+                )
+                generateFactoryModule(factory, providesFunctions)
+            }
         }
 
         return deferredElements.toSet()
@@ -95,8 +97,6 @@ class DaggerModuleGeneratorStep(session: ProcessingSession) : BoringProcessingSt
             )
         }
         deferredFactoryNames.clear()
-        providesFunctions.clear()
-        originatingElements.clear()
     }
 
     private fun findFactoryImpl(factory: XTypeElement): XTypeElement? {
@@ -109,11 +109,20 @@ class DaggerModuleGeneratorStep(session: ProcessingSession) : BoringProcessingSt
         return session.processingEnv.findTypeElement(factoryImplName)
     }
 
-    private fun generateBoringDaggerModule(
-        moduleName: ClassName,
-        providesFunctions: List<MethodSpec>,
-        originatingElements: Collection<XElement>,
-    ) {
+    private fun obtainMatcherName(factory: XTypeElement): ClassName? {
+        val matcherName = factory.getAnnotation<WithUriMatcher>()?.value ?: return null
+
+        return if (matcherName.isEmpty()) {
+            ClassName.get(factory.packageName, factory.name + DEFAULT_MATCHER_SUFFIX)
+        } else {
+            ClassName.bestGuess(matcherName).takeIf {
+                it.packageName().isNotEmpty()
+            } ?: ClassName.get(factory.packageName, matcherName)
+        }
+    }
+
+    private fun generateFactoryModule(factory: XTypeElement, providesFunctions: List<MethodSpec>) {
+        val moduleName = getFactoryModuleName(factory.className)
         val moduleContent = TypeSpec.classBuilder(moduleName)
             .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
             .addAnnotation(DaggerTypeName.MODULE)
@@ -122,17 +131,18 @@ class DaggerModuleGeneratorStep(session: ProcessingSession) : BoringProcessingSt
             )
             .addMethods(providesFunctions)
 
-        originatingElements.forEach {
-            moduleContent.addOriginatingElement(it)
-        }
-
         session.fileWriter.writeSourceFile(
             moduleName,
             moduleContent.build(),
-            XFiler.Mode.Aggregating
+            XFiler.Mode.Isolating,
+            listOf(factory)
         )
     }
 
+    /**
+     * Factory implementations are stateless, so the binding returns the shared instance
+     * and doesn't need to be scoped.
+     */
     private fun buildProvidesMethod(factory: XTypeElement, factoryImpl: XTypeElement): MethodSpec {
         val factoryImplName = factoryImpl.className
         val factoryName = factory.className
@@ -142,11 +152,38 @@ class DaggerModuleGeneratorStep(session: ProcessingSession) : BoringProcessingSt
             .addAnnotation(DaggerTypeName.PROVIDES)
             .addAnnotation(DaggerTypeName.NON_NULL)
             .returns(factoryName)
-            .addStatement("return new \$T()", factoryImplName)
+            .addStatement("return \$T.\$L", factoryImplName, CONTAINER_INSTANCE_NAME)
+            .build()
+    }
+
+    /**
+     * Matchers build their path tree on the first match, so the binding is scoped
+     * to reuse the initialized matcher.
+     */
+    private fun buildProvidesMatcherMethod(matcher: XTypeElement): MethodSpec {
+        val matcherName = matcher.className
+
+        return MethodSpec.methodBuilder("provide${matcherName.simpleName()}")
+            .addModifiers(Modifier.STATIC)
+            .addAnnotation(DaggerTypeName.PROVIDES)
+            .apply { matcherScope?.let { addAnnotation(it) } }
+            .addAnnotation(DaggerTypeName.NON_NULL)
+            .returns(matcherName)
+            .addStatement("return new \$T()", matcherName)
             .build()
     }
 
-    companion object{
+    companion object {
         const val CONTAINER_IMPL_SUFFIX = "Impl"
+        const val CONTAINER_INSTANCE_NAME = "INSTANCE"
+        private const val DEFAULT_MATCHER_SUFFIX = "_UriMatcher"
+        private const val FACTORY_MODULE_SUFFIX = "_BoringYuriModule"
+
+        fun getFactoryModuleName(factoryName: ClassName): ClassName {
+            return ClassName.get(
+                factoryName.packageName(),
+                "${factoryName.simpleName()}$FACTORY_MODULE_SUFFIX"
+            )
+        }
     }
 }
\ No newline at end of file
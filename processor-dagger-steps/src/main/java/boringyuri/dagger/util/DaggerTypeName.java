@@ -27,6 +27,8 @@ public interface DaggerTypeName {
     @NonNull
     ClassName PROVIDES = ClassName.get("dagger", "Provides");
     @NonNull
+    ClassName REUSABLE = ClassName.get("dagger", "Reusable");
+    @NonNull
     ClassName NON_NULL = ClassName.get(NonNull.class);
 
 }
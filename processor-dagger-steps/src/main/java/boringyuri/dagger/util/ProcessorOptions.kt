@@ -17,7 +17,9 @@
 package boringyuri.dagger.util
 
 import androidx.room.compiler.processing.ExperimentalProcessingApi
+import boringyuri.processor.common.FileWriter
 import boringyuri.processor.common.base.ProcessingSession
+import boringyuri.processor.common.stats.ProcessingStats
 import com.squareup.javapoet.ClassName
 
 
@@ -31,8 +33,34 @@ object ProcessorOptions {
      */
     const val OPT_DAGGER_BORING_MODULE = "boringyuri.dagger.module"
 
+    /**
+     * Option to customize the scope of the generated `UriMatcher` bindings. It must be
+     * a fully qualified name of the scope annotation or `none` to leave the bindings
+     * unscoped. If not specified there will be used `dagger.Reusable`.
+     *
+     * Type: [String]
+     */
+    const val OPT_DAGGER_MATCHER_SCOPE = "boringyuri.dagger.matcher_scope"
+
+    /**
+     * Option to write the processing statistics report as JSON. It must be a path to
+     * the directory where the report is written.
+     *
+     * Type: [String]
+     */
+    const val OPT_STATS = ProcessingStats.OPT_STATS
+
+    /**
+     * Option to render the sources of the generated classes on the given number of threads.
+     *
+     * Type: [Int]
+     */
+    const val OPT_CODEGEN_THREADS = FileWriter.OPT_CODEGEN_THREADS
+
     private val MODULE_DEFAULT_NAME = ClassName.get("boringyuri.dagger", "BoringYuriModule")
 
+    private const val SCOPE_NONE = "none"
+
     @OptIn(ExperimentalProcessingApi::class)
     fun getModuleName(session: ProcessingSession): ClassName {
         return try {
@@ -45,4 +73,20 @@ object ProcessorOptions {
         }
     }
 
+    @OptIn(ExperimentalProcessingApi::class)
+    fun getMatcherScope(session: ProcessingSession): ClassName? {
+        val value = session.processingEnv.options[OPT_DAGGER_MATCHER_SCOPE]
+            ?: return DaggerTypeName.REUSABLE
+
+        if (value == SCOPE_NONE) {
+            return null
+        }
+        return try {
+            ClassName.bestGuess(value)
+        } catch (e: IllegalArgumentException) {
+            session.logger.warn(null, "Invalid class name in '$OPT_DAGGER_MATCHER_SCOPE' option.")
+            DaggerTypeName.REUSABLE
+        }
+    }
+
 }
\ No newline at end of file
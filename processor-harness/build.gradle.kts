@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.jetbrains.kotlin.gradle.tasks.KotlinCompile
+
+plugins {
+    kotlin("jvm")
+    application
+}
+
+dependencies {
+    implementation(project(":api"))
+    // generated code is compiled against the JVM uri backend,
+    // so the inputs don't need the Android framework
+    implementation(project(":runtime-jvm"))
+    implementation(project(":processor"))
+    implementation(project(":processor-ksp"))
+
+    implementation(libs.google.ksp.api)
+    implementation(libs.google.compileTesting)
+    implementation(libs.tschuchortdev.compileTesting.ksp)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+application {
+    mainClass.set("boringyuri.harness.ProcessorHarnessKt")
+    applicationDefaultJvmArgs = listOf("-Xmx2g")
+}
+
+tasks.withType<KotlinCompile>().configureEach {
+    kotlinOptions {
+        jvmTarget = JavaVersion.VERSION_11.toString()
+    }
+}
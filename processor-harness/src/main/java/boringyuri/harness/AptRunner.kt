@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.harness
+
+import com.google.testing.compile.Compilation
+import com.google.testing.compile.Compiler
+import com.google.testing.compile.JavaFileObjects
+import java.util.ServiceLoader
+import javax.annotation.processing.Completion
+import javax.annotation.processing.ProcessingEnvironment
+import javax.annotation.processing.Processor
+import javax.annotation.processing.RoundEnvironment
+import javax.lang.model.SourceVersion
+import javax.lang.model.element.AnnotationMirror
+import javax.lang.model.element.Element
+import javax.lang.model.element.ExecutableElement
+import javax.lang.model.element.TypeElement
+
+/**
+ * Runs all BoringYURI annotation processors registered in the classpath with javac
+ * in-process.
+ */
+class AptRunner(private val options: Map<String, String>) : ProcessorRunner {
+
+    override val name: String = "apt"
+
+    override fun run(sources: List<InputSource>, timer: ProcessorTimer): Int {
+        val processors = ServiceLoader.load(Processor::class.java)
+            .filter { it.javaClass.name.startsWith(BORINGYURI_PACKAGE) }
+            .map { TimedProcessor(it, timer) }
+
+        val compilation = Compiler.javac()
+            .withProcessors(processors)
+            .withOptions(options.map { (key, value) -> "-A$key=$value" })
+            .compile(sources.map { JavaFileObjects.forSourceString(it.qualifiedName, it.content) })
+
+        if (compilation.status() != Compilation.Status.SUCCESS) {
+            throw IllegalStateException(
+                "APT compilation failed:\n" + compilation.errors().joinToString("\n")
+            )
+        }
+
+        return compilation.generatedSourceFiles().size
+    }
+}
+
+/**
+ * Measures the time spent in [delegate].
+ */
+private class TimedProcessor(
+    private val delegate: Processor,
+    private val timer: ProcessorTimer,
+) : Processor {
+
+    private val processorName = delegate.javaClass.simpleName
+
+    override fun getSupportedOptions(): Set<String> = delegate.supportedOptions
+
+    override fun getSupportedAnnotationTypes(): Set<String> = delegate.supportedAnnotationTypes
+
+    override fun getSupportedSourceVersion(): SourceVersion = delegate.supportedSourceVersion
+
+    override fun init(processingEnv: ProcessingEnvironment) {
+        timer.measure(processorName) { delegate.init(processingEnv) }
+    }
+
+    override fun process(
+        annotations: Set<TypeElement>,
+        roundEnv: RoundEnvironment
+    ): Boolean {
+        return timer.measure(processorName) { delegate.process(annotations, roundEnv) }
+    }
+
+    override fun getCompletions(
+        element: Element?,
+        annotation: AnnotationMirror?,
+        member: ExecutableElement?,
+        userText: String?
+    ): Iterable<Completion> = delegate.getCompletions(element, annotation, member, userText)
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.harness
+
+/**
+ * Synthesizes a large processor input: [factoryCount] `@UriFactory` interfaces with
+ * [methodCount] builder methods each. Every method has path segments, scalar and array
+ * query parameters, a parameter serialized with a type adapter, a data class and a matcher
+ * code. Every factory also has an independent `@UriData` interface.
+ */
+class InputGenerator(
+    private val factoryCount: Int,
+    private val methodCount: Int,
+) {
+
+    fun generate(): List<InputSource> {
+        val sources = arrayListOf(
+            InputSource(POINT_CLASS, POINT_SOURCE),
+            InputSource(POINT_ADAPTER_CLASS, POINT_ADAPTER_SOURCE),
+        )
+
+        for (factoryIndex in 0 until factoryCount) {
+            sources += generateFactory(factoryIndex)
+            sources += generateIndependentData(factoryIndex)
+        }
+
+        return sources
+    }
+
+    private fun generateFactory(factoryIndex: Int): InputSource {
+        val className = "Factory$factoryIndex"
+        val methods = (0 until methodCount).joinToString("\n") { methodIndex ->
+            """
+            |    @NonNull
+            |    @UriBuilder("/item$methodIndex/{id}/{name}")
+            |    @WithUriData
+            |    @MatcherCode(${methodIndex + 1})
+            |    Uri buildFactory${factoryIndex}Item${methodIndex}Uri(
+            |            @Path long id,
+            |            @NonNull @Path String name,
+            |            @Param int count,
+            |            @Nullable @Param String query,
+            |            @NonNull @Param int[] tags,
+            |            @Nullable @Param @TypeAdapter(PointTypeAdapter.class) Point point,
+            |            @Param @DefaultValue("true") boolean enabled);
+            |""".trimMargin()
+        }
+
+        return InputSource(
+            "$INPUT_PACKAGE.$className",
+            """
+            |package $INPUT_PACKAGE;
+            |
+            |$IMPORTS
+            |
+            |@UriFactory(scheme = "content", authority = "boringyuri.harness.factory$factoryIndex")
+            |@WithUriMatcher
+            |public interface $className {
+            |
+            |$methods
+            |}
+            |""".trimMargin()
+        )
+    }
+
+    private fun generateIndependentData(factoryIndex: Int): InputSource {
+        val className = "Factory${factoryIndex}ItemData"
+
+        return InputSource(
+            "$INPUT_PACKAGE.$className",
+            """
+            |package $INPUT_PACKAGE;
+            |
+            |$IMPORTS
+            |
+            |@UriData("/*/{id}/{name}")
+            |public interface $className {
+            |
+            |    @Path
+            |    long getId();
+            |
+            |    @Nullable
+            |    @Path
+            |    String getName();
+            |
+            |    @Param
+            |    int getCount();
+            |
+            |    @Nullable
+            |    @Param
+            |    @TypeAdapter(PointTypeAdapter.class)
+            |    Point getPoint();
+            |}
+            |""".trimMargin()
+        )
+    }
+
+    companion object {
+        const val INPUT_PACKAGE = "boringyuri.harness.input"
+
+        private const val POINT_CLASS = "$INPUT_PACKAGE.Point"
+        private const val POINT_ADAPTER_CLASS = "$INPUT_PACKAGE.PointTypeAdapter"
+
+        private val IMPORTS = """
+            |import androidx.annotation.NonNull;
+            |import androidx.annotation.Nullable;
+            |
+            |import boringyuri.api.DefaultValue;
+            |import boringyuri.api.Param;
+            |import boringyuri.api.Path;
+            |import boringyuri.api.UriBuilder;
+            |import boringyuri.api.UriData;
+            |import boringyuri.api.UriFactory;
+            |import boringyuri.api.WithUriData;
+            |import boringyuri.api.adapter.TypeAdapter;
+            |import boringyuri.api.matcher.MatcherCode;
+            |import boringyuri.api.matcher.WithUriMatcher;
+            |import boringyuri.jvm.Uri;
+            """.trimMargin()
+
+        private val POINT_SOURCE = """
+            |package $INPUT_PACKAGE;
+            |
+            |public final class Point {
+            |    public final int x;
+            |    public final int y;
+            |
+            |    public Point(int x, int y) {
+            |        this.x = x;
+            |        this.y = y;
+            |    }
+            |}
+            |""".trimMargin()
+
+        private val POINT_ADAPTER_SOURCE = """
+            |package $INPUT_PACKAGE;
+            |
+            |import androidx.annotation.NonNull;
+            |
+            |import boringyuri.api.adapter.BoringTypeAdapter;
+            |
+            |public final class PointTypeAdapter implements BoringTypeAdapter<Point> {
+            |
+            |    @NonNull
+            |    @Override
+            |    public String serialize(@NonNull Point point) {
+            |        return point.x + "," + point.y;
+            |    }
+            |
+            |    @NonNull
+            |    @Override
+            |    public Point deserialize(@NonNull String serialized) {
+            |        int separator = serialized.indexOf(',');
+            |        return new Point(
+            |                Integer.parseInt(serialized.substring(0, separator)),
+            |                Integer.parseInt(serialized.substring(separator + 1)));
+            |    }
+            |}
+            |""".trimMargin()
+    }
+}
+
+/**
+ * Java source of the synthesized input.
+ */
+data class InputSource(
+    val qualifiedName: String,
+    val content: String,
+) {
+    val fileName: String
+        get() = qualifiedName.substringAfterLast('.') + ".java"
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.harness
+
+import com.google.devtools.ksp.processing.Resolver
+import com.google.devtools.ksp.processing.SymbolProcessor
+import com.google.devtools.ksp.processing.SymbolProcessorEnvironment
+import com.google.devtools.ksp.processing.SymbolProcessorProvider
+import com.google.devtools.ksp.symbol.KSAnnotated
+import com.tschuchort.compiletesting.KotlinCompilation
+import com.tschuchort.compiletesting.SourceFile
+import com.tschuchort.compiletesting.kspArgs
+import com.tschuchort.compiletesting.kspSourcesDir
+import com.tschuchort.compiletesting.symbolProcessorProviders
+import java.io.OutputStream
+import java.nio.file.Files
+import java.util.ServiceLoader
+
+/**
+ * Runs all BoringYURI symbol processors registered in the classpath with KSP in-process.
+ */
+class KspRunner(private val options: Map<String, String>) : ProcessorRunner {
+
+    override val name: String = "ksp"
+
+    override fun run(sources: List<InputSource>, timer: ProcessorTimer): Int {
+        val workingDir = Files.createTempDirectory("boringyuri-ksp").toFile()
+        try {
+            val providers = ServiceLoader.load(SymbolProcessorProvider::class.java)
+                .filter { it.javaClass.name.startsWith(BORINGYURI_PACKAGE) }
+                .map { TimedSymbolProcessorProvider(it, timer) }
+
+            val compilation = KotlinCompilation().apply {
+                this.workingDir = workingDir
+                this.sources = sources.map { SourceFile.java(it.fileName, it.content) }
+                symbolProcessorProviders = providers
+                kspArgs = options.toMutableMap()
+                inheritClassPath = true
+                messageOutputStream = OutputStream.nullOutputStream()
+            }
+
+            val result = compilation.compile()
+            if (result.exitCode != KotlinCompilation.ExitCode.OK) {
+                throw IllegalStateException("KSP compilation failed:\n" + result.messages)
+            }
+
+            return compilation.kspSourcesDir.walkTopDown().count { it.isFile }
+        } finally {
+            workingDir.deleteRecursively()
+        }
+    }
+}
+
+/**
+ * Measures the time spent in the processors created by [delegate].
+ */
+private class TimedSymbolProcessorProvider(
+    private val delegate: SymbolProcessorProvider,
+    private val timer: ProcessorTimer,
+) : SymbolProcessorProvider {
+
+    override fun create(environment: SymbolProcessorEnvironment): SymbolProcessor {
+        val processorName = delegate.javaClass.simpleName.removeSuffix("Provider")
+        val processor = timer.measure(processorName) { delegate.create(environment) }
+
+        return object : SymbolProcessor {
+            override fun process(resolver: Resolver): List<KSAnnotated> {
+                return timer.measure(processorName) { processor.process(resolver) }
+            }
+
+            override fun finish() {
+                timer.measure(processorName) { processor.finish() }
+            }
+
+            override fun onError() {
+                processor.onError()
+            }
+        }
+    }
+}
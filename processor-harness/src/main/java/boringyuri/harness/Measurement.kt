@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.harness
+
+import java.lang.management.ManagementFactory
+import java.lang.management.MemoryType
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Wall time, memory and per-processor time of a single processor run.
+ */
+data class RunResult(
+    val wallTimeNanos: Long,
+    val allocatedBytes: Long,
+    val peakHeapBytes: Long,
+    val processorTimeNanos: Map<String, Long>,
+    val generatedFiles: Int,
+)
+
+/**
+ * Accumulates the time spent in every processor of a single run.
+ */
+class ProcessorTimer {
+    private val timeByProcessor = ConcurrentHashMap<String, AtomicLong>()
+
+    inline fun <T> measure(processorName: String, block: () -> T): T {
+        val start = System.nanoTime()
+        try {
+            return block()
+        } finally {
+            add(processorName, System.nanoTime() - start)
+        }
+    }
+
+    fun add(processorName: String, nanos: Long) {
+        timeByProcessor.getOrPut(processorName) { AtomicLong() }.addAndGet(nanos)
+    }
+
+    fun snapshot(): Map<String, Long> {
+        return timeByProcessor.mapValues { it.value.get() }.toSortedMap()
+    }
+}
+
+object Measurement {
+
+    private val threadBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+
+    private val heapPools = ManagementFactory.getMemoryPoolMXBeans().filter {
+        it.type == MemoryType.HEAP
+    }
+
+    /**
+     * Runs [block] on a clean heap and measures it. Allocation is measured for the
+     * current thread which is the one both javac and the Kotlin compiler run on.
+     */
+    fun run(block: (ProcessorTimer) -> Int): RunResult {
+        System.gc()
+        heapPools.forEach { it.resetPeakUsage() }
+
+        val timer = ProcessorTimer()
+        val threadId = Thread.currentThread().id
+        val allocatedBefore = threadBean.getThreadAllocatedBytes(threadId)
+        val start = System.nanoTime()
+
+        val generatedFiles = block(timer)
+
+        val wallTime = System.nanoTime() - start
+        val allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore
+        val peakHeap = heapPools.sumOf { it.peakUsage.used }
+
+        return RunResult(wallTime, allocated, peakHeap, timer.snapshot(), generatedFiles)
+    }
+}
+
+fun Long.nanosToMillis(): Long = TimeUnit.NANOSECONDS.toMillis(this)
+
+fun Long.bytesToMegabytes(): Long = this / (1024 * 1024)
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.harness
+
+import kotlin.system.exitProcess
+
+internal const val BORINGYURI_PACKAGE = "boringyuri."
+
+/**
+ * Compiles the given sources with the BoringYURI processors and returns the number
+ * of generated files.
+ */
+interface ProcessorRunner {
+
+    val name: String
+
+    fun run(sources: List<InputSource>, timer: ProcessorTimer): Int
+}
+
+private const val USAGE = """
+Usage: processor-harness [options]
+  --factories <n>   number of @UriFactory interfaces (default 50)
+  --methods <n>     number of builder methods per factory (default 20)
+  --warmup <n>      number of warmup runs which are not reported (default 2)
+  --runs <n>        number of measured runs (default 5)
+  --tool <name>     apt, ksp or all (default all)
+"""
+
+/**
+ * Measures annotation processor throughput on a synthesized input.
+ *
+ * Every run compiles the same sources from scratch, so the numbers correspond to a clean
+ * build of a module with the given number of factories. The median of the measured runs
+ * is reported for every tool.
+ */
+fun main(args: Array<String>) {
+    val arguments = parseArguments(args) ?: run {
+        System.err.println(USAGE)
+        exitProcess(1)
+    }
+
+    val factories = arguments.intValue("factories", 50)
+    val methods = arguments.intValue("methods", 20)
+    val warmup = arguments.intValue("warmup", 2)
+    val runs = arguments.intValue("runs", 5)
+    val tool = arguments["tool"] ?: "all"
+
+    val options = mapOf(
+        "boringyuri.uri_backend" to "jvm",
+        "boringyuri.type_adapter_factory" to "${InputGenerator.INPUT_PACKAGE}.TypeAdapterFactory",
+    )
+    val runners = listOf(AptRunner(options), KspRunner(options)).filter {
+        tool == "all" || tool == it.name
+    }
+    if (runners.isEmpty() || runs < 1) {
+        System.err.println(USAGE)
+        exitProcess(1)
+    }
+
+    val sources = InputGenerator(factories, methods).generate()
+    println("Input: $factories factories x $methods methods, ${sources.size} source files")
+
+    for (runner in runners) {
+        repeat(warmup) { Measurement.run { timer -> runner.run(sources, timer) } }
+
+        val results = List(runs) { Measurement.run { timer -> runner.run(sources, timer) } }
+
+        printReport(runner.name, results)
+    }
+}
+
+private fun printReport(toolName: String, results: List<RunResult>) {
+    println()
+    println("[$toolName] ${results.size} runs, ${results.first().generatedFiles} generated files")
+    println("  wall time:  ${results.median { it.wallTimeNanos }.nanosToMillis()} ms (median), " +
+            "${results.minOf { it.wallTimeNanos }.nanosToMillis()} ms (min)")
+    println("  allocated:  ${results.median { it.allocatedBytes }.bytesToMegabytes()} MB (median)")
+    println("  peak heap:  ${results.maxOf { it.peakHeapBytes }.bytesToMegabytes()} MB (max)")
+    println("  processors:")
+
+    val processorNames = results.flatMap { it.processorTimeNanos.keys }.toSortedSet()
+    for (processorName in processorNames) {
+        val time = results.median { it.processorTimeNanos[processorName] ?: 0L }
+        println("    ${processorName.padEnd(48)} ${time.nanosToMillis()} ms")
+    }
+}
+
+private fun List<RunResult>.median(selector: (RunResult) -> Long): Long {
+    val values = map(selector).sorted()
+    return values[values.size / 2]
+}
+
+private fun parseArguments(args: Array<String>): Map<String, String>? {
+    if (args.size % 2 != 0) {
+        return null
+    }
+
+    return args.toList().chunked(2).associate { (key, value) ->
+        if (!key.startsWith("--")) {
+            return null
+        }
+        key.removePrefix("--") to value
+    }
+}
+
+private fun Map<String, String>.intValue(key: String, defaultValue: Int): Int {
+    return this[key]?.toIntOrNull() ?: defaultValue
+}
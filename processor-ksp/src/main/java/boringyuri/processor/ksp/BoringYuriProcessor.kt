@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.processor.ksp
+
+import boringyuri.processor.common.base.BoringProcessingStep
+import boringyuri.processor.common.base.ProcessingSession
+import boringyuri.processor.common.ksp.KspBoringAnnotationProcessor
+import boringyuri.processor.common.steps.AssociatedUriDataGeneratorStep
+import boringyuri.processor.common.steps.IndependentUriDataGeneratorStep
+import boringyuri.processor.common.steps.TypeAdapterFactoryGeneratorStep
+import boringyuri.processor.common.steps.UriFactoryGeneratorStep
+import boringyuri.processor.common.steps.UriMatcherGeneratorStep
+import boringyuri.processor.common.steps.UriRouterGeneratorStep
+import com.google.devtools.ksp.processing.SymbolProcessorEnvironment
+
+/**
+ * Runs all the processing steps over a single processing environment, so the
+ * annotated symbols are looked up once per round and the steps share the models
+ * cached in the [ProcessingSession].
+ */
+class BoringYuriProcessor(
+    environment: SymbolProcessorEnvironment
+) : KspBoringAnnotationProcessor(environment) {
+
+    override fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep> {
+        return listOf(
+            TypeAdapterFactoryGeneratorStep(session),
+            AssociatedUriDataGeneratorStep.create(session),
+            UriFactoryGeneratorStep.create(session),
+            UriMatcherGeneratorStep(session),
+            UriRouterGeneratorStep(session),
+            IndependentUriDataGeneratorStep.create(session)
+        )
+    }
+}
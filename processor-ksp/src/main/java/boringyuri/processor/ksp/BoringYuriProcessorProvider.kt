@@ -1,5 +1,5 @@
 /*
- * Copyright 2022 Anton Novikau
+ * Copyright 2026 Anton Novikau
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,8 +20,8 @@ import com.google.devtools.ksp.processing.SymbolProcessor
 import com.google.devtools.ksp.processing.SymbolProcessorEnvironment
 import com.google.devtools.ksp.processing.SymbolProcessorProvider
 
-class TypeAdapterProcessorProvider : SymbolProcessorProvider {
+class BoringYuriProcessorProvider : SymbolProcessorProvider {
     override fun create(environment: SymbolProcessorEnvironment): SymbolProcessor {
-        return TypeAdapterProcessor(environment)
+        return BoringYuriProcessor(environment)
     }
 }
@@ -17,14 +17,11 @@ package boringyuri.processor.common.steps
 
 import androidx.room.compiler.processing.ExperimentalProcessingApi
 import androidx.room.compiler.processing.XElement
-import androidx.room.compiler.processing.XExecutableElement
 import androidx.room.compiler.processing.XFiler
 import androidx.room.compiler.processing.XMethodElement
 import androidx.room.compiler.processing.XProcessingEnv
 import androidx.room.compiler.processing.isMethod
 import boringyuri.api.DefaultValue
-import boringyuri.api.Param
-import boringyuri.api.Path
 import boringyuri.api.UriBuilder
 import boringyuri.api.WithUriData
 import boringyuri.api.constant.BooleanParam
@@ -37,7 +34,10 @@ import boringyuri.processor.common.ext.getAnnotations
 import boringyuri.processor.common.ext.requireAnnotation
 import boringyuri.processor.common.steps.ext.createFieldSpec
 import boringyuri.processor.common.steps.ext.extractPackage
+import boringyuri.processor.common.steps.model.UriMethodModel
 import boringyuri.processor.common.steps.type.CommonTypeName
+import boringyuri.processor.common.steps.uripart.FlagGroupReadQueryParameter
+import boringyuri.processor.common.steps.uripart.FlagReadQueryParameter
 import boringyuri.processor.common.steps.uripart.ReadQueryParameter
 import boringyuri.processor.common.steps.uripart.TemplatePathSegment
 import boringyuri.processor.common.steps.uripart.VariableReadPathSegment
@@ -99,7 +99,8 @@ class AssociatedUriDataGeneratorStep(
                 continue  // skip invalid usage of @WithData
             }
 
-            val uriMetadata = obtainUriMetadata(uriBuilder, annotatedMethod)
+            val model = UriMethodModel.obtain(session, annotatedMethod, uriBuilder)
+            val uriMetadata = obtainUriMetadata(model)
 
             val generated = generateUriDataClass(annotatedMethod, uriMetadata)
             if (!generated) {
@@ -110,24 +111,21 @@ class AssociatedUriDataGeneratorStep(
         return deferred
     }
 
-    private fun obtainUriMetadata(
-        builderAnnotation: UriBuilder,
-        methodElement: XExecutableElement
-    ): UriMetadata {
-        val basePath = builderAnnotation.value
+    private fun obtainUriMetadata(model: UriMethodModel): UriMetadata {
         // Base path may contain constant segments and templates for method parameters.
         // We will replace the templates with the path parameters on the next step.
         // All constants will be filtered out on obtaining the base path segments.
-        val segments = obtainBasePathSegments(basePath, methodElement)
+        val segments = obtainBasePathSegments(model.pathParts, model.method)
 
-        val methodParameters = methodElement.parameters
         val fieldSpecs = arrayListOf<FieldSpec>()
         val queryParams = arrayListOf<ReadQueryParameter>()
+        val flagGroups = hashMapOf<String, FlagGroupReadQueryParameter>()
         // Iterating over method parameters we'll find all the replacements for
         // the method templates found on the previous step and create the params list.
-        methodParameters.forEach { param ->
-            val paramName = param.name
-            val defaultValue = param.getAnnotation<DefaultValue>()?.value
+        model.parameters.forEach { paramModel ->
+            val param = paramModel.element
+            val paramName = paramModel.name
+            val defaultValue = paramModel.defaultValue
 
             val field = param.createFieldSpec(
                 paramName,
@@ -137,7 +135,7 @@ class AssociatedUriDataGeneratorStep(
 
             val nullable = annotationHandler.isNullable(field.type, param)
 
-            val pathAnnotation = param.getAnnotation<Path>()
+            val pathAnnotation = paramModel.path
             if (pathAnnotation != null) {
                 if (nullable && defaultValue == null) {
                     logger.error(
@@ -146,7 +144,7 @@ class AssociatedUriDataGeneratorStep(
                     )
                 }
 
-                val pathName = pathAnnotation.value.ifEmpty { paramName }
+                val pathName = checkNotNull(paramModel.pathName)
                 val pathSegment = segments[pathName]
                 if (pathSegment is TemplatePathSegment) {
                     // Previously saved VariableNameSegment helps to preserve
@@ -157,13 +155,28 @@ class AssociatedUriDataGeneratorStep(
                         field,
                         uriField,
                         defaultValue,
-                        param
+                        pathAnnotation.format,
+                        param,
+                        paramModel.typeAdapter
                     )
                 }
             } else {
-                val paramAnnotation = param.getAnnotation<Param>()
-                if (paramAnnotation != null) {
-                    val queryParamName = paramAnnotation.value.ifEmpty { paramName }
+                val paramAnnotation = paramModel.param
+                val flagAnnotation = paramModel.flag
+                if (paramAnnotation != null && flagAnnotation != null) {
+                    val queryParamName = checkNotNull(paramModel.queryName)
+                    val group = flagGroups.getOrPut(queryParamName) {
+                        FlagGroupReadQueryParameter(queryParamName, uriField, logger)
+                            .also { queryParams.add(it) }
+                    }
+                    val bit = flagAnnotation.value
+                    if (group.addFlag(bit, field.type, defaultValue.toBoolean(), param)) {
+                        queryParams.add(
+                            FlagReadQueryParameter(group, bit, field, defaultValue, param)
+                        )
+                    }
+                } else if (paramAnnotation != null) {
+                    val queryParamName = checkNotNull(paramModel.queryName)
                     queryParams.add(
                         VariableReadQueryParameter(
                             queryParamName,
@@ -171,7 +184,10 @@ class AssociatedUriDataGeneratorStep(
                             uriField,
                             nullable,
                             defaultValue,
-                            param
+                            paramAnnotation.encoded,
+                            paramAnnotation.format,
+                            param,
+                            paramModel.typeAdapter
                         )
                     )
                 } else {
@@ -213,10 +229,17 @@ class AssociatedUriDataGeneratorStep(
         val classContent = generateUriDataClassContent(
             className,
             sourceElement,
-            uriMetadata
+            uriMetadata,
+            reusable = withUriDataAnnotation.reusable,
+            fromString = withUriDataAnnotation.fromString
         )
 
-        session.fileWriter.writeSourceFile(className, classContent, XFiler.Mode.Isolating)
+        session.fileWriter.writeSourceFile(
+            className,
+            classContent,
+            XFiler.Mode.Isolating,
+            listOf(sourceElement)
+        )
 
         return true
     }
@@ -16,7 +16,11 @@
 
 package boringyuri.processor.common.steps
 
+import boringyuri.api.Compressed
 import boringyuri.api.DefaultValue
+import boringyuri.api.Flag
+import boringyuri.api.Interned
+import boringyuri.api.Memoized
 import boringyuri.api.Param
 import boringyuri.api.Path
 import boringyuri.api.UriBuilder
@@ -41,6 +45,8 @@ import com.squareup.javapoet.TypeName
 
 internal val URI_FACTORY_ANNOTATIONS: Set<TypeName> = hashSetOf(
     ClassName.get(UriFactory::class.java),
+    ClassName.get(Interned::class.java),
+    ClassName.get(Memoized::class.java),
     ClassName.get(WithUriMatcher::class.java),
     ClassName.get(UriBuilder::class.java),
     ClassName.get(MatchesTo::class.java),
@@ -49,6 +55,8 @@ internal val URI_FACTORY_ANNOTATIONS: Set<TypeName> = hashSetOf(
     ClassName.get(TypeAdapter::class.java),
     ClassName.get(Path::class.java),
     ClassName.get(Param::class.java),
+    ClassName.get(Flag::class.java),
+    ClassName.get(Compressed::class.java),
     ClassName.get(DefaultValue::class.java),
     ClassName.get(StringParam::class.java),
     ClassName.get(StringParams::class.java),
@@ -65,6 +73,8 @@ internal val INDEPENDENT_DATA_ANNOTATIONS: Set<TypeName> = hashSetOf(
     ClassName.get(UriData::class.java),
     ClassName.get(Path::class.java),
     ClassName.get(Param::class.java),
+    ClassName.get(Flag::class.java),
+    ClassName.get(Compressed::class.java),
     ClassName.get(DefaultValue::class.java),
     ClassName.get(TypeAdapter::class.java)
 )
@@ -23,6 +23,7 @@ import androidx.room.compiler.processing.XProcessingEnv
 import androidx.room.compiler.processing.XTypeElement
 import androidx.room.compiler.processing.isTypeElement
 import boringyuri.api.DefaultValue
+import boringyuri.api.Flag
 import boringyuri.api.Param
 import boringyuri.api.Path
 import boringyuri.api.UriData
@@ -30,6 +31,9 @@ import boringyuri.processor.common.base.ProcessingSession
 import boringyuri.processor.common.ext.getAnnotation
 import boringyuri.processor.common.ext.requireAnnotation
 import boringyuri.processor.common.steps.ext.createFieldSpec
+import boringyuri.processor.common.steps.model.UriPathPart
+import boringyuri.processor.common.steps.uripart.FlagGroupReadQueryParameter
+import boringyuri.processor.common.steps.uripart.FlagReadQueryParameter
 import boringyuri.processor.common.steps.uripart.MethodReadPathSegment
 import boringyuri.processor.common.steps.uripart.MethodReadQueryParameter
 import boringyuri.processor.common.steps.uripart.ReadQueryParameter
@@ -105,9 +109,10 @@ class IndependentUriDataGeneratorStep(
         // for method parameters. We will replace the templates with the path parameters
         // on the next step. All constants and wildcards will be filtered out on obtaining
         // the base path segments.
-        val segments = obtainBasePathSegments(basePath, sourceElement)
+        val segments = obtainBasePathSegments(UriPathPart.parse(basePath), sourceElement)
         val fieldSpecs = arrayListOf<FieldSpec>()
         val queryParams = arrayListOf<ReadQueryParameter>()
+        val flagGroups = hashMapOf<String, FlagGroupReadQueryParameter>()
 
         for (method in collectMethodsToImplement(sourceElement)) {
             val methodName = method.name
@@ -144,6 +149,7 @@ class IndependentUriDataGeneratorStep(
                         field,
                         uriField,
                         defaultValue,
+                        pathAnnotation.format,
                         method
                     )
                 } else {
@@ -156,6 +162,21 @@ class IndependentUriDataGeneratorStep(
             } else {
                 val paramAnnotation = method.requireAnnotation<Param>()
                 val queryParamName = paramAnnotation.value.ifEmpty { paramName }
+                val flagAnnotation = method.getAnnotation<Flag>()
+                if (flagAnnotation != null) {
+                    val group = flagGroups.getOrPut(queryParamName) {
+                        FlagGroupReadQueryParameter(queryParamName, uriField, logger)
+                            .also { queryParams.add(it) }
+                    }
+                    val bit = flagAnnotation.value
+                    if (group.addFlag(bit, field.type, defaultValue.toBoolean(), method)) {
+                        queryParams.add(
+                            FlagReadQueryParameter(group, bit, field, defaultValue, method)
+                        )
+                    }
+                    continue
+                }
+
                 queryParams.add(
                     MethodReadQueryParameter(
                         queryParamName,
@@ -163,6 +184,8 @@ class IndependentUriDataGeneratorStep(
                         uriField,
                         nullable,
                         defaultValue,
+                        paramAnnotation.encoded,
+                        paramAnnotation.format,
                         method
                     )
                 )
@@ -220,14 +243,23 @@ class IndependentUriDataGeneratorStep(
         val simpleClassName = sourceElement.name + CONTAINER_IMPL_SUFFIX
         val className = ClassName.get(packageName, simpleClassName)
 
+        val uriDataAnnotation = sourceElement.requireAnnotation<UriData>()
+
         val content = generateUriDataClassContent(
             className,
             sourceElement,
             uriMetadata,
-            sourceElement.type.typeName
+            sourceElement.type.typeName,
+            uriDataAnnotation.reusable,
+            uriDataAnnotation.fromString
         )
 
-        session.fileWriter.writeSourceFile(className, content, XFiler.Mode.Isolating)
+        session.fileWriter.writeSourceFile(
+            className,
+            content,
+            XFiler.Mode.Isolating,
+            listOf(sourceElement)
+        )
 
         return true
     }
@@ -18,7 +18,10 @@ package boringyuri.processor.common.steps
 
 import androidx.room.compiler.processing.ExperimentalProcessingApi
 import boringyuri.api.adapter.BoringTypeAdapter
+import boringyuri.processor.common.FileWriter
 import boringyuri.processor.common.base.ProcessingSession
+import boringyuri.processor.common.stats.ProcessingStats
+import boringyuri.processor.common.steps.type.UriBackend
 import com.squareup.javapoet.ClassName
 
 
@@ -32,6 +35,41 @@ object ProcessorOptions {
      */
     const val OPT_TYPE_ADAPTER_FACTORY = "boringyuri.type_adapter_factory"
 
+    /**
+     * Option to share the type adapter instances through the private holder classes nested
+     * in every generated class instead of the module-wide [OPT_TYPE_ADAPTER_FACTORY].
+     * The holders don't depend on the other sources, so the generation stays isolating.
+     *
+     * Type: [Boolean]
+     */
+    const val OPT_TYPE_ADAPTER_HOLDERS = "boringyuri.type_adapter_holders"
+
+    /**
+     * Option to select the `Uri` implementation the generated code is written against:
+     * `android` (default) or `jvm`. The `jvm` backend requires `boringyuri-runtime-jvm`
+     * in the runtime classpath.
+     *
+     * Type: [String]
+     */
+    const val OPT_URI_BACKEND = "boringyuri.uri_backend"
+
+    /**
+     * Option to write per-step and per-round processing time, processed and deferred
+     * element counts and the size of the generated code as JSON. It must be a path to
+     * the directory where a report for every processor is written.
+     *
+     * Type: [String]
+     */
+    const val OPT_STATS = ProcessingStats.OPT_STATS
+
+    /**
+     * Option to render the sources of the generated classes on the given number of threads.
+     * The classes are written in the order they were generated once the round is over.
+     *
+     * Type: [Int]
+     */
+    const val OPT_CODEGEN_THREADS = FileWriter.OPT_CODEGEN_THREADS
+
     @OptIn(ExperimentalProcessingApi::class)
     fun getTypeAdapterFactory(session: ProcessingSession): ClassName? {
         return session.processingEnv.options[OPT_TYPE_ADAPTER_FACTORY]?.let {
@@ -46,4 +84,26 @@ object ProcessorOptions {
             }
         }
     }
+
+    fun isTypeAdapterHoldersEnabled(options: Map<String, String>): Boolean {
+        return options[OPT_TYPE_ADAPTER_HOLDERS].toBoolean()
+    }
+
+    @OptIn(ExperimentalProcessingApi::class)
+    fun isTypeAdapterHoldersEnabled(session: ProcessingSession): Boolean {
+        return isTypeAdapterHoldersEnabled(session.processingEnv.options)
+    }
+
+    @OptIn(ExperimentalProcessingApi::class)
+    fun getUriBackend(session: ProcessingSession): UriBackend {
+        val value = session.processingEnv.options[OPT_URI_BACKEND] ?: return UriBackend.ANDROID
+
+        return UriBackend.fromOptionValue(value) ?: UriBackend.ANDROID.also {
+            session.logger.warn(
+                null,
+                "Unknown uri backend '$value' in '$OPT_URI_BACKEND' option. " +
+                        "'${it.optionValue}' will be used."
+            )
+        }
+    }
 }
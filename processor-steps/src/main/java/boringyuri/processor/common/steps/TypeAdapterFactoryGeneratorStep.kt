@@ -20,7 +20,6 @@ import androidx.room.compiler.processing.ExperimentalProcessingApi
 import androidx.room.compiler.processing.XElement
 import androidx.room.compiler.processing.XFiler
 import androidx.room.compiler.processing.XProcessingEnv
-import androidx.room.compiler.processing.addOriginatingElement
 import boringyuri.api.adapter.TypeAdapter
 import boringyuri.processor.common.base.BoringProcessingStep
 import boringyuri.processor.common.base.ProcessingSession
@@ -48,6 +47,8 @@ class TypeAdapterFactoryGeneratorStep(session: ProcessingSession) : BoringProces
 
     private val originatingElements: MutableSet<XElement> = mutableSetOf()
 
+    private var holdersWarningShown = false
+
     override fun annotations(): Set<String> {
         return setOf(TypeAdapter::class.java.name)
     }
@@ -68,6 +69,19 @@ class TypeAdapterFactoryGeneratorStep(session: ProcessingSession) : BoringProces
         val typeAdapterFactory = ProcessorOptions.getTypeAdapterFactory(session)
             ?: return emptySet()
 
+        // The generated classes hold the adapter instances on their own.
+        if (ProcessorOptions.isTypeAdapterHoldersEnabled(session)) {
+            if (!holdersWarningShown) {
+                holdersWarningShown = true
+                logger.warn(
+                    null,
+                    "'${ProcessorOptions.OPT_TYPE_ADAPTER_FACTORY}' option is ignored when " +
+                            "'${ProcessorOptions.OPT_TYPE_ADAPTER_HOLDERS}' is enabled."
+                )
+            }
+            return emptySet()
+        }
+
         val adaptableElements = elementsByAnnotation[TypeAdapter::class.java.name]
             ?: return emptySet()
 
@@ -122,14 +136,14 @@ class TypeAdapterFactoryGeneratorStep(session: ProcessingSession) : BoringProces
                 MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build()
             )
             .addMethods(adapterFactoryMethods)
-            .apply {
-                originatingElements.forEach { xElement ->
-                    addOriginatingElement(xElement)
-                }
-            }
             .build()
 
-        session.fileWriter.writeSourceFile(className, classContent, XFiler.Mode.Aggregating)
+        session.fileWriter.writeSourceFile(
+            className,
+            classContent,
+            XFiler.Mode.Aggregating,
+            originatingElements
+        )
     }
 
     private fun buildCacheConstant(): FieldSpec {
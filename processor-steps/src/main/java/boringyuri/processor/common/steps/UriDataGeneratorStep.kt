@@ -17,24 +17,35 @@
 package boringyuri.processor.common.steps
 
 import androidx.room.compiler.processing.XElement
-import androidx.room.compiler.processing.addOriginatingElement
 import boringyuri.processor.common.base.BoringProcessingStep
 import boringyuri.processor.common.base.ProcessingSession
 import boringyuri.processor.common.steps.ProcessorOptions.getTypeAdapterFactory
-import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI
+import boringyuri.processor.common.steps.ProcessorOptions.getUriBackend
+import boringyuri.processor.common.steps.ProcessorOptions.isTypeAdapterHoldersEnabled
+import boringyuri.processor.common.steps.model.UriPathPart
+import boringyuri.processor.common.steps.type.CommonTypeName.ARRAYS
+import boringyuri.processor.common.steps.type.CommonTypeName.CHAR_SEQUENCE
 import boringyuri.processor.common.steps.type.CommonTypeName.NON_NULL
+import boringyuri.processor.common.steps.type.CommonTypeName.NULLABLE
+import boringyuri.processor.common.steps.type.CommonTypeName.OBJECTS
 import boringyuri.processor.common.steps.type.CommonTypeName.OVERRIDE
 import boringyuri.processor.common.steps.type.CommonTypeName.STRING
+import boringyuri.processor.common.steps.type.CommonTypeName.THREAD_LOCAL
+import boringyuri.processor.common.steps.type.CommonTypeName.URI_STRING
+import boringyuri.processor.common.steps.type.EncodedQueryReader
+import boringyuri.processor.common.steps.type.QueryWriter
 import boringyuri.processor.common.steps.type.TypeConverter
 import boringyuri.processor.common.steps.uripart.ReadPathSegment
 import boringyuri.processor.common.steps.uripart.ReadQueryParameter
 import boringyuri.processor.common.steps.uripart.TemplatePathSegment
 import boringyuri.processor.common.steps.util.AnnotationHandler
+import com.squareup.javapoet.ArrayTypeName
 import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
 import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.ParameterizedTypeName
 import com.squareup.javapoet.TypeName
 import com.squareup.javapoet.TypeSpec
 import javax.lang.model.element.Modifier
@@ -43,8 +54,10 @@ abstract class UriDataGeneratorStep protected constructor(
     session: ProcessingSession,
     protected val annotationHandler: AnnotationHandler,
 ) : BoringProcessingStep(session) {
+    private val uriBackend = getUriBackend(session)
+
     protected val uriField: FieldSpec = FieldSpec.builder(
-        ANDROID_URI,
+        uriBackend.uri,
         URI_FIELD_NAME,
         Modifier.PRIVATE,
         Modifier.FINAL
@@ -56,29 +69,28 @@ abstract class UriDataGeneratorStep protected constructor(
         Modifier.PRIVATE
     ).build()
 
+    private val hashCodeField: FieldSpec = FieldSpec.builder(
+        TypeName.INT,
+        HASH_CODE_NAME,
+        Modifier.PRIVATE
+    ).build()
+
     private val typeConverter = TypeConverter(
         logger,
-        getTypeAdapterFactory(session)
+        getTypeAdapterFactory(session),
+        isTypeAdapterHoldersEnabled(session)
     )
 
     protected fun obtainBasePathSegments(
-        basePath: String,
+        pathParts: List<UriPathPart>,
         originatingElement: XElement
     ): MutableMap<String, ReadPathSegment> {
-        return basePath
-            .ifEmpty { return LinkedHashMap() } // early exit
-            .split("/")
-            .filter { it.isNotEmpty() }
-            .mapIndexedNotNull { index, segment ->
-                val template = PATH_TEMPLATE_REGEX.find(segment)?.run { groupValues[1] }
-
-                template?.let { index to it } // ignore all constant segments
-            }
-            .associateTo(LinkedHashMap()) {
-                val segmentIndex = it.first
-                val segmentName = it.second
+        return pathParts
+            .filter { it.template != null } // ignore all constant segments
+            .associateTo(LinkedHashMap()) { part ->
+                val segmentName = checkNotNull(part.template)
                 val segment = TemplatePathSegment(
-                    segmentIndex,
+                    part.index,
                     segmentName,
                     originatingElement,
                     logger
@@ -92,19 +104,47 @@ abstract class UriDataGeneratorStep protected constructor(
         className: ClassName,
         sourceElement: XElement,
         uriMetadata: UriMetadata,
-        superInterface: TypeName? = null
+        superInterface: TypeName? = null,
+        reusable: Boolean = false,
+        fromString: Boolean = false
     ): TypeSpec {
         val classContent = TypeSpec.classBuilder(className)
             .addModifiers(Modifier.FINAL, Modifier.PUBLIC)
 
         superInterface?.let { classContent.addSuperinterface(it) }
 
-        classContent.addField(uriField)
-        classContent.addField(parseFlagField)
-        classContent.addFields(uriMetadata.fieldSpecs)
+        val valueFields = uriMetadata.fieldSpecs +
+                uriMetadata.queryParameters.filter { it.synthetic }.map { it.paramField }
+
+        val source = UriSource(uriBackend.uri, fromString)
 
-        classContent.addMethod(generateConstructor())
+        classContent.addField(createUriField(source, reusable))
+        classContent.addField(parseFlagField)
+        if (!reusable) {
+            classContent.addField(hashCodeField)
+        }
+        classContent.addFields(valueFields)
+
+        source.inputTypes.forEach { classContent.addMethod(generateConstructor(source, it)) }
+
+        if (reusable) {
+            val threadInstanceField = FieldSpec.builder(
+                ParameterizedTypeName.get(THREAD_LOCAL, className),
+                THREAD_INSTANCE_NAME,
+                Modifier.PRIVATE,
+                Modifier.STATIC,
+                Modifier.FINAL
+            ).initializer("new \$T<>()", THREAD_LOCAL).build()
+
+            classContent.addField(threadInstanceField)
+            source.inputTypes.forEach {
+                classContent.addMethod(generateObtain(className, threadInstanceField, it))
+                classContent.addMethod(generateRebind(className, valueFields, source, it))
+            }
+        }
 
+        // public getters of the parsed values define the equality of the data class
+        val valueGetters = ArrayList<MethodSpec>()
         var uriPartIndex = 0
         uriMetadata.pathSegments.forEach {
             val method = generateGetterMethodImpl(
@@ -113,6 +153,7 @@ abstract class UriDataGeneratorStep protected constructor(
                 overrides = superInterface != null
             )
             classContent.addMethod(method)
+            valueGetters += method
             uriPartIndex++
         }
 
@@ -120,17 +161,35 @@ abstract class UriDataGeneratorStep protected constructor(
             val method = generateGetterMethodImpl(
                 uriPart = QueryParameterUriPart(it),
                 parseFlagValue = 1 shl uriPartIndex,
-                overrides = superInterface != null
+                overrides = superInterface != null && !it.synthetic
             )
             classContent.addMethod(method)
+            if (!it.synthetic) {
+                valueGetters += method
+            }
             uriPartIndex++
         }
+        valueGetters.removeAll { it.parameters.isNotEmpty() }
+
+        uriMetadata.queryParameters.filterNot { it.synthetic }.forEach { queryParameter ->
+            generateWithMethod(queryParameter, source)?.let { classContent.addMethod(it) }
+        }
+
+        if (uriMetadata.queryParameters.any { it.encoded }) {
+            classContent.addMethod(EncodedQueryReader.FIND_PARAMETER)
+            classContent.addMethod(EncodedQueryReader.FIND_PARAMETERS)
+        }
 
         onPostGenerateContent(classContent, sourceElement)
 
+        // a reusable instance changes its values on rebind, so it keeps the identity equality
+        // instead of changing its hash code while it is stored in a hash map
+        if (!reusable) {
+            classContent.addMethod(generateEquals(className, valueGetters))
+            classContent.addMethod(generateHashCode(valueGetters))
+        }
         classContent.addMethod(generateToString())
-
-        classContent.addOriginatingElement(sourceElement)
+        classContent.addTypes(typeConverter.createTypeAdapterHolders())
 
         return classContent.build()
     }
@@ -142,14 +201,243 @@ abstract class UriDataGeneratorStep protected constructor(
         // NO-OP
     }
 
-    private fun generateConstructor(): MethodSpec {
-        val uriParam = ParameterSpec.builder(ANDROID_URI, "uri")
+    private fun createUriField(source: UriSource, reusable: Boolean): FieldSpec {
+        // the name is kept, so the value readers work with either source type
+        val field = FieldSpec.builder(source.type, uriField.name, Modifier.PRIVATE)
+            .addAnnotations(uriField.annotations)
+        if (!reusable) {
+            field.addModifiers(Modifier.FINAL)
+        }
+        return field.build()
+    }
+
+    private fun generateConstructor(source: UriSource, inputType: TypeName): MethodSpec {
+        val uriParam = ParameterSpec.builder(inputType, "uri")
             .addAnnotations(uriField.annotations).build()
 
         return MethodSpec.constructorBuilder()
             .addModifiers(Modifier.PUBLIC)
             .addParameter(uriParam)
-            .addStatement("\$N = \$N", uriField, uriParam)
+            .addStatement("\$N = \$L", uriField, source.toFieldValue(uriParam))
+            .build()
+    }
+
+    private fun generateObtain(
+        className: ClassName,
+        threadInstanceField: FieldSpec,
+        inputType: TypeName
+    ): MethodSpec {
+        val uriParam = ParameterSpec.builder(inputType, "uri")
+            .addAnnotations(uriField.annotations).build()
+
+        return MethodSpec.methodBuilder(OBTAIN_METHOD_NAME)
+            .addJavadoc(
+                "Returns an instance bound to the {@code uri} owned by the current thread.\n" +
+                        "The instance is rebound by the next call on the same thread, so it\n" +
+                        "must not be retained or shared with other threads.\n"
+            )
+            .addAnnotation(NON_NULL)
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .addParameter(uriParam)
+            .returns(className)
+            .addStatement("\$T data = \$N.get()", className, threadInstanceField)
+            .beginControlFlow("if (data == null)")
+            .addStatement("data = new \$T(\$N)", className, uriParam)
+            .addStatement("\$N.set(data)", threadInstanceField)
+            .nextControlFlow("else")
+            .addStatement("data.\$L(\$N)", REBIND_METHOD_NAME, uriParam)
+            .endControlFlow()
+            .addStatement("return data")
+            .build()
+    }
+
+    private fun generateRebind(
+        className: ClassName,
+        valueFields: List<FieldSpec>,
+        source: UriSource,
+        inputType: TypeName
+    ): MethodSpec {
+        val uriParam = ParameterSpec.builder(inputType, "uri")
+            .addAnnotations(uriField.annotations).build()
+
+        val method = MethodSpec.methodBuilder(REBIND_METHOD_NAME)
+            .addAnnotation(NON_NULL)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(uriParam)
+            .returns(className)
+            .addStatement("\$N = \$L", uriField, source.toFieldValue(uriParam))
+            .addStatement("\$N = 0", parseFlagField)
+
+        // primitive values are guarded by the parse flag, references are
+        // dropped to let the previous values be collected
+        valueFields.filterNot { it.type.isPrimitive }.forEach {
+            method.addStatement("\$N = null", it)
+        }
+
+        return method.addStatement("return this").build()
+    }
+
+    /**
+     * `with<Field>(value)` method encodes only the new value of the query parameter,
+     * all the other parts of the source `Uri` are copied without decoding them.
+     */
+    private fun generateWithMethod(
+        queryParameter: ReadQueryParameter,
+        source: UriSource
+    ): MethodSpec? {
+        val field = queryParameter.paramField
+        val valueParam = ParameterSpec.builder(field.type, "value")
+            .addAnnotations(field.annotations)
+            .build()
+
+        // the whole query is collected as encoded, the builder itself is never used here
+        val queryWriter = QueryWriter.create(URI_BUILDER_NAME, true, uriBackend)
+        val writeParameter = queryParameter.createWriteParameter(valueParam, queryWriter)
+            ?: return null
+
+        return MethodSpec.methodBuilder(WITH_PREFIX + field.name.removePrefix(FIELD_PREFIX))
+            .addJavadoc(
+                "Returns a copy of this {@code Uri} with the {@code \$L} query parameter\n" +
+                        "replaced by the {@code value}.\n",
+                queryParameter.name
+            )
+            .addAnnotation(NON_NULL)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(valueParam)
+            .returns(uriBackend.uri)
+            .addCode(queryWriter.buildPrepareBlock())
+            .addCode(writeParameter.createValueBlock(typeConverter))
+            .addStatement(
+                "return \$T.parse(\$L.replaceQueryParameter(\$S, \$L))",
+                uriBackend.uri,
+                source.toUriString(uriField),
+                queryParameter.name,
+                QueryWriter.ENCODED_QUERY_NAME
+            )
+            .build()
+    }
+
+    /**
+     * Data classes are equal when all their parsed values are equal, so the `Uri`s
+     * with the same values written in a different order or encoded differently are equal.
+     * A getter throws when a required value is missing or can't be parsed, then the data
+     * classes are equal only when their `Uri`s are written the same way.
+     */
+    private fun generateEquals(className: ClassName, valueGetters: List<MethodSpec>): MethodSpec {
+        val otherParam = ParameterSpec.builder(TypeName.OBJECT, "o")
+            .addAnnotation(NULLABLE)
+            .build()
+        val otherName = "other"
+
+        val method = MethodSpec.methodBuilder("equals")
+            .addAnnotation(OVERRIDE)
+            .addModifiers(Modifier.PUBLIC)
+            .addParameter(otherParam)
+            .returns(TypeName.BOOLEAN)
+            .beginControlFlow("if (this == \$N)", otherParam)
+            .addStatement("return true")
+            .endControlFlow()
+            .beginControlFlow("if (!(\$N instanceof \$T))", otherParam, className)
+            .addStatement("return false")
+            .endControlFlow()
+            .addCode("\n")
+            .addStatement("\$1T \$2L = (\$1T) \$3N", className, otherName, otherParam)
+            // the hash codes already computed on both sides reject most of the unequal values
+            .beginControlFlow(
+                "if (\$1N != 0 && \$2L.\$1N != 0 && \$1N != \$2L.\$1N)",
+                hashCodeField,
+                otherName
+            )
+            .addStatement("return false")
+            .endControlFlow()
+
+        if (valueGetters.isEmpty()) {
+            return method.addStatement("return true").build()
+        }
+
+        val comparisons = valueGetters.map { getter ->
+            val value = CodeBlock.of("\$N()", getter)
+            val otherValue = CodeBlock.of("\$L.\$N()", otherName, getter)
+            val type = getter.returnType.withoutAnnotations()
+            when {
+                type == TypeName.FLOAT || type == TypeName.DOUBLE -> CodeBlock.of(
+                    "\$T.compare(\$L, \$L) == 0",
+                    type.boxPrimitive(),
+                    value,
+                    otherValue
+                )
+                type.isPrimitive -> CodeBlock.of("\$L == \$L", value, otherValue)
+                type is ArrayTypeName -> CodeBlock.of(
+                    "\$T.\$L(\$L, \$L)",
+                    ARRAYS,
+                    if (type.componentType.isPrimitive) "equals" else "deepEquals",
+                    value,
+                    otherValue
+                )
+                else -> CodeBlock.of("\$T.equals(\$L, \$L)", OBJECTS, value, otherValue)
+            }
+        }
+
+        return method
+            .addCode("\n")
+            .beginControlFlow("try")
+            .addStatement("return \$L", CodeBlock.join(comparisons, "\n&& "))
+            .nextControlFlow("catch (\$T e)", RuntimeException::class.java)
+            .addStatement(
+                "return \$1N.toString().equals(\$2L.\$1N.toString())",
+                uriField,
+                otherName
+            )
+            .endControlFlow()
+            .build()
+    }
+
+    /**
+     * The hash code is computed once from the parsed values and cached, so data classes
+     * can be used as keys of hash maps. Like `String.hashCode()`, a zero hash code is
+     * computed on every call. If a value can't be read, the hash code of the `Uri` text is
+     * used in line with [generateEquals].
+     */
+    private fun generateHashCode(valueGetters: List<MethodSpec>): MethodSpec {
+        val resultName = "result"
+
+        val method = MethodSpec.methodBuilder("hashCode")
+            .addAnnotation(OVERRIDE)
+            .addModifiers(Modifier.PUBLIC)
+            .returns(TypeName.INT)
+            .addStatement("int \$L = \$N", resultName, hashCodeField)
+            .beginControlFlow("if (\$L == 0)", resultName)
+
+        if (valueGetters.isNotEmpty()) {
+            method.beginControlFlow("try")
+        }
+        method.addStatement("\$L = 1", resultName)
+
+        valueGetters.forEach { getter ->
+            val value = CodeBlock.of("\$N()", getter)
+            val type = getter.returnType.withoutAnnotations()
+            val hashBlock = when {
+                type.isPrimitive -> CodeBlock.of("\$T.hashCode(\$L)", type.boxPrimitive(), value)
+                type is ArrayTypeName -> CodeBlock.of(
+                    "\$T.\$L(\$L)",
+                    ARRAYS,
+                    if (type.componentType.isPrimitive) "hashCode" else "deepHashCode",
+                    value
+                )
+                else -> CodeBlock.of("\$T.hashCode(\$L)", OBJECTS, value)
+            }
+            method.addStatement("\$1L = 31 * \$1L + \$2L", resultName, hashBlock)
+        }
+        if (valueGetters.isNotEmpty()) {
+            method.nextControlFlow("catch (\$T e)", RuntimeException::class.java)
+                .addStatement("\$L = \$N.toString().hashCode()", resultName, uriField)
+                .endControlFlow()
+        }
+
+        return method
+            .addStatement("\$N = \$L", hashCodeField, resultName)
+            .endControlFlow()
+            .addStatement("return \$L", resultName)
             .build()
     }
 
@@ -191,6 +479,37 @@ abstract class UriDataGeneratorStep protected constructor(
         return method.build()
     }
 
+    /**
+     * Type of the `Uri` representation stored by a data class. The `Uri` of the selected
+     * backend is used by default, `UriString` lets the data class be parsed straight
+     * from a string.
+     */
+    private class UriSource(private val uri: TypeName, private val fromString: Boolean) {
+
+        val type: TypeName = if (fromString) URI_STRING else uri
+
+        val inputTypes: List<TypeName> = if (fromString) {
+            listOf(CHAR_SEQUENCE, uri)
+        } else {
+            listOf(uri)
+        }
+
+        fun toFieldValue(input: ParameterSpec): CodeBlock = when {
+            !fromString -> CodeBlock.of("\$N", input)
+            input.type == uri -> {
+                CodeBlock.of("\$T.parse(\$N.toString())", URI_STRING, input)
+            }
+            else -> CodeBlock.of("\$T.parse(\$N)", URI_STRING, input)
+        }
+
+        fun toUriString(field: FieldSpec): CodeBlock = if (fromString) {
+            CodeBlock.of("\$N", field)
+        } else {
+            CodeBlock.of("\$T.parse(\$N.toString())", URI_STRING, field)
+        }
+
+    }
+
     protected data class UriMetadata(
         val fieldSpecs: List<FieldSpec>,
         val pathSegments: List<ReadPathSegment>,
@@ -248,7 +567,29 @@ abstract class UriDataGeneratorStep protected constructor(
     companion object {
         private const val URI_FIELD_NAME = "mDataUri"
         private const val PARSE_FLAG_NAME = "mParseFlag"
-
-        private val PATH_TEMPLATE_REGEX = "^\\{([a-zA-Z0-9_-]+)}$".toRegex()
+        private const val HASH_CODE_NAME = "mHashCode"
+        private const val THREAD_INSTANCE_NAME = "THREAD_INSTANCE"
+        private const val OBTAIN_METHOD_NAME = "obtain"
+        private const val REBIND_METHOD_NAME = "rebind"
+        private const val WITH_PREFIX = "with"
+        private const val FIELD_PREFIX = "m"
+        private const val URI_BUILDER_NAME = "builder"
+
+        private val PRIMITIVE_TYPES = listOf(
+            TypeName.BOOLEAN,
+            TypeName.BYTE,
+            TypeName.SHORT,
+            TypeName.INT,
+            TypeName.LONG,
+            TypeName.CHAR,
+            TypeName.FLOAT,
+            TypeName.DOUBLE
+        )
+
+        /**
+         * [TypeName.box] compares the type with the primitive constants by identity, so it
+         * fails for a copy without annotations. Boxes the equal constant instead.
+         */
+        private fun TypeName.boxPrimitive(): TypeName = PRIMITIVE_TYPES.first { it == this }.box()
     }
 }
\ No newline at end of file
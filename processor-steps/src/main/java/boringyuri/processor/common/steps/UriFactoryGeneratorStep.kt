@@ -22,12 +22,11 @@ import androidx.room.compiler.processing.XFiler
 import androidx.room.compiler.processing.XMethodElement
 import androidx.room.compiler.processing.XProcessingEnv
 import androidx.room.compiler.processing.XTypeElement
-import androidx.room.compiler.processing.XVariableElement
-import androidx.room.compiler.processing.addOriginatingElement
 import androidx.room.compiler.processing.isMethod
 import androidx.room.compiler.processing.isTypeElement
 import boringyuri.api.DefaultValue
-import boringyuri.api.Param
+import boringyuri.api.Interned
+import boringyuri.api.Memoized
 import boringyuri.api.Path
 import boringyuri.api.UriBuilder
 import boringyuri.api.UriFactory
@@ -35,28 +34,48 @@ import boringyuri.api.constant.BooleanParam
 import boringyuri.api.constant.DoubleParam
 import boringyuri.api.constant.LongParam
 import boringyuri.api.constant.StringParam
-import boringyuri.processor.common.steps.ProcessorOptions.getTypeAdapterFactory
+import boringyuri.processor.common.base.AbortProcessingException
 import boringyuri.processor.common.base.BoringProcessingStep
 import boringyuri.processor.common.base.ProcessingSession
 import boringyuri.processor.common.ext.getAnnotation
 import boringyuri.processor.common.ext.getAnnotations
 import boringyuri.processor.common.ext.requireAnnotation
+import boringyuri.processor.common.steps.ProcessorOptions.getTypeAdapterFactory
+import boringyuri.processor.common.steps.ProcessorOptions.getUriBackend
+import boringyuri.processor.common.steps.ProcessorOptions.isTypeAdapterHoldersEnabled
 import boringyuri.processor.common.steps.ext.createModifiers
 import boringyuri.processor.common.steps.ext.createParamSpec
-import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI
-import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI_BUILDER
+import boringyuri.processor.common.steps.model.UriMethodModel
+import boringyuri.processor.common.steps.model.UriParameterModel
+import boringyuri.processor.common.steps.type.CommonTypeName.NON_NULL
+import boringyuri.processor.common.steps.type.CommonTypeName.OBJECTS
 import boringyuri.processor.common.steps.type.CommonTypeName.OVERRIDE
 import boringyuri.processor.common.steps.type.CommonTypeName.STRING
+import boringyuri.processor.common.steps.type.CommonTypeName.URI_ARGUMENTS
+import boringyuri.processor.common.steps.type.CommonTypeName.URI_CACHE
+import boringyuri.processor.common.steps.type.CommonTypeName.URI_FINGERPRINT
+import boringyuri.processor.common.steps.type.CommonTypeName.URI_INTERNER
+import boringyuri.processor.common.steps.type.ConversionStrategyFactory
+import boringyuri.processor.common.steps.type.QueryWriter
 import boringyuri.processor.common.steps.type.TypeConverter
+import boringyuri.processor.common.steps.type.isUri
 import boringyuri.processor.common.steps.uripart.ConstantPathSegment
+import boringyuri.processor.common.steps.uripart.ConstantWriteQueryParameter
+import boringyuri.processor.common.steps.uripart.FlagGroupWriteQueryParameter
 import boringyuri.processor.common.steps.uripart.PathSegment
 import boringyuri.processor.common.steps.uripart.QueryParameter
 import boringyuri.processor.common.steps.uripart.VariableWritePathSegment
 import boringyuri.processor.common.steps.uripart.VariableWriteQueryParameter
 import boringyuri.processor.common.steps.util.AnnotationHandler
+import boringyuri.processor.common.steps.util.buildWarmUpMethods
+import com.squareup.javapoet.ArrayTypeName
 import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.FieldSpec
 import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.ParameterizedTypeName
+import com.squareup.javapoet.TypeName
 import com.squareup.javapoet.TypeSpec
 import javax.lang.model.element.Modifier
 
@@ -68,9 +87,12 @@ class UriFactoryGeneratorStep(
 
     private val typeConverter = TypeConverter(
         logger,
-        getTypeAdapterFactory(session)
+        getTypeAdapterFactory(session),
+        isTypeAdapterHoldersEnabled(session)
     )
 
+    private val uriBackend = getUriBackend(session)
+
     override fun annotations(): Set<String> {
         return setOf(UriFactory::class.java.name)
     }
@@ -123,6 +145,12 @@ class UriFactoryGeneratorStep(
             .filter { it.isMethod() }
             .map { it as XMethodElement }
         val metadata = ArrayList<BuilderMetadata>(declaredMethods.size)
+        val factoryAnnotation = containerElement.requireAnnotation<UriFactory>()
+        val fingerprints = factoryAnnotation.fingerprints
+        val canonicalQuery = factoryAnnotation.canonicalQuery
+        // the generated fingerprint methods must not clash with each other or with
+        // the methods declared by the factory, e.g. buildUserUri(long) and userUri(long)
+        val methodSignatures = declaredMethods.associateByTo(HashMap()) { it.signature() }
 
         for (methodElement in declaredMethods) {
             if (methodElement.isStatic()) {
@@ -134,81 +162,170 @@ class UriFactoryGeneratorStep(
                     ?: continue // skip non-annotated methods
 
             val returnType = methodElement.returnType.typeElement?.className
-            if (ANDROID_URI != returnType) {
+            if (uriBackend.uri != returnType) {
                 logger.warn(
                     methodElement,
-                    "Uri builder method must have ${ANDROID_URI.simpleName()} return type"
+                    "Uri builder method must have ${uriBackend.uri} return type"
                 )
                 continue  // skip the methods with invalid return types
             }
 
-            val (methodParams, segments, queryParams) = obtainBuilderMetadata(
-                builderAnnotation,
-                methodElement
-            )
-
-            metadata.add(BuilderMetadata(methodElement, methodParams, segments, queryParams))
+            val model = UriMethodModel.obtain(session, methodElement, builderAnnotation)
+            val builderMetadata = obtainBuilderMetadata(model, canonicalQuery)
+            val fingerprint = fingerprints
+                    && checkFingerprintSignature(methodElement, methodSignatures)
+            metadata += if (fingerprint) {
+                val fingerprintQueryWriter = QueryWriter.createFingerprint(URI_BUILDER_NAME)
+                builderMetadata.copy(
+                    fingerprint = obtainBuilderMetadata(
+                        model,
+                        canonicalQuery,
+                        fingerprintQueryWriter
+                    )
+                )
+            } else {
+                builderMetadata
+            }
         }
 
         return metadata
     }
 
+    private fun checkFingerprintSignature(
+        methodElement: XMethodElement,
+        methodSignatures: MutableMap<MethodSignature, XMethodElement>
+    ): Boolean {
+        val fingerprintName = getFingerprintMethodName(methodElement.name)
+        val clashingMethod = methodSignatures.putIfAbsent(
+            methodElement.signature(fingerprintName),
+            methodElement
+        ) ?: return true
+
+        val clashingName = if (clashingMethod.name == fingerprintName) {
+            clashingMethod.name
+        } else {
+            "${getFingerprintMethodName(clashingMethod.name)}' of '${clashingMethod.name}"
+        }
+        logger.error(
+            methodElement,
+            "Fingerprint method '%s' of '%s' clashes with '%s'. Rename one of the methods.",
+            fingerprintName,
+            methodElement.name,
+            clashingName
+        )
+        return false
+    }
+
+    private fun getFingerprintMethodName(builderName: String): String {
+        // buildUserUri() becomes fingerprintUserUri() and userUri() becomes fingerprintUserUri()
+        val baseName = if (builderName.matches(BUILDER_NAME_REGEX)) {
+            builderName.removePrefix(BUILDER_PREFIX)
+        } else {
+            builderName.replaceFirstChar { it.uppercaseChar() }
+        }
+        return FINGERPRINT_PREFIX + baseName
+    }
+
+    private fun XMethodElement.signature(methodName: String = name): MethodSignature {
+        return MethodSignature(
+            methodName,
+            parameters.map { param ->
+                when (val typeName = param.type.typeName.withoutAnnotations()) {
+                    is ParameterizedTypeName -> typeName.rawType
+                    else -> typeName
+                }
+            }
+        )
+    }
+
     private fun obtainBuilderMetadata(
-        builderAnnotation: UriBuilder,
-        methodElement: XExecutableElement
-    ): Triple<List<ParameterSpec>, List<PathSegment>, List<QueryParameter>> {
-        val methodParameters = methodElement.parameters
-        val parameterSpecs = createParamSpecs(methodParameters)
+        model: UriMethodModel,
+        canonicalQuery: Boolean,
+        fingerprintQueryWriter: QueryWriter? = null
+    ): BuilderMetadata {
+        val parameterSpecs = createParamSpecs(model.parameters)
 
         // We find all the possible variable path segments replacements defined
         // in the method parameters. On the next step we'll try to find the placeholders
         // where to apply these variable path segments.
-        val variablePathSegments = obtainPathSegments(methodParameters, parameterSpecs)
+        val variablePathSegments = obtainPathSegments(model.parameters, parameterSpecs)
         // Iterating over all constant and variable path segments we'll put them in a list
         // in the exact order as they were defined in the base path of @UriBuilder annotation.
-        val pathSegments = obtainPathSegmentsFromBasePath(
-            builderAnnotation,
-            variablePathSegments,
-            methodElement
-        )
-
-        val queryParams = obtainQueryParams(methodParameters, parameterSpecs)
+        val pathSegments = obtainPathSegmentsFromBasePath(model, variablePathSegments)
+
+        // Uri.Builder is able to append only the values that require encoding, so when
+        // at least one of the query parameters is already encoded (or binary, which is
+        // written as is) the whole query is collected by the method itself.
+        val encodedQuery = model.parameters.any { param ->
+            val paramAnnotation = param.param ?: return@any false
+
+            paramAnnotation.encoded || ConversionStrategyFactory.isBinaryQuery(
+                param.element.type,
+                param.typeAdapter,
+                paramAnnotation.format
+            )
+        }
+        val queryWriter = fingerprintQueryWriter
+            ?: QueryWriter.create(URI_BUILDER_NAME, encodedQuery, uriBackend)
+
+        val queryParams = obtainQueryParams(
+            model.parameters,
+            parameterSpecs,
+            queryWriter
+        ) + obtainConstantQueryParams(model.method, queryWriter)
+        // Parameters are sorted by the decoded name as it's declared, not by its encoded form
+        // in the Uri. sortedBy is stable, so the parameters with the same name keep their
+        // relative order and the values of an array parameter are never reordered.
+        val orderedQueryParams = if (canonicalQuery) {
+            queryParams.sortedBy { it.name }
+        } else {
+            queryParams
+        }
 
-        return Triple(parameterSpecs.values.toList(), pathSegments, queryParams)
+        return BuilderMetadata(
+            model.method,
+            parameterSpecs.values.toList(),
+            model.parameters,
+            pathSegments,
+            orderedQueryParams,
+            queryWriter
+        )
     }
 
     private fun createParamSpecs(
-        methodParameters: List<XVariableElement>
-    ): Map<XVariableElement, ParameterSpec> {
+        methodParameters: List<UriParameterModel>
+    ): Map<UriParameterModel, ParameterSpec> {
         return methodParameters.associateWithTo(LinkedHashMap()) { parameter ->
-            parameter.createParamSpec(annotationHandler)
+            parameter.element.createParamSpec(annotationHandler)
         }
     }
 
     private fun obtainPathSegments(
-        methodParameters: List<XVariableElement>,
-        parameterSpecs: Map<XVariableElement, ParameterSpec>
+        methodParameters: List<UriParameterModel>,
+        parameterSpecs: Map<UriParameterModel, ParameterSpec>
     ): Map<String, VariableWritePathSegment> {
         return methodParameters.mapNotNull { param ->
-            val pathAnnotation = param.getAnnotation<Path>() ?: return@mapNotNull null
+            val pathAnnotation = param.path ?: return@mapNotNull null
 
             val spec = parameterSpecs.getValue(param)
-            val nullable = annotationHandler.isNullable(spec.type, param)
-            val defaultValue = param.getAnnotation<DefaultValue>()?.value
+            val nullable = annotationHandler.isNullable(spec.type, param.element)
+            val defaultValue = param.defaultValue
 
             if (nullable && defaultValue == null) {
                 logger.error(
-                    param, "Path segment '${spec.name}' must be explicitly non-null" +
+                    param.element, "Path segment '${spec.name}' must be explicitly non-null" +
                             " or have a @${DefaultValue::class.simpleName}."
                 )
             }
 
-            val pathName = pathAnnotation.value.ifEmpty { spec.name }
+            val pathName = checkNotNull(param.pathName)
             val segment = VariableWritePathSegment(
-                param,
+                param.element,
+                param.typeAdapter,
                 spec,
                 defaultValue,
                 pathAnnotation.encoded,
+                pathAnnotation.format,
                 URI_BUILDER_NAME
             )
 
@@ -217,56 +334,91 @@ class UriFactoryGeneratorStep(
     }
 
     private fun obtainQueryParams(
-        methodParameters: List<XVariableElement>,
-        parameterSpecs: Map<XVariableElement, ParameterSpec>
+        methodParameters: List<UriParameterModel>,
+        parameterSpecs: Map<UriParameterModel, ParameterSpec>,
+        queryWriter: QueryWriter
     ): List<QueryParameter> {
+        val flagGroups = hashMapOf<String, FlagGroupWriteQueryParameter>()
+
         return methodParameters.mapNotNull { param ->
-            val paramAnnotation = param.getAnnotation<Param>() ?: return@mapNotNull null
+            val paramAnnotation = param.param ?: return@mapNotNull null
 
             val spec = parameterSpecs.getValue(param)
-            val nullable = annotationHandler.isNullable(spec.type, param)
-            val defaultValue = param.getAnnotation<DefaultValue>()?.value
+            val nullable = annotationHandler.isNullable(spec.type, param.element)
+
+            val paramName = checkNotNull(param.queryName)
+
+            val flagAnnotation = param.flag
+            if (flagAnnotation != null) {
+                // all the flags of the group are written in place of the first one
+                val existingGroup = flagGroups[paramName]
+                val group = existingGroup ?: FlagGroupWriteQueryParameter(
+                    paramName,
+                    queryWriter,
+                    logger
+                ).also { flagGroups[paramName] = it }
+
+                group.addFlag(flagAnnotation.value, spec.type, spec, param.element)
+
+                return@mapNotNull if (existingGroup == null) group else null
+            }
 
-            val paramName = paramAnnotation.value.ifEmpty { spec.name }
             VariableWriteQueryParameter(
                 paramName,
                 spec,
-                param,
+                param.element.type,
+                param.element,
+                param.typeAdapter,
                 nullable,
-                defaultValue,
-                URI_BUILDER_NAME
+                param.defaultValue,
+                paramAnnotation.encoded,
+                paramAnnotation.format,
+                queryWriter
             )
         }
     }
 
+    private fun obtainConstantQueryParams(
+        methodElement: XExecutableElement,
+        queryWriter: QueryWriter
+    ): List<QueryParameter> {
+        val stringParams = methodElement.getAnnotations<StringParam>().map {
+            ConstantWriteQueryParameter(it.name, it.value, queryWriter)
+        }
+        val booleanParams = methodElement.getAnnotations<BooleanParam>().map {
+            ConstantWriteQueryParameter(it.name, it.value, queryWriter)
+        }
+        val longParams = methodElement.getAnnotations<LongParam>().map {
+            ConstantWriteQueryParameter(it.name, it.value, queryWriter)
+        }
+        val doubleParams = methodElement.getAnnotations<DoubleParam>().map {
+            ConstantWriteQueryParameter(it.name, it.value, queryWriter)
+        }
+
+        return stringParams + booleanParams + longParams + doubleParams
+    }
+
     private fun obtainPathSegmentsFromBasePath(
-        builderAnnotation: UriBuilder,
-        variablePathSegments: Map<String, VariableWritePathSegment>,
-        originatingElement: XElement
+        model: UriMethodModel,
+        variablePathSegments: Map<String, VariableWritePathSegment>
     ): List<PathSegment> {
-        val basePath = builderAnnotation.value
+        val builderAnnotation = model.builder
 
         var unprocessedElementsCounter = variablePathSegments.size
-        val segments = if (basePath.isNotEmpty()) {
-            basePath.split("/")
-                .filter { it.isNotEmpty() }
-                .mapNotNullTo(ArrayList()) {
-                    val template = PATH_TEMPLATE_REGEX.find(it)?.run { groupValues[1] }
-                    val segment = if (template == null) {
-                        ConstantPathSegment(it, builderAnnotation.encoded, URI_BUILDER_NAME)
-                    } else {
-                        variablePathSegments[template]?.also { unprocessedElementsCounter-- }
-                    }
-
-                    segment
-                }
-        } else ArrayList()
+        val segments = model.pathParts.mapNotNullTo(ArrayList()) { part ->
+            val template = part.template
+            if (template == null) {
+                ConstantPathSegment(part.value, builderAnnotation.encoded, URI_BUILDER_NAME)
+            } else {
+                variablePathSegments[template]?.also { unprocessedElementsCounter-- }
+            }
+        }
 
         if (unprocessedElementsCounter > 0) {
             session.logger.error(
-                originatingElement,
+                model.method,
                 "Some of the @${Path::class.simpleName} annotated method parameters " +
-                        "are not found in '$basePath'"
+                        "are not found in '${model.basePath}'"
             )
         }
 
@@ -287,7 +439,12 @@ class UriFactoryGeneratorStep(
             containerMetadata
         )
 
-        session.fileWriter.writeSourceFile(containerClassName, content, XFiler.Mode.Isolating)
+        session.fileWriter.writeSourceFile(
+            containerClassName,
+            content,
+            XFiler.Mode.Isolating,
+            listOf(containerElement)
+        )
 
         return true
     }
@@ -301,9 +458,21 @@ class UriFactoryGeneratorStep(
             .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
             .addSuperinterface(containerElement.className)
 
+        // the implementation is stateless, so a single instance can be shared by everyone
+        classContent.addField(
+            FieldSpec.builder(
+                containerImplName,
+                CONTAINER_INSTANCE_NAME,
+                Modifier.PUBLIC,
+                Modifier.STATIC,
+                Modifier.FINAL
+            ).addAnnotation(NON_NULL).initializer("new \$T()", containerImplName).build()
+        )
+
         val containerAnnotation = containerElement.requireAnnotation<UriFactory>()
         val scheme = containerAnnotation.scheme
         val authority = containerAnnotation.authority
+        val containerInterned = containerElement.getAnnotation<Interned>()
 
         for (builderMetadata in containerMetadata) {
             val methodElement = builderMetadata.builderMethod
@@ -318,125 +487,411 @@ class UriFactoryGeneratorStep(
                         methodElement.getAllAnnotations()
                     )
                 )
-                .returns(ANDROID_URI)
+                .returns(uriBackend.uri)
                 .addModifiers(modifiers.toMutableSet().apply {
                     remove(Modifier.ABSTRACT)
                     remove(Modifier.DEFAULT)
                 })
                 .addParameters(builderMetadata.methodParameters)
 
+            val resultCache = obtainResultCache(builderMetadata, containerInterned, classContent)
+            if (resultCache != null) {
+                appendCachedLookup(resultCache, method)
+            }
+
             method.addStatement(
                 "$1T $2L = new $1T()\n.scheme($3S)\n.authority($4S)",
-                ANDROID_URI_BUILDER,
+                uriBackend.uriBuilder,
                 URI_BUILDER_NAME,
                 scheme,
                 authority
             )
 
             method.addCode("\n")
-            appendUriBody(builderMetadata, method)
-            appendConstantStringParams(methodElement, method)
-            appendConstantBooleanParams(methodElement, method)
-            appendConstantLongParams(methodElement, method)
-            appendConstantDoubleParams(methodElement, method)
+            appendUriContent(builderMetadata, method)
             method.addCode("\n")
 
-            method.addStatement("return \$L.build()", URI_BUILDER_NAME)
+            if (resultCache != null) {
+                method.addStatement(
+                    "return \$N.\$L(\$L, \$L.build())",
+                    resultCache.field,
+                    resultCache.storeMethodName,
+                    CACHE_KEY_NAME,
+                    URI_BUILDER_NAME
+                )
+            } else {
+                method.addStatement("return \$L.build()", URI_BUILDER_NAME)
+            }
             classContent.addMethod(method.build())
+
+            builderMetadata.fingerprint?.let {
+                classContent.addMethod(generateFingerprintMethod(it, scheme, authority))
+            }
         }
 
-        classContent.addOriginatingElement(containerElement)
+        classContent.addType(generateWarmUpClass(containerImplName))
+        classContent.addTypes(typeConverter.createTypeAdapterHolders())
 
         return classContent.build()
     }
 
-    private fun appendUriBody(
+    /**
+     * The warm-up methods are put into a nested class, because a static method of
+     * the implementation would initialize it with all its caches and interners on the caller's
+     * thread. Instead, the implementation is initialized by reading its instance on
+     * the executor, so the reported duration covers it too.
+     */
+    private fun generateWarmUpClass(containerImplName: ClassName): TypeSpec {
+        val warmUpBlock = CodeBlock.builder()
+            .addStatement(
+                "\$T.requireNonNull(\$T.\$L)",
+                OBJECTS,
+                containerImplName,
+                CONTAINER_INSTANCE_NAME
+            )
+            .add(typeConverter.buildTypeAdapterWarmUpBlock())
+            .build()
+
+        return TypeSpec.classBuilder(WARM_UP_CLASS_NAME)
+            .addJavadoc(
+                "Initializes {@link \$T} and its type adapters on a background executor.\n",
+                containerImplName
+            )
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+            .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+            .addMethods(
+                buildWarmUpMethods(
+                    containerImplName,
+                    warmUpBlock,
+                    Modifier.PUBLIC,
+                    Modifier.STATIC
+                )
+            )
+            .build()
+    }
+
+    /**
+     * Memoized method keeps the built `Uri`s in its own LRU cache, otherwise an interned
+     * method keeps weak references to them in its own interner. Every method has its own
+     * cache, so the methods with different arguments don't compete for the same capacity
+     * and the hit rate can be tracked per method.
+     */
+    private fun obtainResultCache(
         builderMetadata: BuilderMetadata,
-        method: MethodSpec.Builder
-    ) {
-        builderMetadata.pathSegments.forEach {
-            method.addCode(it.createValueBlock(typeConverter))
+        containerInterned: Interned?,
+        classContent: TypeSpec.Builder
+    ): ResultCache? {
+        val methodElement = builderMetadata.builderMethod
+        val memoized = methodElement.getAnnotation<Memoized>()
+        val interned = methodElement.getAnnotation<Interned>()
+
+        if (memoized != null) {
+            if (interned != null) {
+                logger.warn(
+                    methodElement,
+                    "@%s is ignored for @%s method",
+                    Interned::class.simpleName,
+                    Memoized::class.simpleName
+                )
+            }
+            if (memoized.capacity <= 0 || memoized.stripes <= 0) {
+                throw AbortProcessingException(
+                    logger,
+                    methodElement,
+                    message = "@${Memoized::class.simpleName} capacity and stripes must be positive"
+                )
+            }
+
+            val field = generateResultCacheField(
+                CACHE_PREFIX,
+                methodElement,
+                URI_CACHE,
+                CodeBlock.of(
+                    "new \$T<>(\$L, \$L, \$L)",
+                    URI_CACHE,
+                    memoized.capacity,
+                    memoized.stripes,
+                    memoized.recordStats
+                ),
+                classContent
+            )
+
+            return ResultCache(field, buildMemoizedKey(builderMetadata), "put")
         }
-        builderMetadata.parameters.forEach {
-            method.addCode(it.createValueBlock(typeConverter))
+
+        val maxSize = (interned ?: containerInterned)?.maxSize ?: return null
+        if (maxSize <= 0) {
+            throw AbortProcessingException(
+                logger,
+                methodElement,
+                message = "@${Interned::class.simpleName} maxSize must be positive"
+            )
         }
+
+        val field = generateResultCacheField(
+            INTERNER_PREFIX,
+            methodElement,
+            URI_INTERNER,
+            CodeBlock.of("new \$T<>(\$L)", URI_INTERNER, maxSize),
+            classContent
+        )
+
+        val cacheKey = buildPackedKey(builderMetadata.methodParameters)
+            ?: buildArgumentsKey(buildKeyArguments(builderMetadata))
+        return ResultCache(field, cacheKey, "intern")
     }
 
-    private fun appendConstantStringParams(
-        methodElement: XExecutableElement,
-        method: MethodSpec.Builder
-    ) {
-        val constParams = methodElement.getAnnotations<StringParam>()
-        for (constParam in constParams) {
-            method.addStatement(
-                "\$L.appendQueryParameter(\$S, \$S)",
-                URI_BUILDER_NAME,
-                constParam.name,
-                constParam.value
-            )
+    private fun generateResultCacheField(
+        prefix: String,
+        methodElement: XMethodElement,
+        cacheType: ClassName,
+        initializer: CodeBlock,
+        classContent: TypeSpec.Builder
+    ): FieldSpec {
+        val baseName = prefix + methodElement.name
+            .replace(CAMEL_HUMP_REGEX, "$1_$2")
+            .uppercase()
+        val existingNames = classContent.fieldSpecs.map { it.name }.toSet()
+        // overloaded builder methods get a numeric suffix
+        val fieldName = generateSequence(1) { it + 1 }
+            .map { index -> if (index == 1) baseName else "${baseName}_$index" }
+            .first { it !in existingNames }
+
+        val field = FieldSpec.builder(
+            ParameterizedTypeName.get(cacheType, uriBackend.uri),
+            fieldName,
+            Modifier.PUBLIC,
+            Modifier.STATIC,
+            Modifier.FINAL
+        ).addAnnotation(NON_NULL).initializer(initializer).build()
+
+        classContent.addField(field)
+
+        return field
+    }
+
+    /**
+     * Primitive arguments that fit in 64 bits altogether are packed into a `long` key,
+     * a single `String`, boxed primitive or `Uri` argument is used as a key as is and all
+     * the other arguments are wrapped into `UriArguments`, which copies arrays and
+     * `ByteBuffer`s before the key is stored.
+     */
+    private fun buildMemoizedKey(builderMetadata: BuilderMetadata): CodeBlock {
+        buildPackedKey(builderMetadata.methodParameters)?.let { return it }
+
+        val keyArguments = buildKeyArguments(builderMetadata)
+        val (singleType, singleArgument) = keyArguments.singleOrNull()
+            ?: return buildArgumentsKey(keyArguments)
+        if (singleType == STRING || singleType.isBoxedPrimitive || singleType.isUri) {
+            return CodeBlock.of("\$T \$L = \$L", TypeName.OBJECT, CACHE_KEY_NAME, singleArgument)
         }
+
+        return buildArgumentsKey(keyArguments)
     }
 
-    private fun appendConstantLongParams(
-        methodElement: XExecutableElement,
-        method: MethodSpec.Builder
-    ) {
-        val constParams = methodElement.getAnnotations<LongParam>()
-        for (constParam in constParams) {
-            method.addStatement(
-                "\$L.appendQueryParameter(\$S, \$T.valueOf(\$L))",
-                URI_BUILDER_NAME,
-                constParam.name,
-                STRING,
-                constParam.value
+    /**
+     * Returns the type and the expression of every argument in the cache key. An argument
+     * converted by a type adapter may be mutable or have no `equals()`, so the key keeps its
+     * serialized form instead. Arrays of such arguments are not supported.
+     */
+    private fun buildKeyArguments(
+        builderMetadata: BuilderMetadata
+    ): List<Pair<TypeName, CodeBlock>> {
+        val params = builderMetadata.methodParameters
+        return builderMetadata.parameterModels.zip(params) { model, param ->
+            val typeAdapter = model.typeAdapter
+            val type = param.type.withoutAnnotations()
+            if (typeAdapter == null) {
+                return@zip type to CodeBlock.of("\$N", param)
+            }
+            if (type is ArrayTypeName) {
+                throw AbortProcessingException(
+                    logger,
+                    model.element,
+                    message = "$type converted by $typeAdapter can't be a key of a cached Uri. " +
+                        "Remove @${Memoized::class.simpleName} or @${Interned::class.simpleName}."
+                )
+            }
+
+            val serialized = typeConverter.buildSerializeBlock(param, typeAdapter, model.element)
+            STRING to if (type.isPrimitive) {
+                serialized
+            } else {
+                CodeBlock.of("\$N != null ? \$L : null", param, serialized)
+            }
+        }
+    }
+
+    /**
+     * Packs the primitive arguments into a `long` key if they fit in 64 bits altogether,
+     * or returns `null` if there is a non-primitive argument or they don't fit.
+     */
+    private fun buildPackedKey(params: List<ParameterSpec>): CodeBlock? {
+        val packedParts = params.map { packPrimitive(it) ?: return null }
+        if (packedParts.sumOf { it.first } > Long.SIZE_BITS) {
+            return null
+        }
+
+        var offset = 0
+        val packedKey = packedParts.map { (bits, part) ->
+            val shifted = if (offset == 0) part else CodeBlock.of("(\$L << \$L)", part, offset)
+            offset += bits
+            shifted
+        }
+
+        return CodeBlock.of(
+            "long \$L = \$L",
+            CACHE_KEY_NAME,
+            if (packedKey.isEmpty()) CodeBlock.of("0L") else CodeBlock.join(packedKey, " | ")
+        )
+    }
+
+    private fun buildArgumentsKey(keyArguments: List<Pair<TypeName, CodeBlock>>): CodeBlock {
+        return CodeBlock.of(
+            "\$T \$L = \$T.of(new \$T[] {\$L})",
+            URI_ARGUMENTS,
+            CACHE_KEY_NAME,
+            URI_ARGUMENTS,
+            TypeName.OBJECT,
+            CodeBlock.join(keyArguments.map { it.second }, ", ")
+        )
+    }
+
+    /**
+     * Returns the number of bits of the primitive [param] and the expression that widens
+     * it to an unsigned `long`, or `null` if the [param] is not primitive.
+     */
+    private fun packPrimitive(param: ParameterSpec): Pair<Int, CodeBlock>? {
+        return when (param.type.withoutAnnotations()) {
+            TypeName.BOOLEAN -> 1 to CodeBlock.of("(\$N ? 1L : 0L)", param)
+            TypeName.BYTE -> Byte.SIZE_BITS to CodeBlock.of("(\$N & 0xFFL)", param)
+            TypeName.SHORT -> Short.SIZE_BITS to CodeBlock.of("(\$N & 0xFFFFL)", param)
+            TypeName.CHAR -> Char.SIZE_BITS to CodeBlock.of("((long) \$N)", param)
+            TypeName.INT -> Int.SIZE_BITS to CodeBlock.of("(\$N & 0xFFFFFFFFL)", param)
+            TypeName.FLOAT -> Float.SIZE_BITS to CodeBlock.of(
+                "(\$T.floatToIntBits(\$N) & 0xFFFFFFFFL)",
+                TypeName.FLOAT.box(),
+                param
+            )
+            TypeName.LONG -> Long.SIZE_BITS to CodeBlock.of("\$N", param)
+            TypeName.DOUBLE -> Double.SIZE_BITS to CodeBlock.of(
+                "\$T.doubleToLongBits(\$N)",
+                TypeName.DOUBLE.box(),
+                param
             )
+            else -> null
         }
     }
 
-    private fun appendConstantDoubleParams(
-        methodElement: XExecutableElement,
+    private fun appendCachedLookup(resultCache: ResultCache, method: MethodSpec.Builder) {
+        method.addStatement(resultCache.keyBlock)
+        method.addStatement(
+            "\$T \$L = \$N.get(\$L)",
+            uriBackend.uri,
+            CACHED_URI_NAME,
+            resultCache.field,
+            CACHE_KEY_NAME
+        )
+        method.beginControlFlow("if (\$L != null)", CACHED_URI_NAME)
+        method.addStatement("return \$L", CACHED_URI_NAME)
+        method.endControlFlow()
+        method.addCode("\n")
+    }
+
+    /**
+     * Fingerprint method streams exactly the same parts as the builder method does,
+     * but into `UriFingerprint` instead of `Uri.Builder`.
+     */
+    private fun generateFingerprintMethod(
+        fingerprintMetadata: BuilderMetadata,
+        scheme: String,
+        authority: String
+    ): MethodSpec {
+        val methodElement = fingerprintMetadata.builderMethod
+        val builderName = methodElement.name
+        val methodName = getFingerprintMethodName(builderName)
+
+        val method = MethodSpec.methodBuilder(methodName)
+            .addJavadoc(
+                "Returns the same value as {@code UriFingerprint.of(\$L(...).toString())}\n" +
+                        "without building the {@code Uri}. The argument values are still\n" +
+                        "converted to strings, so the method is not allocation-free.\n",
+                builderName
+            )
+            .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+            .returns(TypeName.LONG)
+            .addParameters(fingerprintMetadata.methodParameters)
+
+        method.addStatement(
+            "$1T $2L = new $1T()\n.scheme($3S)\n.encodedAuthority($4S)",
+            URI_FINGERPRINT,
+            URI_BUILDER_NAME,
+            scheme,
+            uriBackend.encodeAuthority(authority)
+        )
+
+        method.addCode("\n")
+        appendUriContent(fingerprintMetadata, method)
+        method.addCode("\n")
+
+        method.addStatement("return \$L.build()", URI_BUILDER_NAME)
+
+        return method.build()
+    }
+
+    private fun appendUriContent(
+        builderMetadata: BuilderMetadata,
         method: MethodSpec.Builder
     ) {
-        val constParams = methodElement.getAnnotations<DoubleParam>()
-        for (constParam in constParams) {
-            method.addStatement(
-                "\$L.appendQueryParameter(\$S, \$T.valueOf(\$L))",
-                URI_BUILDER_NAME,
-                constParam.name,
-                STRING,
-                constParam.value
-            )
-        }
+        appendUriBody(builderMetadata, method)
+        method.addCode(builderMetadata.queryWriter.buildCommitBlock())
     }
 
-    private fun appendConstantBooleanParams(
-        methodElement: XExecutableElement,
+    private fun appendUriBody(
+        builderMetadata: BuilderMetadata,
         method: MethodSpec.Builder
     ) {
-        val constParams = methodElement.getAnnotations<BooleanParam>()
-        for (constParam in constParams) {
-            method.addStatement(
-                "\$L.appendQueryParameter(\$S, \$T.valueOf(\$L))",
-                URI_BUILDER_NAME,
-                constParam.name,
-                STRING,
-                constParam.value
-            )
+        builderMetadata.pathSegments.forEach {
+            method.addCode(it.createValueBlock(typeConverter))
+        }
+        method.addCode(builderMetadata.queryWriter.buildPrepareBlock())
+        builderMetadata.parameters.forEach {
+            method.addCode(it.createValueBlock(typeConverter))
         }
     }
 
     private data class BuilderMetadata(
         val builderMethod: XMethodElement,
         val methodParameters: List<ParameterSpec>,
+        val parameterModels: List<UriParameterModel>,
         val pathSegments: List<PathSegment>,
-        val parameters: List<QueryParameter>
+        val parameters: List<QueryParameter>,
+        val queryWriter: QueryWriter,
+        val fingerprint: BuilderMetadata? = null
+    )
+
+    private data class MethodSignature(val name: String, val parameterTypes: List<TypeName>)
+
+    private class ResultCache(
+        val field: FieldSpec,
+        val keyBlock: CodeBlock,
+        val storeMethodName: String
     )
 
     companion object {
         const val CONTAINER_IMPL_SUFFIX = "Impl"
+        const val CONTAINER_INSTANCE_NAME = "INSTANCE"
         private const val URI_BUILDER_NAME = "builder"
-
-        private val PATH_TEMPLATE_REGEX = "^\\{([a-zA-Z0-9_-]+)}$".toRegex()
+        private const val BUILDER_PREFIX = "build"
+        private const val FINGERPRINT_PREFIX = "fingerprint"
+        private const val INTERNER_PREFIX = "INTERNER_"
+        private const val CACHE_PREFIX = "CACHE_"
+        private const val CACHE_KEY_NAME = "cacheKey"
+        private const val CACHED_URI_NAME = "cachedUri"
+        private const val WARM_UP_CLASS_NAME = "WarmUp"
+
+        private val BUILDER_NAME_REGEX = "^$BUILDER_PREFIX[A-Z].*$".toRegex()
+        private val CAMEL_HUMP_REGEX = "([a-z0-9])([A-Z])".toRegex()
 
         fun create(session: ProcessingSession): UriFactoryGeneratorStep {
             return UriFactoryGeneratorStep(
@@ -18,17 +18,15 @@ package boringyuri.processor.common.steps
 
 import androidx.room.compiler.processing.ExperimentalProcessingApi
 import androidx.room.compiler.processing.XElement
-import androidx.room.compiler.processing.XExecutableElement
 import androidx.room.compiler.processing.XFiler
 import androidx.room.compiler.processing.XMethodElement
 import androidx.room.compiler.processing.XProcessingEnv
 import androidx.room.compiler.processing.XTypeElement
-import androidx.room.compiler.processing.addOriginatingElement
 import androidx.room.compiler.processing.isMethod
 import androidx.room.compiler.processing.isTypeElement
-import boringyuri.api.Path
 import boringyuri.api.UriBuilder
 import boringyuri.api.UriFactory
+import boringyuri.api.ValueFormat
 import boringyuri.api.matcher.MatcherCode
 import boringyuri.api.matcher.MatchesTo
 import boringyuri.api.matcher.WithUriMatcher
@@ -37,13 +35,15 @@ import boringyuri.processor.common.base.BoringProcessingStep
 import boringyuri.processor.common.base.ProcessingSession
 import boringyuri.processor.common.ext.getAnnotation
 import boringyuri.processor.common.ext.requireAnnotation
-import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI
-import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI_MATCHER
+import boringyuri.processor.common.steps.ProcessorOptions.getUriBackend
+import boringyuri.processor.common.steps.model.UriMethodModel
 import boringyuri.processor.common.steps.type.CommonTypeName.NON_NULL
-import boringyuri.processor.common.steps.type.CommonTypeName.OVERRIDE
 import boringyuri.processor.common.steps.type.CommonTypeName.STRING
-import boringyuri.processor.common.steps.type.CommonTypeName.UNSUPPORTED_OPERATION
+import boringyuri.processor.common.steps.type.CommonTypeName.URI_ROUTE_INDEX
+import boringyuri.processor.common.steps.util.addLazyUriMatcherMembers
+import com.squareup.javapoet.AnnotationSpec
 import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
 import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.ParameterSpec
@@ -61,6 +61,8 @@ class UriMatcherGeneratorStep(
      */
     private val deferredElements = hashSetOf<XElement>()
 
+    private val uriBackend = getUriBackend(session)
+
     private var matcherCodeCounter = 0
 
     override fun annotations(): Set<String> {
@@ -118,7 +120,7 @@ class UriMatcherGeneratorStep(
             logger.warn(
                 factory,
                 "%s can be created only for a valid @%s",
-                ANDROID_URI_MATCHER.simpleName(),
+                uriBackend.uriMatcher.simpleName(),
                 UriFactory::class.simpleName
             )
             return null // early exit
@@ -161,13 +163,14 @@ class UriMatcherGeneratorStep(
                 )
             }
 
-            val parameters = obtainPathParameters(method)
-            val pathTemplate = obtainMatcherPathTemplate(uriBuilderAnnotation, parameters)
+            val model = UriMethodModel.obtain(session, method, uriBuilderAnnotation)
+            val parameters = obtainPathParameters(model)
+            val pathTemplate = obtainMatcherPathTemplate(model, parameters)
             if (pathTemplate.isEmpty()) {
                 logger.warn(
                     method,
                     "%s path template can't be built for '%s'",
-                    ANDROID_URI_MATCHER.simpleName(),
+                    uriBackend.uriMatcher.simpleName(),
                     uriBuilderAnnotation.value
                 )
             } else {
@@ -221,54 +224,74 @@ class UriMatcherGeneratorStep(
         session.fileWriter.writeSourceFile(
             metadata.matcherClassName,
             matcherContent,
-            XFiler.Mode.Isolating
+            XFiler.Mode.Isolating,
+            listOf(factory)
+        )
+
+        val routeIndexName = getRouteIndexName(metadata.matcherClassName)
+        session.fileWriter.writeSourceFile(
+            routeIndexName,
+            generateRouteIndexContent(routeIndexName, metadata),
+            XFiler.Mode.Isolating,
+            listOf(factory)
         )
     }
 
-    private fun obtainMatcherClassName(factory: XTypeElement): ClassName {
-        val withUriMatcherAnnotation = factory.requireAnnotation<WithUriMatcher>()
-        val matcherName = withUriMatcherAnnotation.value
-
-        return if (matcherName.isEmpty()) {
-            val packageName = factory.packageName
-            val simpleName = factory.name + DEFAULT_MATCHER_SUFFIX
-
-            ClassName.get(packageName, simpleName)
-        } else {
-            ClassName.bestGuess(matcherName).takeIf {
-                it.packageName().isNotEmpty()
-            } ?: ClassName.get(
-                factory.packageName,
-                matcherName
+    /**
+     * The route index is an empty class in a well-known package, so [UriRouterGeneratorStep]
+     * can find the indexes of all the modules on the classpath without scanning them.
+     */
+    private fun generateRouteIndexContent(
+        routeIndexName: ClassName,
+        metadata: UriMatcherMetadata
+    ): TypeSpec {
+        val enabledMappings = metadata.pathMappings.filter { (_, code) -> code.enabled }
+        val paths = enabledMappings.map { (path, _) -> CodeBlock.of("\$S", path) }
+        val codes = enabledMappings.map { (_, code) -> CodeBlock.of("\$L", code.code) }
+
+        val routeIndexAnnotation = AnnotationSpec.builder(URI_ROUTE_INDEX)
+            .addMember("matcher", "\$S", metadata.matcherClassName.canonicalName())
+            .addMember("authority", "\$S", metadata.authority)
+            .addMember("paths", "{\$L}", CodeBlock.join(paths, ", "))
+            .addMember("codes", "{\$L}", CodeBlock.join(codes, ", "))
+            .build()
+
+        return TypeSpec.classBuilder(routeIndexName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .addAnnotation(routeIndexAnnotation)
+            .addMethod(
+                MethodSpec.constructorBuilder()
+                    .addModifiers(Modifier.PRIVATE)
+                    .build()
             )
-        }
+            .build()
     }
 
-    private fun obtainPathParameters(method: XExecutableElement): Map<String, TypeName> {
-        return method.parameters.mapNotNull {
-            val pathAnnotation = it.getAnnotation<Path>() ?: return@mapNotNull null
+    private fun obtainPathParameters(model: UriMethodModel): Map<String, TypeName> {
+        return model.parameters.mapNotNull {
+            val pathAnnotation = it.path ?: return@mapNotNull null
+            val segmentName = checkNotNull(it.pathName)
 
-            val segmentName = pathAnnotation.value.ifEmpty {
-                it.name
-            }
-            segmentName to it.type.typeName
+            // numbers in a compact format contain letters and can't be matched with '#'
+            val segmentType = it.element.type.typeName.takeIf {
+                pathAnnotation.format == ValueFormat.DEFAULT
+            } ?: STRING
+
+            segmentName to segmentType
         }.associate { it }
     }
 
     private fun obtainMatcherPathTemplate(
-        builderAnnotation: UriBuilder,
+        model: UriMethodModel,
         parameters: Map<String, TypeName>
     ): String {
-        return builderAnnotation.value
-            .split(PATH_SEPARATOR)
-            .filter { it.isNotEmpty() }
-            .joinToString(separator = PATH_SEPARATOR) {
-                val template = PATH_TEMPLATE_REGEX.find(it)?.run { groupValues[1] }
-
-                if (template != null) {
-                    if (isNumber(parameters[template])) WILDCARD_NUMBER else WILDCARD_ANY
-                } else it
-            }
+        return model.pathParts.joinToString(separator = PATH_SEPARATOR) { part ->
+            val template = part.template
+
+            if (template != null) {
+                if (isNumber(parameters[template])) WILDCARD_NUMBER else WILDCARD_ANY
+            } else part.value
+        }
     }
 
     private fun obtainMatcherCodeFieldName(
@@ -285,39 +308,18 @@ class UriMatcherGeneratorStep(
     ): TypeSpec {
         val uriMatcherContent = TypeSpec.classBuilder(metadata.matcherClassName)
             .addModifiers(Modifier.PUBLIC)
-            .superclass(ANDROID_URI_MATCHER)
-
-        val initMatcherMethod = generateInitMatcher(metadata)
-        val isInitializedField = FieldSpec.builder(
-            TypeName.BOOLEAN,
-            "mIsInitialized",
-            Modifier.PRIVATE,
-            Modifier.VOLATILE
-        ).initializer("\$L", false).build()
-        val ensureInitializedMethod = generateEnsureInitialized(
-            initMatcherMethod,
-            isInitializedField
-        )
+            .superclass(uriBackend.uriMatcher)
 
-        uriMatcherContent.addField(isInitializedField)
-        uriMatcherContent.addMethod(
-            MethodSpec.constructorBuilder()
-                .addModifiers(Modifier.PUBLIC)
-                .addStatement("super(NO_MATCH)")
-                .build()
+        uriMatcherContent.addLazyUriMatcherMembers(
+            metadata.matcherClassName,
+            uriBackend,
+            generateInitMatcher(metadata)
         )
 
-        uriMatcherContent.addMethod(generateAddUri())
-        uriMatcherContent.addMethod(generateMatch(ensureInitializedMethod))
-        uriMatcherContent.addMethod(ensureInitializedMethod)
-        uriMatcherContent.addMethod(initMatcherMethod)
-
         if (metadata.matcherCodes.isNotEmpty()) {
             uriMatcherContent.addType(generateMatcherCodeClass(metadata))
         }
 
-        uriMatcherContent.addOriginatingElement(factory)
-
         return uriMatcherContent.build()
     }
 
@@ -371,62 +373,6 @@ class UriMatcherGeneratorStep(
         return method.build()
     }
 
-    private fun generateAddUri(): MethodSpec {
-        val method = MethodSpec.methodBuilder("addURI")
-            .addModifiers(Modifier.PUBLIC)
-            .addAnnotation(OVERRIDE)
-            .addParameter(STRING, "authority")
-            .addParameter(STRING, "path")
-            .addParameter(TypeName.INT, "code")
-
-        method.addStatement(
-            "throw new \$T(\$S)",
-            UNSUPPORTED_OPERATION,
-            "Adding new URIs to this matcher is not supported."
-        )
-        return method.build()
-    }
-
-    private fun generateMatch(ensureInitialized: MethodSpec): MethodSpec {
-        val methodName = "match"
-        val uriParamName = "uri"
-        val method = MethodSpec.methodBuilder(methodName)
-            .addModifiers(Modifier.PUBLIC)
-            .addAnnotation(OVERRIDE)
-            .addParameter(
-                ParameterSpec.builder(
-                    ANDROID_URI,
-                    uriParamName
-                ).addAnnotation(NON_NULL).build()
-            )
-            .returns(TypeName.INT)
-
-        method.addStatement("\$N()", ensureInitialized)
-        method.addCode("\n")
-        method.addStatement("return super.\$L(\$L)", methodName, uriParamName)
-
-        return method.build()
-    }
-
-    private fun generateEnsureInitialized(
-        initMatcher: MethodSpec,
-        isInitialized: FieldSpec
-    ): MethodSpec {
-        val method = MethodSpec.methodBuilder("ensureInitialized")
-            .addModifiers(Modifier.PRIVATE)
-
-        method.beginControlFlow("if (!\$N)", isInitialized)
-        method.beginControlFlow("synchronized(this)")
-        method.beginControlFlow("if (!\$N)", isInitialized)
-        method.addStatement("\$N()", initMatcher)
-        method.addStatement("\$N = \$L", isInitialized, true)
-        method.endControlFlow()
-        method.endControlFlow()
-        method.endControlFlow()
-
-        return method.build()
-    }
-
     private fun generateMatcherCodeToString(
         matcherCodes: Collection<MatcherCodeMetadata>
     ): MethodSpec {
@@ -493,8 +439,38 @@ class UriMatcherGeneratorStep(
         private const val WILDCARD_ANY = "*"
         private const val WILDCARD_NUMBER = "#"
 
-        private val PATH_TEMPLATE_REGEX = "^\\{([a-zA-Z0-9_-]+)}$".toRegex()
         private val FIELD_NAME_REGEX = "^[a-zA-Z_][a-zA-Z0-9_]*$".toRegex()
+
+        /**
+         * Package of the generated route indexes shared by all the modules.
+         */
+        const val ROUTE_INDEX_PACKAGE = "boringyuri.routes"
+
+        fun obtainMatcherClassName(factory: XTypeElement): ClassName {
+            val withUriMatcherAnnotation = factory.requireAnnotation<WithUriMatcher>()
+            val matcherName = withUriMatcherAnnotation.value
+
+            return if (matcherName.isEmpty()) {
+                val packageName = factory.packageName
+                val simpleName = factory.name + DEFAULT_MATCHER_SUFFIX
+
+                ClassName.get(packageName, simpleName)
+            } else {
+                ClassName.bestGuess(matcherName).takeIf {
+                    it.packageName().isNotEmpty()
+                } ?: ClassName.get(
+                    factory.packageName,
+                    matcherName
+                )
+            }
+        }
+
+        fun getRouteIndexName(matcherClassName: ClassName): ClassName {
+            return ClassName.get(
+                ROUTE_INDEX_PACKAGE,
+                matcherClassName.canonicalName().replace('.', '_')
+            )
+        }
     }
 }
 
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.processor.common.steps
+
+import androidx.room.compiler.processing.ExperimentalProcessingApi
+import androidx.room.compiler.processing.XElement
+import androidx.room.compiler.processing.XFiler
+import androidx.room.compiler.processing.XProcessingEnv
+import androidx.room.compiler.processing.XTypeElement
+import androidx.room.compiler.processing.isTypeElement
+import boringyuri.api.UriFactory
+import boringyuri.api.matcher.UriRouteIndex
+import boringyuri.api.matcher.UriRouter
+import boringyuri.api.matcher.WithUriMatcher
+import boringyuri.processor.common.base.BoringProcessingStep
+import boringyuri.processor.common.base.ProcessingSession
+import boringyuri.processor.common.ext.getAnnotation
+import boringyuri.processor.common.ext.requireAnnotation
+import boringyuri.processor.common.steps.ProcessorOptions.getUriBackend
+import boringyuri.processor.common.steps.UriMatcherGeneratorStep.Companion.ROUTE_INDEX_PACKAGE
+import boringyuri.processor.common.steps.UriMatcherGeneratorStep.Companion.getRouteIndexName
+import boringyuri.processor.common.steps.UriMatcherGeneratorStep.Companion.obtainMatcherClassName
+import boringyuri.processor.common.steps.type.CommonTypeName.NON_NULL
+import boringyuri.processor.common.steps.type.CommonTypeName.NULLABLE
+import boringyuri.processor.common.steps.type.CommonTypeName.URI_ROUTE
+import boringyuri.processor.common.steps.util.addLazyUriMatcherMembers
+import com.squareup.javapoet.ArrayTypeName
+import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.TypeSpec
+import javax.lang.model.element.Modifier
+
+/**
+ * Generates a global router for the types annotated with [UriRouter]. The router merges
+ * the route indexes of all the matchers found on the classpath and in the current module
+ * into a single `UriMatcher`, so a `Uri` is resolved with one lookup by authority and path.
+ */
+@OptIn(ExperimentalProcessingApi::class)
+class UriRouterGeneratorStep(
+    session: ProcessingSession
+) : BoringProcessingStep(session) {
+
+    private val deferredRouterNames = mutableSetOf<String>()
+
+    private val uriBackend = getUriBackend(session)
+
+    private var isRouterGenerated = false
+
+    override fun annotations(): Set<String> {
+        return setOf(UriRouter::class.java.name, WithUriMatcher::class.java.name)
+    }
+
+    @Deprecated(
+        "We're combining processOver() and this process() overload.",
+        replaceWith = ReplaceWith("process(XProcessingEnv, Map<String, Set<XElement>>, Boolean)"),
+        level = DeprecationLevel.WARNING
+    )
+    override fun process(
+        env: XProcessingEnv,
+        elementsByAnnotation: Map<String, Set<XElement>>
+    ): Set<XElement> {
+        val routers = obtainTypeElements(elementsByAnnotation, UriRouter::class.java.name)
+        val factories = obtainTypeElements(elementsByAnnotation, WithUriMatcher::class.java.name)
+            .filter { it.getAnnotation<UriFactory>() != null }
+
+        // the route index of a matcher is generated together with the matcher,
+        // so we get back to the factory and the routers in the next processing round.
+        val deferredFactories = factories.filter {
+            val routeIndexName = getRouteIndexName(obtainMatcherClassName(it))
+            session.processingEnv.findTypeElement(routeIndexName) == null
+        }
+        if (deferredFactories.isNotEmpty()) {
+            deferredRouterNames += routers.map { it.qualifiedName }
+            return (deferredFactories + routers).toSet()
+        }
+
+        if (isRouterGenerated && factories.isNotEmpty()) {
+            logger.warn(
+                factories.first(),
+                "Some of the matchers are generated after the @%s and are not routed: %s",
+                UriRouter::class.simpleName,
+                factories.map { obtainMatcherClassName(it) }
+            )
+        }
+
+        if (routers.isNotEmpty()) {
+            val routeIndexes = env.getTypeElementsFromPackage(ROUTE_INDEX_PACKAGE)
+                .filter { it.getAnnotation<UriRouteIndex>() != null }
+                .sortedBy { it.qualifiedName }
+
+            for (router in routers) {
+                deferredRouterNames.remove(router.qualifiedName)
+                generateUriRouter(router, routeIndexes)
+            }
+            isRouterGenerated = true
+        }
+
+        return emptySet()
+    }
+
+    override fun onProcessingOver() {
+        if (deferredRouterNames.isNotEmpty()) {
+            logger.warn(
+                e = null,
+                "Some of the Uri routers were not generated: $deferredRouterNames"
+            )
+        }
+        deferredRouterNames.clear()
+        isRouterGenerated = false
+    }
+
+    private fun obtainTypeElements(
+        elementsByAnnotation: Map<String, Set<XElement>>,
+        annotationName: String
+    ): List<XTypeElement> {
+        return elementsByAnnotation[annotationName]
+            ?.filter { it.isTypeElement() }
+            ?.mapNotNull { it as? XTypeElement }
+            ?: emptyList()
+    }
+
+    private fun generateUriRouter(router: XTypeElement, routeIndexes: List<XTypeElement>) {
+        val routerClassName = obtainRouterClassName(router)
+        val routes = obtainRoutes(router, routeIndexes)
+
+        val routesField = FieldSpec.builder(
+            ArrayTypeName.of(URI_ROUTE),
+            "ROUTES",
+            Modifier.PRIVATE,
+            Modifier.STATIC,
+            Modifier.FINAL
+        ).initializer(
+            "{\$L}",
+            CodeBlock.join(
+                routes.map { CodeBlock.of("\n\$L", it.toRouteInstance()) },
+                ","
+            )
+        ).build()
+
+        val routerContent = TypeSpec.classBuilder(routerClassName)
+            .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+            .superclass(uriBackend.uriMatcher)
+            .addField(routesField)
+            .addLazyUriMatcherMembers(routerClassName, uriBackend, generateInitMatcher(routes))
+            .addMethod(generateRoute(routesField))
+
+        session.fileWriter.writeSourceFile(
+            routerClassName,
+            routerContent.build(),
+            XFiler.Mode.Aggregating,
+            listOf(router) + routeIndexes
+        )
+    }
+
+    /**
+     * Every route gets a global matcher code which is its index in the routes array.
+     * A path that is already registered for the same authority is skipped because
+     * a `UriMatcher` keeps only one code per path.
+     */
+    private fun obtainRoutes(router: XTypeElement, routeIndexes: List<XTypeElement>): List<Route> {
+        val routes = linkedMapOf<Pair<String, String>, Route>()
+
+        for (routeIndex in routeIndexes) {
+            val index = routeIndex.requireAnnotation<UriRouteIndex>()
+            val matcherClassName = ClassName.bestGuess(index.matcher)
+
+            if (index.paths.size != index.codes.size) {
+                logger.warn(router, "Route index of %s is malformed", matcherClassName)
+                continue
+            }
+
+            index.paths.forEachIndexed { i, path ->
+                val key = index.authority to path
+                val existing = routes[key]
+                if (existing == null) {
+                    routes[key] = Route(index.authority, path, matcherClassName, index.codes[i])
+                } else {
+                    logger.warn(
+                        router,
+                        "'%s/%s' of %s is already routed to %s",
+                        index.authority,
+                        path,
+                        matcherClassName,
+                        existing.matcher
+                    )
+                }
+            }
+        }
+
+        return routes.values.toList()
+    }
+
+    private fun obtainRouterClassName(router: XTypeElement): ClassName {
+        val routerName = router.requireAnnotation<UriRouter>().value
+
+        return if (routerName.isEmpty()) {
+            ClassName.get(router.packageName, router.name + DEFAULT_ROUTER_SUFFIX)
+        } else {
+            ClassName.bestGuess(routerName).takeIf {
+                it.packageName().isNotEmpty()
+            } ?: ClassName.get(router.packageName, routerName)
+        }
+    }
+
+    private fun generateInitMatcher(routes: List<Route>): MethodSpec {
+        val method = MethodSpec.methodBuilder("initMatcher")
+            .addModifiers(Modifier.PRIVATE)
+
+        routes.forEachIndexed { globalCode, route ->
+            method.addStatement(
+                "super.addURI(\$S, \$S, \$L)",
+                route.authority,
+                route.path,
+                globalCode
+            )
+        }
+
+        return method.build()
+    }
+
+    private fun generateRoute(routesField: FieldSpec): MethodSpec {
+        val uriParam = ParameterSpec.builder(uriBackend.uri, "uri")
+            .addAnnotation(NON_NULL)
+            .build()
+
+        val method = MethodSpec.methodBuilder("route")
+            .addModifiers(Modifier.PUBLIC)
+            .addAnnotation(NULLABLE)
+            .addParameter(uriParam)
+            .returns(URI_ROUTE)
+
+        method.addStatement("int code = match(\$N)", uriParam)
+        method.addStatement("return code != NO_MATCH ? \$N[code] : null", routesField)
+
+        return method.build()
+    }
+
+    private class Route(
+        val authority: String,
+        val path: String,
+        val matcher: ClassName,
+        val code: Int
+    ) {
+
+        fun toRouteInstance(): CodeBlock {
+            return CodeBlock.of("new \$T(\$T.class, \$L)", URI_ROUTE, matcher, code)
+        }
+    }
+
+    companion object {
+        private const val DEFAULT_ROUTER_SUFFIX = "_UriRouter"
+    }
+}
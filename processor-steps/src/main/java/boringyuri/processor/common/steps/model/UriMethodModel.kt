@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.processor.common.steps.model
+
+import androidx.room.compiler.processing.XMethodElement
+import androidx.room.compiler.processing.XType
+import androidx.room.compiler.processing.XVariableElement
+import boringyuri.api.DefaultValue
+import boringyuri.api.Flag
+import boringyuri.api.Param
+import boringyuri.api.Path
+import boringyuri.api.UriBuilder
+import boringyuri.processor.common.base.ProcessingSession
+import boringyuri.processor.common.ext.getAnnotation
+import boringyuri.processor.common.steps.ext.findTypeAdapter
+
+/**
+ * Intermediate representation of a method annotated with [UriBuilder].
+ *
+ * The model is built once per round for every method and shared by all the
+ * processing steps, so the base path is parsed and the parameter annotations
+ * and type adapters are resolved only once.
+ */
+class UriMethodModel private constructor(
+    val method: XMethodElement,
+    val builder: UriBuilder,
+    val pathParts: List<UriPathPart>,
+    val parameters: List<UriParameterModel>
+) {
+
+    val basePath: String
+        get() = builder.value
+
+    companion object {
+
+        /**
+         * Returns the model of the [method] shared within the current round.
+         */
+        fun obtain(
+            session: ProcessingSession,
+            method: XMethodElement,
+            builder: UriBuilder
+        ): UriMethodModel {
+            return session.getOrCompute(ModelKey(method)) {
+                UriMethodModel(
+                    method,
+                    builder,
+                    UriPathPart.parse(builder.value),
+                    method.parameters.map { UriParameterModel(it) }
+                )
+            }
+        }
+    }
+
+    private data class ModelKey(val method: XMethodElement)
+}
+
+/**
+ * A non-empty segment of a base path. [template] is the name of the substitute
+ * if the segment is a `{template}`, otherwise it is `null`.
+ */
+class UriPathPart(
+    val index: Int,
+    val value: String,
+    val template: String?
+) {
+
+    companion object {
+        private const val PATH_SEPARATOR = "/"
+
+        private val PATH_TEMPLATE_REGEX = "^\\{([a-zA-Z0-9_-]+)}$".toRegex()
+
+        fun parse(basePath: String): List<UriPathPart> {
+            if (basePath.isEmpty()) {
+                return emptyList() // early exit
+            }
+
+            return basePath
+                .split(PATH_SEPARATOR)
+                .filter { it.isNotEmpty() }
+                .mapIndexed { index, segment ->
+                    val template = PATH_TEMPLATE_REGEX.find(segment)?.run { groupValues[1] }
+
+                    UriPathPart(index, segment, template)
+                }
+        }
+    }
+}
+
+/**
+ * Parameter of a [UriBuilder] method with all the annotations resolved.
+ */
+class UriParameterModel(val element: XVariableElement) {
+
+    val name: String = element.name
+
+    val path: Path? = element.getAnnotation<Path>()
+
+    val param: Param? = element.getAnnotation<Param>()
+
+    val flag: Flag? = element.getAnnotation<Flag>()
+
+    val defaultValue: String? = element.getAnnotation<DefaultValue>()?.value
+
+    /**
+     * Name of the path segment template if the parameter is a [Path].
+     */
+    val pathName: String? = path?.value?.ifEmpty { name }
+
+    /**
+     * Name of the query parameter if the parameter is a [Param].
+     */
+    val queryName: String? = param?.value?.ifEmpty { name }
+
+    val typeAdapter: XType? by lazy(LazyThreadSafetyMode.NONE) { element.findTypeAdapter() }
+}
@@ -18,7 +18,19 @@ package boringyuri.processor.common.steps.type
 
 import androidx.annotation.NonNull
 import androidx.annotation.Nullable
+import boringyuri.api.WarmUpListener
 import boringyuri.api.adapter.BoringTypeAdapter
+import boringyuri.api.codec.Base64Url
+import boringyuri.api.codec.NumberCodec
+import boringyuri.api.codec.UriCompression
+import boringyuri.api.matcher.UriRoute
+import boringyuri.api.matcher.UriRouteIndex
+import boringyuri.api.uri.UriArguments
+import boringyuri.api.uri.UriCache
+import boringyuri.api.uri.UriFingerprint
+import boringyuri.api.uri.UriInterner
+import boringyuri.api.uri.UriString
+import com.squareup.javapoet.ArrayTypeName
 import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.ParameterizedTypeName
 import com.squareup.javapoet.TypeName
@@ -37,6 +49,10 @@ object CommonTypeName {
 
     val STRING: ClassName = ClassName.get(String::class.java)
 
+    val CHAR_SEQUENCE: ClassName = ClassName.get(CharSequence::class.java)
+
+    val STRING_BUILDER: ClassName = ClassName.get(StringBuilder::class.java)
+
     val OVERRIDE: ClassName = ClassName.get(Override::class.java)
 
     var UNSUPPORTED_OPERATION: ClassName = ClassName.get(UnsupportedOperationException::class.java)
@@ -45,14 +61,60 @@ object CommonTypeName {
 
     val HASH_MAP: ClassName = ClassName.get(HashMap::class.java)
 
+    val ARRAY_LIST: ClassName = ClassName.get(ArrayList::class.java)
+
+    val COLLECTIONS: ClassName = ClassName.get(java.util.Collections::class.java)
+
+    val ARRAYS: ClassName = ClassName.get(java.util.Arrays::class.java)
+
+    val THREAD_LOCAL: ClassName = ClassName.get(ThreadLocal::class.java)
+
     val CLASS: ClassName = ClassName.get(Class::class.java)
 
+    val BYTE_ARRAY: ArrayTypeName = ArrayTypeName.of(TypeName.BYTE)
+
+    val BYTE_BUFFER: ClassName = ClassName.get(java.nio.ByteBuffer::class.java)
+
+    val BASE64_URL: ClassName = ClassName.get(Base64Url::class.java)
+
+    val NUMBER_CODEC: ClassName = ClassName.get(NumberCodec::class.java)
+
+    val URI_COMPRESSION: ClassName = ClassName.get(UriCompression::class.java)
+
+    val URI_STRING: ClassName = ClassName.get(UriString::class.java)
+
+    val URI_FINGERPRINT: ClassName = ClassName.get(UriFingerprint::class.java)
+
+    val URI_INTERNER: ClassName = ClassName.get(UriInterner::class.java)
+
+    val URI_ARGUMENTS: ClassName = ClassName.get(UriArguments::class.java)
+
+    val URI_CACHE: ClassName = ClassName.get(UriCache::class.java)
+
+    val URI_ROUTE: ClassName = ClassName.get(UriRoute::class.java)
+
+    val URI_ROUTE_INDEX: ClassName = ClassName.get(UriRouteIndex::class.java)
+
+    val WARM_UP_LISTENER: ClassName = ClassName.get(WarmUpListener::class.java)
+
+    val EXECUTOR: ClassName = ClassName.get(java.util.concurrent.Executor::class.java)
+
+    val RUNNABLE: ClassName = ClassName.get(Runnable::class.java)
+
+    val OBJECTS: ClassName = ClassName.get(java.util.Objects::class.java)
+
     val ANDROID_URI: ClassName = ClassName.get("android.net", "Uri")
 
     var ANDROID_URI_MATCHER: ClassName = ClassName.get("android.content", "UriMatcher")
 
     val ANDROID_URI_BUILDER: ClassName = ANDROID_URI.nestedClass("Builder")
 
+    val JVM_URI: ClassName = ClassName.get("boringyuri.jvm", "Uri")
+
+    val JVM_URI_MATCHER: ClassName = ClassName.get("boringyuri.jvm", "UriMatcher")
+
+    val JVM_URI_BUILDER: ClassName = JVM_URI.nestedClass("Builder")
+
     private var TYPE_ADAPTER: ClassName = ClassName.get(BoringTypeAdapter::class.java)
 
     val ANY_TYPE_ADAPTER: ParameterizedTypeName = ParameterizedTypeName.get(
@@ -18,7 +18,11 @@ package boringyuri.processor.common.steps.type
 import androidx.room.compiler.processing.XArrayType
 import androidx.room.compiler.processing.XElement
 import androidx.room.compiler.processing.XType
+import boringyuri.api.Compressed
+import boringyuri.api.ValueFormat
+import boringyuri.processor.common.ext.getAnnotation
 import boringyuri.processor.common.steps.util.Counter
+import boringyuri.processor.common.steps.util.encodeUriComponent
 import boringyuri.processor.common.visitor.AbstractTypeVisitor
 import boringyuri.processor.common.visitor.TypeVisitor
 import boringyuri.processor.common.visitor.accept
@@ -34,19 +38,60 @@ object ConversionStrategyFactory {
         type: XType,
         typeAdapter: XType?,
         typeConverter: TypeConverter,
-        originatingElement: XElement
+        originatingElement: XElement,
+        encoded: Boolean = false,
+        format: ValueFormat = ValueFormat.DEFAULT
     ): QueryConversionStrategy {
         val componentType = type.accept(ComponentTypeVisitor(), null)
+            ?.takeUnless { isBinaryQuery(type, typeAdapter, format) }
+
+        val valueType = componentType ?: type
+        if (typeAdapter == null) {
+            typeConverter.checkFormat(valueType.typeName, format, originatingElement)
+        }
+
+        val compressThreshold = originatingElement.getAnnotation<Compressed>()?.threshold
+        if (compressThreshold != null) {
+            typeConverter.checkCompression(valueType.typeName, typeAdapter, originatingElement)
+        }
 
         return if (componentType != null) {
             ArrayQueryConversionStrategy(
                 componentType,
                 typeAdapter,
                 typeConverter,
-                originatingElement
+                originatingElement,
+                encoded,
+                format,
+                compressThreshold
             )
         } else {
-            DefaultQueryConversionStrategy(typeAdapter, typeConverter, originatingElement)
+            DefaultQueryConversionStrategy(
+                type.typeName,
+                typeAdapter,
+                typeConverter,
+                originatingElement,
+                encoded,
+                format,
+                compressThreshold
+            )
+        }
+    }
+
+    /**
+     * Checks if the value is written to the query as a single url safe base64 string.
+     * `byte[]` keeps one query parameter per array element unless [ValueFormat.BASE64_URL]
+     * is requested explicitly.
+     */
+    fun isBinaryQuery(type: XType, typeAdapter: XType?, format: ValueFormat): Boolean {
+        if (typeAdapter != null) {
+            return false
+        }
+
+        return when (type.typeName) {
+            CommonTypeName.BYTE_BUFFER -> true
+            CommonTypeName.BYTE_ARRAY -> format == ValueFormat.BASE64_URL
+            else -> false
         }
     }
 }
@@ -54,7 +99,7 @@ object ConversionStrategyFactory {
 interface QueryConversionStrategy {
 
     fun buildSerializeBlock(
-        builderName: String,
+        queryWriter: QueryWriter,
         paramName: String,
         methodParam: ParameterSpec
     ): CodeBlock
@@ -73,38 +118,59 @@ interface QueryConversionStrategy {
 }
 
 private class DefaultQueryConversionStrategy(
+    private val typeName: TypeName,
     private val typeAdapter: XType?,
     private val typeConverter: TypeConverter,
-    private val originatingElement: XElement
+    private val originatingElement: XElement,
+    private val encoded: Boolean,
+    private val format: ValueFormat,
+    private val compressThreshold: Int?
 ) : QueryConversionStrategy {
 
     private val deserializeVariableName = "queryParam"
 
     override fun buildSerializeBlock(
-        builderName: String,
+        queryWriter: QueryWriter,
         paramName: String,
         methodParam: ParameterSpec
     ): CodeBlock {
-        return CodeBlock.builder()
-            .addStatement(
-                "\$L.appendQueryParameter(\$S, \$L)",
-                builderName,
-                paramName,
-                typeConverter.buildSerializeBlock(methodParam, typeAdapter, originatingElement)
-            ).build()
+        if (typeAdapter == null && typeName.isBinary) {
+            return queryWriter.buildAppendBinaryBlock(paramName, CodeBlock.of("\$N", methodParam))
+        }
+
+        return queryWriter.buildAppendBlock(
+            paramName,
+            typeConverter.buildSerializeBlock(
+                methodParam,
+                typeAdapter,
+                originatingElement,
+                format
+            ).compressed(compressThreshold),
+            encoded
+        )
     }
 
     override fun buildReadRawParameterBlock(
         paramName: String,
         uriField: FieldSpec
     ): CodeBlock {
+        val rawValueBlock = if (encoded) {
+            CodeBlock.of(
+                "\$N(\$N.getEncodedQuery(), \$S)",
+                EncodedQueryReader.FIND_PARAMETER,
+                uriField,
+                encodeUriComponent(paramName)
+            )
+        } else {
+            CodeBlock.of("\$N.getQueryParameter(\$S)", uriField, paramName)
+        }
+
         return CodeBlock.builder()
             .addStatement(
-                "\$T \$L = \$N.getQueryParameter(\$S)",
+                "\$T \$L = \$L",
                 CommonTypeName.STRING,
                 deserializeVariableName,
-                uriField,
-                paramName
+                rawValueBlock.decompressed(compressThreshold)
             ).build()
     }
 
@@ -154,7 +220,8 @@ private class DefaultQueryConversionStrategy(
                 paramField,
                 nullable,
                 defaultValue,
-                originatingElement
+                originatingElement,
+                format
             )
         }
     }
@@ -164,13 +231,16 @@ private class ArrayQueryConversionStrategy(
     private val componentType: XType,
     private val typeAdapter: XType?,
     private val typeConverter: TypeConverter,
-    private val originatingElement: XElement
+    private val originatingElement: XElement,
+    private val encoded: Boolean,
+    private val format: ValueFormat,
+    private val compressThreshold: Int?
 ) : QueryConversionStrategy {
 
     private val deserializeVariableName = "queryParams"
 
     override fun buildSerializeBlock(
-        builderName: String,
+        queryWriter: QueryWriter,
         paramName: String,
         methodParam: ParameterSpec
     ): CodeBlock {
@@ -188,15 +258,17 @@ private class ArrayQueryConversionStrategy(
             serializeBlock.beginControlFlow("if (\$N[\$L] != null)", methodParam, indexName)
         }
 
-        serializeBlock.addStatement(
-            "\$L.appendQueryParameter(\$S, \$L)",
-            builderName,
-            paramName,
-            typeConverter.buildSerializeBlock(
-                CodeBlock.of("\$N[\$L]", methodParam, indexName),
-                componentTypeName,
-                typeAdapter,
-                originatingElement
+        serializeBlock.add(
+            queryWriter.buildAppendBlock(
+                paramName,
+                typeConverter.buildSerializeBlock(
+                    CodeBlock.of("\$N[\$L]", methodParam, indexName),
+                    componentTypeName,
+                    typeAdapter,
+                    originatingElement,
+                    format
+                ).compressed(compressThreshold),
+                encoded
             )
         )
         if (!componentTypeName.isPrimitive) {
@@ -212,13 +284,24 @@ private class ArrayQueryConversionStrategy(
         paramName: String,
         uriField: FieldSpec
     ): CodeBlock {
-        return CodeBlock.builder().addStatement(
-            "\$T \$L = \$N.getQueryParameters(\$S)",
-            CommonTypeName.STRING_LIST,
-            deserializeVariableName,
-            uriField,
-            paramName
-        ).build()
+        return if (encoded) {
+            CodeBlock.builder().addStatement(
+                "\$T \$L = \$N(\$N.getEncodedQuery(), \$S)",
+                CommonTypeName.STRING_LIST,
+                deserializeVariableName,
+                EncodedQueryReader.FIND_PARAMETERS,
+                uriField,
+                encodeUriComponent(paramName)
+            ).build()
+        } else {
+            CodeBlock.builder().addStatement(
+                "\$T \$L = \$N.getQueryParameters(\$S)",
+                CommonTypeName.STRING_LIST,
+                deserializeVariableName,
+                uriField,
+                paramName
+            ).build()
+        }
     }
 
 
@@ -285,7 +368,8 @@ private class ArrayQueryConversionStrategy(
         if (typeAdapter != null) {
             deserializeBlock.add(
                 typeConverter.buildCustomDeserializeBlock(
-                    CodeBlock.of("\$L.get(\$L)", deserializeVariableName, indexName),
+                    CodeBlock.of("\$L.get(\$L)", deserializeVariableName, indexName)
+                        .decompressed(compressThreshold),
                     CodeBlock.of("\$N[\$L]", paramField, indexName),
                     typeAdapter
                 )
@@ -293,12 +377,14 @@ private class ArrayQueryConversionStrategy(
         } else {
             deserializeBlock.add(
                 typeConverter.buildStandardDeserializeBlock(
-                    CodeBlock.of("\$L.get(\$L)", deserializeVariableName, indexName),
+                    CodeBlock.of("\$L.get(\$L)", deserializeVariableName, indexName)
+                        .decompressed(compressThreshold),
                     CodeBlock.of("\$N[\$L]", paramField, indexName),
                     componentType.typeName,
                     nullable,
                     defaultValue,
-                    originatingElement
+                    originatingElement,
+                    format
                 )
             )
         }
@@ -309,6 +395,22 @@ private class ArrayQueryConversionStrategy(
     }
 }
 
+private fun CodeBlock.compressed(threshold: Int?): CodeBlock {
+    return if (threshold != null) {
+        CodeBlock.of("\$T.compress(\$L, \$L)", CommonTypeName.URI_COMPRESSION, this, threshold)
+    } else {
+        this
+    }
+}
+
+private fun CodeBlock.decompressed(threshold: Int?): CodeBlock {
+    return if (threshold != null) {
+        CodeBlock.of("\$T.decompress(\$L)", CommonTypeName.URI_COMPRESSION, this)
+    } else {
+        this
+    }
+}
+
 class ComponentTypeVisitor : AbstractTypeVisitor<XType, Void?>() {
 
     override fun visitArray(type: XArrayType, param: Void?): XType = type.componentType
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.processor.common.steps.type
+
+import boringyuri.processor.common.steps.type.CommonTypeName.ARRAY_LIST
+import boringyuri.processor.common.steps.type.CommonTypeName.COLLECTIONS
+import boringyuri.processor.common.steps.type.CommonTypeName.NON_NULL
+import boringyuri.processor.common.steps.type.CommonTypeName.NULLABLE
+import boringyuri.processor.common.steps.type.CommonTypeName.STRING
+import boringyuri.processor.common.steps.type.CommonTypeName.STRING_LIST
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import javax.lang.model.element.Modifier
+
+/**
+ * Helper methods added to the generated data classes to read query parameters
+ * without decoding them. `android.net.Uri` provides only decoded values, so the
+ * encoded query is scanned directly.
+ */
+object EncodedQueryReader {
+
+    private val queryParam = ParameterSpec.builder(STRING, "query")
+        .addAnnotation(NULLABLE)
+        .build()
+
+    private val nameParam = ParameterSpec.builder(STRING, "name")
+        .addAnnotation(NON_NULL)
+        .build()
+
+    val FIND_PARAMETER: MethodSpec = MethodSpec.methodBuilder("findEncodedQueryParameter")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .addAnnotation(NULLABLE)
+        .returns(STRING)
+        .addParameter(queryParam)
+        .addParameter(nameParam)
+        .beginControlFlow("if (\$N == null)", queryParam)
+        .addStatement("return null")
+        .endControlFlow()
+        .addCode("\n")
+        .addCode(buildScanBlock(CodeBlock.of("return \"\""), CodeBlock.of("return \$L", "value")))
+        .addCode("\n")
+        .addStatement("return null")
+        .build()
+
+    val FIND_PARAMETERS: MethodSpec = MethodSpec.methodBuilder("findEncodedQueryParameters")
+        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+        .addAnnotation(NON_NULL)
+        .returns(STRING_LIST)
+        .addParameter(queryParam)
+        .addParameter(nameParam)
+        .beginControlFlow("if (\$N == null)", queryParam)
+        .addStatement("return \$T.emptyList()", COLLECTIONS)
+        .endControlFlow()
+        .addCode("\n")
+        .addStatement("\$T values = new \$T<>()", STRING_LIST, ARRAY_LIST)
+        .addCode(
+            buildScanBlock(
+                CodeBlock.of("values.add(\"\")"),
+                CodeBlock.of("values.add(\$L)", "value")
+            )
+        )
+        .addCode("\n")
+        .addStatement("return values")
+        .build()
+
+    private fun buildScanBlock(onEmptyValue: CodeBlock, onValue: CodeBlock): CodeBlock {
+        return CodeBlock.builder()
+            .addStatement("int nameLength = \$N.length()", nameParam)
+            .addStatement("int queryLength = \$N.length()", queryParam)
+            .addStatement("int start = 0")
+            .beginControlFlow("while (start < queryLength)")
+            .addStatement("int end = \$N.indexOf('&', start)", queryParam)
+            .beginControlFlow("if (end == -1)")
+            .addStatement("end = queryLength")
+            .endControlFlow()
+            .beginControlFlow("if (\$N.startsWith(\$N, start))", queryParam, nameParam)
+            .addStatement("int separator = start + nameLength")
+            .beginControlFlow("if (separator == end)")
+            .addStatement("\$L", onEmptyValue)
+            .nextControlFlow("else if (\$N.charAt(separator) == '=')", queryParam)
+            .addStatement("\$T value = \$N.substring(separator + 1, end)", STRING, queryParam)
+            .addStatement("\$L", onValue)
+            .endControlFlow()
+            .endControlFlow()
+            .addStatement("start = end + 1")
+            .endControlFlow()
+            .build()
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.processor.common.steps.type
+
+import boringyuri.processor.common.steps.type.CommonTypeName.BASE64_URL
+import boringyuri.processor.common.steps.type.CommonTypeName.STRING
+import boringyuri.processor.common.steps.type.CommonTypeName.STRING_BUILDER
+import boringyuri.processor.common.steps.util.encodeUriComponent
+import com.squareup.javapoet.CodeBlock
+
+/**
+ * Emits the code that puts query parameters into the `Uri` being built.
+ */
+interface QueryWriter {
+
+    fun buildPrepareBlock(): CodeBlock
+
+    fun buildAppendBlock(name: String, value: CodeBlock, encoded: Boolean): CodeBlock
+
+    fun buildAppendConstantBlock(name: String, value: Any, encoded: Boolean = false): CodeBlock
+
+    /**
+     * Appends `byte[]` or `ByteBuffer` [value] as a url safe base64 string.
+     */
+    fun buildAppendBinaryBlock(name: String, value: CodeBlock): CodeBlock
+
+    fun buildCommitBlock(): CodeBlock
+
+    companion object {
+
+        /**
+         * Name of the `StringBuilder` the encoded query is collected into.
+         */
+        const val ENCODED_QUERY_NAME = "query"
+
+        fun create(
+            builderName: String,
+            encodedQuery: Boolean,
+            uriBackend: UriBackend = UriBackend.ANDROID
+        ): QueryWriter {
+            return if (encodedQuery) {
+                EncodedQueryWriter(builderName, uriBackend)
+            } else {
+                BuilderQueryWriter(builderName)
+            }
+        }
+
+        fun createFingerprint(builderName: String): QueryWriter {
+            return FingerprintQueryWriter(builderName)
+        }
+    }
+}
+
+/**
+ * Appends every query parameter with `Uri.Builder.appendQueryParameter()`,
+ * so both the name and the value are encoded by the builder.
+ */
+private class BuilderQueryWriter(
+    private val builderName: String
+) : QueryWriter {
+
+    override fun buildPrepareBlock(): CodeBlock = CodeBlock.of("")
+
+    override fun buildAppendBlock(name: String, value: CodeBlock, encoded: Boolean): CodeBlock {
+        check(!encoded) { "Encoded query parameter '$name' can't be appended to Uri.Builder" }
+
+        return CodeBlock.builder()
+            .addStatement("\$L.appendQueryParameter(\$S, \$L)", builderName, name, value)
+            .build()
+    }
+
+    override fun buildAppendConstantBlock(name: String, value: Any, encoded: Boolean): CodeBlock {
+        check(!encoded) { "Encoded query parameter '$name' can't be appended to Uri.Builder" }
+
+        return if (value is String) {
+            CodeBlock.builder()
+                .addStatement("\$L.appendQueryParameter(\$S, \$S)", builderName, name, value)
+                .build()
+        } else {
+            CodeBlock.builder()
+                .addStatement(
+                    "\$L.appendQueryParameter(\$S, \$T.valueOf(\$L))",
+                    builderName,
+                    name,
+                    STRING,
+                    value
+                ).build()
+        }
+    }
+
+    override fun buildAppendBinaryBlock(name: String, value: CodeBlock): CodeBlock {
+        return CodeBlock.builder()
+            .addStatement(
+                "\$L.appendQueryParameter(\$S, \$T.encode(\$L))",
+                builderName,
+                name,
+                BASE64_URL,
+                value
+            ).build()
+    }
+
+    override fun buildCommitBlock(): CodeBlock = CodeBlock.of("")
+}
+
+/**
+ * Collects the already encoded query in a `StringBuilder` and sets it to the `Uri.Builder`
+ * at once. Parameter names and constant values are encoded at compile time, values marked
+ * as encoded are copied as is and all the others are encoded with `Uri.encode()`.
+ */
+private class EncodedQueryWriter(
+    private val builderName: String,
+    private val uriBackend: UriBackend
+) : QueryWriter {
+
+    private val queryName = QueryWriter.ENCODED_QUERY_NAME
+
+    override fun buildPrepareBlock(): CodeBlock {
+        return CodeBlock.builder()
+            .addStatement("\$1T \$2L = new \$1T()", STRING_BUILDER, queryName)
+            .build()
+    }
+
+    override fun buildAppendBlock(name: String, value: CodeBlock, encoded: Boolean): CodeBlock {
+        val prefix = "&${encodeUriComponent(name)}="
+
+        return if (encoded) {
+            CodeBlock.builder()
+                .addStatement("\$L.append(\$S).append(\$L)", queryName, prefix, value)
+                .build()
+        } else {
+            CodeBlock.builder()
+                .addStatement(
+                    "\$L.append(\$S).append(\$T.encode(\$L))",
+                    queryName,
+                    prefix,
+                    uriBackend.uri,
+                    value
+                ).build()
+        }
+    }
+
+    override fun buildAppendConstantBlock(name: String, value: Any, encoded: Boolean): CodeBlock {
+        val encodedName = encodeUriComponent(name)
+        val encodedValue = if (encoded) value.toString() else encodeUriComponent(value.toString())
+
+        return CodeBlock.builder()
+            .addStatement("\$L.append(\$S)", queryName, "&$encodedName=$encodedValue")
+            .build()
+    }
+
+    override fun buildAppendBinaryBlock(name: String, value: CodeBlock): CodeBlock {
+        // base64url alphabet doesn't require escaping, so the value is encoded right into the query
+        return CodeBlock.builder()
+            .addStatement(
+                "\$T.encode(\$L, \$L.append(\$S))",
+                BASE64_URL,
+                value,
+                queryName,
+                "&${encodeUriComponent(name)}="
+            ).build()
+    }
+
+    override fun buildCommitBlock(): CodeBlock {
+        return CodeBlock.builder()
+            .beginControlFlow("if (\$L.length() > 0)", queryName)
+            .addStatement("\$L.encodedQuery(\$L.substring(1))", builderName, queryName)
+            .endControlFlow()
+            .build()
+    }
+}
+
+/**
+ * Streams every query parameter into `UriFingerprint`. Parameter names and constant values
+ * are encoded at compile time, values marked as encoded are hashed as is and all the others
+ * are encoded by the fingerprint itself, so the hash is the same for both of the other writers.
+ */
+private class FingerprintQueryWriter(
+    private val builderName: String
+) : QueryWriter {
+
+    override fun buildPrepareBlock(): CodeBlock = CodeBlock.of("")
+
+    override fun buildAppendBlock(name: String, value: CodeBlock, encoded: Boolean): CodeBlock {
+        return if (encoded) {
+            CodeBlock.builder()
+                .addStatement(
+                    "\$L.appendEncodedQueryParameter(\$S, \$L)",
+                    builderName,
+                    encodeUriComponent(name),
+                    value
+                ).build()
+        } else {
+            CodeBlock.builder()
+                .addStatement("\$L.appendQueryParameter(\$S, \$L)", builderName, name, value)
+                .build()
+        }
+    }
+
+    override fun buildAppendConstantBlock(name: String, value: Any, encoded: Boolean): CodeBlock {
+        val encodedValue = if (encoded) value.toString() else encodeUriComponent(value.toString())
+
+        return CodeBlock.builder()
+            .addStatement(
+                "\$L.appendEncodedQueryParameter(\$S, \$S)",
+                builderName,
+                encodeUriComponent(name),
+                encodedValue
+            ).build()
+    }
+
+    override fun buildAppendBinaryBlock(name: String, value: CodeBlock): CodeBlock {
+        return CodeBlock.builder()
+            .addStatement(
+                "\$L.appendEncodedQueryParameter(\$S, \$T.encode(\$L))",
+                builderName,
+                encodeUriComponent(name),
+                BASE64_URL,
+                value
+            ).build()
+    }
+
+    override fun buildCommitBlock(): CodeBlock = CodeBlock.of("")
+}
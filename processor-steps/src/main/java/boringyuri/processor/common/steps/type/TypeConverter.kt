@@ -18,45 +18,78 @@ package boringyuri.processor.common.steps.type
 
 import androidx.room.compiler.processing.XElement
 import androidx.room.compiler.processing.XType
+import boringyuri.api.ValueFormat
+import boringyuri.api.codec.NumberCodec
 import boringyuri.processor.common.base.AbortProcessingException
 import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI
+import boringyuri.processor.common.steps.type.CommonTypeName.BASE64_URL
+import boringyuri.processor.common.steps.type.CommonTypeName.BYTE_ARRAY
+import boringyuri.processor.common.steps.type.CommonTypeName.BYTE_BUFFER
+import boringyuri.processor.common.steps.type.CommonTypeName.JVM_URI
+import boringyuri.processor.common.steps.type.CommonTypeName.NUMBER_CODEC
+import boringyuri.processor.common.steps.type.CommonTypeName.OBJECTS
 import boringyuri.processor.common.steps.type.CommonTypeName.STRING
 import boringyuri.processor.common.Logger
 import com.squareup.javapoet.ClassName
 import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
 import com.squareup.javapoet.ParameterSpec
 import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
+import java.util.Base64
+import javax.lang.model.element.Modifier
 
 
 class TypeConverter(
     private val logger: Logger,
-    private val typeAdapterFactory: ClassName? = null
+    private val typeAdapterFactory: ClassName? = null,
+    private val typeAdapterHolders: Boolean = false
 ) {
 
+    /**
+     * Names of the nested holder classes for the type adapters used by the class
+     * being generated.
+     */
+    private val adapterHolderNames = linkedMapOf<TypeName, String>()
+
+    /**
+     * Expressions creating the type adapters used by the class being generated.
+     */
+    private val usedTypeAdapters = linkedMapOf<TypeName, CodeBlock>()
+
     fun buildSerializeBlock(
         param: ParameterSpec,
         typeAdapter: XType?,
-        originatingElement: XElement? = null
+        originatingElement: XElement? = null,
+        format: ValueFormat = ValueFormat.DEFAULT
     ): CodeBlock = buildSerializeBlock(
         CodeBlock.of("\$N", param),
         param.type,
         typeAdapter,
-        originatingElement
+        originatingElement,
+        format
     )
 
     fun buildSerializeBlock(
         param: CodeBlock,
         paramType: TypeName,
         typeAdapter: XType?,
-        originatingElement: XElement? = null
+        originatingElement: XElement? = null,
+        format: ValueFormat = ValueFormat.DEFAULT
     ): CodeBlock = if (typeAdapter != null) {
         CodeBlock.of("\$L.serialize(\$L)", buildCreateTypeAdapterBlock(typeAdapter), param)
+    } else if (paramType.isCompactNumber && format == ValueFormat.RADIX_36) {
+        CodeBlock.of("\$T.toRadix36(\$L)", NUMBER_CODEC, param)
+    } else if (paramType.isCompactNumber && format == ValueFormat.BASE64_URL) {
+        CodeBlock.of("\$T.toBase64Url(\$L)", NUMBER_CODEC, param)
     } else if (paramType == STRING) {
         CodeBlock.of("\$L", param)
+    } else if (paramType.isBinary) {
+        CodeBlock.of("\$T.encode(\$L)", BASE64_URL, param)
     } else if (paramType.isPrimitive
         || paramType.isBoxedPrimitive
-        || paramType == ANDROID_URI
+        || paramType.isUri
     ) {
         CodeBlock.of("\$T.valueOf(\$L)", STRING, param)
     } else {
@@ -67,6 +100,61 @@ class TypeConverter(
         )
     }
 
+    fun checkFormat(type: TypeName, format: ValueFormat, originatingElement: XElement?) {
+        val applicable = when (format) {
+            ValueFormat.DEFAULT -> true
+            ValueFormat.BASE64_URL -> type.isBinary || type.isCompactNumber
+            ValueFormat.RADIX_36 -> type.isCompactNumber
+        }
+        if (!applicable) {
+            throw AbortProcessingException(
+                logger,
+                originatingElement,
+                message = "Format $format is not applicable to $type"
+            )
+        }
+    }
+
+    fun checkCompression(type: TypeName, typeAdapter: XType?, originatingElement: XElement?) {
+        if (typeAdapter == null && type != STRING) {
+            throw AbortProcessingException(
+                logger,
+                originatingElement,
+                message = "Only String or type adapter values can be compressed, but found $type"
+            )
+        }
+    }
+
+    /**
+     * Converts the [value] of `@DefaultValue` to the representation used in the `Uri`.
+     */
+    fun formatDefaultValue(
+        value: String,
+        type: TypeName,
+        format: ValueFormat,
+        originatingElement: XElement?
+    ): String {
+        if (format == ValueFormat.DEFAULT || !type.isCompactNumber) {
+            return value
+        }
+
+        val isLong = type == TypeName.LONG || type == TypeName.LONG.box()
+        // an int default out of its range would be silently narrowed by the encoding
+        val number = value.toLongOrNull()
+            ?.takeIf { isLong || it in Int.MIN_VALUE..Int.MAX_VALUE }
+            ?: throw AbortProcessingException(
+                logger,
+                originatingElement,
+                message = "Default value '$value' is not a valid $type"
+            )
+
+        return when {
+            format == ValueFormat.RADIX_36 -> NumberCodec.toRadix36(number)
+            isLong -> NumberCodec.toBase64Url(number)
+            else -> NumberCodec.toBase64Url(number.toInt())
+        }
+    }
+
     fun buildCustomDeserializeBlock(
         value: CodeBlock,
         field: FieldSpec,
@@ -97,7 +185,7 @@ class TypeConverter(
         type: TypeName,
         originatingElement: XElement?
     ): CodeBlock {
-        if (value.isEmpty() && STRING != type && ANDROID_URI != type) {
+        if (value.isEmpty() && STRING != type && !type.isUri && !type.isBinary) {
             throw AbortProcessingException(
                 logger,
                 originatingElement,
@@ -106,12 +194,22 @@ class TypeConverter(
         }
 
         return when (type) {
-            ANDROID_URI -> if (value.isEmpty()) {
-                CodeBlock.of("\$T.EMPTY", ANDROID_URI)
+            ANDROID_URI, JVM_URI -> if (value.isEmpty()) {
+                CodeBlock.of("\$T.EMPTY", type)
             } else {
-                CodeBlock.of("\$T.parse(\$S)", ANDROID_URI, value)
+                CodeBlock.of("\$T.parse(\$S)", type, value)
             }
             STRING -> CodeBlock.of("\$S", value)
+            BYTE_ARRAY -> CodeBlock.of(
+                "\$T.decode(\$S)",
+                BASE64_URL,
+                requireBase64Url(value, originatingElement)
+            )
+            BYTE_BUFFER -> CodeBlock.of(
+                "\$T.decodeBuffer(\$S)",
+                BASE64_URL,
+                requireBase64Url(value, originatingElement)
+            )
             TypeName.BOOLEAN, TypeName.BOOLEAN.box() -> CodeBlock.of("\$L", value.toBoolean())
             TypeName.CHAR, TypeName.CHAR.box() -> CodeBlock.of("'\$L'", value.toCharArray()[0])
             TypeName.BYTE, TypeName.BYTE.box() -> CodeBlock.of("(byte) \$L", value.toByte())
@@ -129,7 +227,8 @@ class TypeConverter(
         field: FieldSpec,
         nullable: Boolean,
         defaultValue: String?,
-        originatingElement: XElement? = null
+        originatingElement: XElement? = null,
+        format: ValueFormat = ValueFormat.DEFAULT
     ): CodeBlock {
         return buildStandardDeserializeBlock(
             CodeBlock.of("\$L", value),
@@ -137,7 +236,8 @@ class TypeConverter(
             field.type,
             nullable,
             defaultValue,
-            originatingElement
+            originatingElement,
+            format
         )
     }
 
@@ -147,7 +247,8 @@ class TypeConverter(
         fieldType: TypeName,
         nullable: Boolean,
         defaultValue: String?,
-        originatingElement: XElement? = null
+        originatingElement: XElement? = null,
+        format: ValueFormat = ValueFormat.DEFAULT
     ): CodeBlock {
         val deserializeBlock = CodeBlock.builder()
 
@@ -180,14 +281,26 @@ class TypeConverter(
             STRING -> {
                 deserializeBlock.addStatement("\$L = \$L", field, value)
             }
-            ANDROID_URI -> {
+            ANDROID_URI, JVM_URI -> {
                 deserializeBlock.addStatement(
                     "\$L = \$T.parse(\$L)",
                     field,
-                    ANDROID_URI,
+                    fieldType,
                     value
                 )
             }
+            BYTE_ARRAY, BYTE_BUFFER -> {
+                deserializeBlock.add(
+                    buildBinaryDeserializeBlock(
+                        value,
+                        field,
+                        fieldType,
+                        nullable,
+                        defaultValue,
+                        originatingElement
+                    )
+                )
+            }
             else -> {
                 deserializeBlock.add(
                     buildNumberDeserializeBlock(
@@ -196,7 +309,8 @@ class TypeConverter(
                         fieldType,
                         nullable,
                         defaultValue,
-                        originatingElement
+                        originatingElement,
+                        format
                     )
                 )
             }
@@ -212,8 +326,15 @@ class TypeConverter(
         fieldType: TypeName,
         nullable: Boolean,
         defaultValue: String?,
-        originatingElement: XElement? = null
+        originatingElement: XElement? = null,
+        format: ValueFormat = ValueFormat.DEFAULT
     ): CodeBlock {
+        val compactParseMethod = when (format) {
+            ValueFormat.RADIX_36 -> "parseRadix36"
+            ValueFormat.BASE64_URL -> "parseBase64Url"
+            ValueFormat.DEFAULT -> null
+        }
+
         val (parseBlock, defaultValueBlock) = when (fieldType) {
             TypeName.BYTE, TypeName.BYTE.box() -> {
                 CodeBlock.builder().addStatement(
@@ -231,7 +352,15 @@ class TypeConverter(
                     value
                 ).build() to CodeBlock.of("(short) 0")
             }
-            TypeName.INT, TypeName.INT.box() -> {
+            TypeName.INT, TypeName.INT.box() -> if (compactParseMethod != null) {
+                CodeBlock.builder().addStatement(
+                    "\$L = \$T.\$LInt(\$L)",
+                    field,
+                    NUMBER_CODEC,
+                    compactParseMethod,
+                    value
+                ).build() to CodeBlock.of("0")
+            } else {
                 CodeBlock.builder().addStatement(
                     "\$L = \$T.parseInt(\$L)",
                     field,
@@ -239,7 +368,15 @@ class TypeConverter(
                     value
                 ).build() to CodeBlock.of("0")
             }
-            TypeName.LONG, TypeName.LONG.box() -> {
+            TypeName.LONG, TypeName.LONG.box() -> if (compactParseMethod != null) {
+                CodeBlock.builder().addStatement(
+                    "\$L = \$T.\$LLong(\$L)",
+                    field,
+                    NUMBER_CODEC,
+                    compactParseMethod,
+                    value
+                ).build() to CodeBlock.of("0L")
+            } else {
                 CodeBlock.builder().addStatement(
                     "\$L = \$T.parseLong(\$L)",
                     field,
@@ -293,12 +430,148 @@ class TypeConverter(
             .build()
     }
 
+    private fun buildBinaryDeserializeBlock(
+        value: CodeBlock,
+        field: CodeBlock,
+        fieldType: TypeName,
+        nullable: Boolean,
+        defaultValue: String?,
+        originatingElement: XElement?
+    ): CodeBlock {
+        val (decodeMethod, emptyValueBlock) = if (fieldType == BYTE_BUFFER) {
+            "decodeBuffer" to CodeBlock.of("\$T.allocate(0)", BYTE_BUFFER)
+        } else {
+            "decode" to CodeBlock.of("new byte[0]")
+        }
+
+        val defaultAssignmentBlock = when {
+            defaultValue != null -> {
+                buildStandardDeserializeBlockForDefault(
+                    defaultValue,
+                    fieldType,
+                    originatingElement
+                )
+            }
+            nullable -> CodeBlock.of("null")
+            else -> emptyValueBlock
+        }
+
+        return CodeBlock.builder()
+            .beginControlFlow("try")
+            .addStatement("\$L = \$T.\$L(\$L)", field, BASE64_URL, decodeMethod, value)
+            .nextControlFlow("catch (\$T e)", IllegalArgumentException::class.java)
+            .addStatement("\$L = \$L", field, defaultAssignmentBlock)
+            .endControlFlow()
+            .build()
+    }
+
+    private fun requireBase64Url(value: String, originatingElement: XElement?): String {
+        // padding is not used by the generated code, so it is not accepted in the default value
+        val valid = '=' !in value && runCatching { Base64.getUrlDecoder().decode(value) }.isSuccess
+        if (!valid) {
+            throw AbortProcessingException(
+                logger,
+                originatingElement,
+                message = "Default value '$value' is not a valid url safe base64 string"
+            )
+        }
+        return value
+    }
+
+    /**
+     * Builds statements which create every type adapter used since the previous call to
+     * [createTypeAdapterHolders], so the adapter classes are loaded and initialized.
+     */
+    fun buildTypeAdapterWarmUpBlock(): CodeBlock {
+        val block = CodeBlock.builder()
+        usedTypeAdapters.values.forEach {
+            block.addStatement("\$T.requireNonNull(\$L)", OBJECTS, it)
+        }
+
+        return block.build()
+    }
+
+    /**
+     * Creates the holder classes for the type adapters used since the previous call.
+     * Every adapter instance is created lazily on the first access to its holder and
+     * is shared by all the methods of the generated class.
+     */
+    fun createTypeAdapterHolders(): List<TypeSpec> {
+        val holders = adapterHolderNames.map { (adapterType, holderName) ->
+            val instanceField = FieldSpec.builder(
+                adapterType,
+                ADAPTER_HOLDER_INSTANCE,
+                Modifier.STATIC,
+                Modifier.FINAL
+            ).initializer("new \$T()", adapterType).build()
+
+            TypeSpec.classBuilder(holderName)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addField(instanceField)
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+                .build()
+        }
+        adapterHolderNames.clear()
+        usedTypeAdapters.clear()
+
+        return holders
+    }
+
     private fun buildCreateTypeAdapterBlock(typeAdapter: XType): CodeBlock {
-        return if (typeAdapterFactory == null) {
+        return usedTypeAdapters.getOrPut(typeAdapter.typeName) {
+            buildNewTypeAdapterBlock(typeAdapter)
+        }
+    }
+
+    private fun buildNewTypeAdapterBlock(typeAdapter: XType): CodeBlock {
+        return if (typeAdapterHolders) {
+            CodeBlock.of("\$L.\$L", obtainAdapterHolderName(typeAdapter), ADAPTER_HOLDER_INSTANCE)
+        } else if (typeAdapterFactory == null) {
             CodeBlock.of("new \$T()", typeAdapter.typeName)
         } else {
             val typeAdapterName = requireNotNull(typeAdapter.typeElement?.name)
             CodeBlock.of("\$T.create\$L()", typeAdapterFactory, typeAdapterName)
         }
     }
-}
\ No newline at end of file
+
+    private fun obtainAdapterHolderName(typeAdapter: XType): String {
+        val adapterType = typeAdapter.typeName
+
+        return adapterHolderNames.getOrPut(adapterType) {
+            val simpleNames = (adapterType as? ClassName)?.simpleNames()
+                ?: listOf(requireNotNull(typeAdapter.typeElement?.name))
+            val baseName = simpleNames.joinToString("_") + ADAPTER_HOLDER_SUFFIX
+
+            // adapters with the same simple name may come from different packages
+            generateSequence(1) { it + 1 }
+                .map { index -> if (index == 1) baseName else baseName + index }
+                .first { it !in adapterHolderNames.values }
+        }
+    }
+
+    private companion object {
+        const val ADAPTER_HOLDER_SUFFIX = "Holder"
+        const val ADAPTER_HOLDER_INSTANCE = "INSTANCE"
+    }
+}
+
+/**
+ * `byte[]` and `ByteBuffer` values are serialized as a single url safe base64 string.
+ */
+val TypeName.isBinary: Boolean
+    get() = this == BYTE_ARRAY || this == BYTE_BUFFER
+
+/**
+ * Both Android and JVM `Uri` values are converted with `Uri.parse()` and `toString()`.
+ */
+val TypeName.isUri: Boolean
+    get() = this == ANDROID_URI || this == JVM_URI
+
+/**
+ * `int` and `long` values can be written in a compact [ValueFormat].
+ */
+val TypeName.isCompactNumber: Boolean
+    get() = when (this) {
+        TypeName.INT, TypeName.INT.box(), TypeName.LONG, TypeName.LONG.box() -> true
+        else -> false
+    }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.processor.common.steps.type
+
+import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI
+import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI_BUILDER
+import boringyuri.processor.common.steps.type.CommonTypeName.ANDROID_URI_MATCHER
+import boringyuri.processor.common.steps.type.CommonTypeName.JVM_URI
+import boringyuri.processor.common.steps.type.CommonTypeName.JVM_URI_BUILDER
+import boringyuri.processor.common.steps.type.CommonTypeName.JVM_URI_MATCHER
+import boringyuri.processor.common.steps.util.encodeUriComponent
+import com.squareup.javapoet.ClassName
+
+/**
+ * `Uri` implementation the generated builders, data classes and matchers are written against.
+ */
+enum class UriBackend(
+    val optionValue: String,
+    val uri: ClassName,
+    val uriBuilder: ClassName,
+    val uriMatcher: ClassName,
+) {
+    /**
+     * `android.net.Uri` and `android.content.UriMatcher`.
+     */
+    ANDROID("android", ANDROID_URI, ANDROID_URI_BUILDER, ANDROID_URI_MATCHER),
+
+    /**
+     * `boringyuri.jvm.Uri` and `boringyuri.jvm.UriMatcher` from the `boringyuri-runtime-jvm`
+     * artifact, which don't depend on the Android framework.
+     */
+    JVM("jvm", JVM_URI, JVM_URI_BUILDER, JVM_URI_MATCHER);
+
+    /**
+     * Encodes the [authority] at compile time the same way `Uri.Builder.authority()`
+     * does it in runtime. Both backends encode ':' and '@' of the authority as well.
+     */
+    fun encodeAuthority(authority: String): String {
+        return encodeUriComponent(authority)
+    }
+
+    companion object {
+
+        fun fromOptionValue(value: String): UriBackend? {
+            return values().firstOrNull { it.optionValue == value }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.processor.common.steps.uripart
+
+import androidx.room.compiler.processing.XElement
+import androidx.room.compiler.processing.XMethodElement
+import androidx.room.compiler.processing.XVariableElement
+import boringyuri.api.Flag
+import boringyuri.processor.common.Logger
+import boringyuri.processor.common.steps.ext.createMethodSignature
+import boringyuri.processor.common.steps.type.CommonTypeName.STRING
+import boringyuri.processor.common.steps.type.QueryWriter
+import boringyuri.processor.common.steps.type.TypeConverter
+import boringyuri.processor.common.steps.util.AnnotationHandler
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.TypeName
+import java.util.TreeMap
+import javax.lang.model.element.Modifier
+
+private const val MAX_FLAG_BIT = 62
+private const val MAX_INT_FLAG_BIT = 30
+private const val MASK_RADIX = 32
+
+/**
+ * Boolean query parameters annotated with [Flag] and sharing the same query parameter [name].
+ * The flags are packed into a non-negative `int` mask, or a `long` one if any of the bits
+ * doesn't fit into `int`.
+ */
+abstract class FlagGroup<T>(
+    val name: String,
+    private val logger: Logger
+) {
+
+    protected val flags = TreeMap<Int, T>()
+
+    protected val maskType: TypeName
+        get() {
+            val maxBit = flags.keys.maxOrNull() ?: 0
+            return if (maxBit > MAX_INT_FLAG_BIT) TypeName.LONG else TypeName.INT
+        }
+
+    fun addFlag(bit: Int, type: TypeName, flag: T, element: XElement): Boolean {
+        val flagName = Flag::class.java.simpleName
+        when {
+            type != TypeName.BOOLEAN -> logger.error(
+                element,
+                "@$flagName can be applied to boolean query parameters only"
+            )
+            bit !in 0..MAX_FLAG_BIT -> logger.error(
+                element,
+                "@$flagName bit must be in range from 0 to $MAX_FLAG_BIT"
+            )
+            flags.containsKey(bit) -> logger.error(
+                element,
+                "Bit $bit is already used in the flag group '$name'"
+            )
+            else -> {
+                flags[bit] = flag
+                return true
+            }
+        }
+        return false
+    }
+
+    protected fun buildBitBlock(bit: Int): CodeBlock {
+        return if (maskType == TypeName.LONG) {
+            CodeBlock.of("1L << \$L", bit)
+        } else {
+            CodeBlock.of("1 << \$L", bit)
+        }
+    }
+}
+
+class FlagGroupWriteQueryParameter(
+    name: String,
+    private val queryWriter: QueryWriter,
+    logger: Logger
+) : FlagGroup<ParameterSpec>(name, logger), QueryParameter {
+
+    override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
+        val maskBlock = CodeBlock.join(
+            flags.map { (bit, param) ->
+                CodeBlock.of("(\$N ? \$L : 0)", param, buildBitBlock(bit))
+            },
+            " | "
+        )
+
+        return queryWriter.buildAppendBlock(
+            name,
+            CodeBlock.of("\$T.toString(\$L, \$L)", maskType.box(), maskBlock, MASK_RADIX),
+            false
+        )
+    }
+
+}
+
+/**
+ * Reads the whole mask of the group at once. Every [FlagReadQueryParameter] of the group
+ * takes its bit from the mask returned by the private [readMethodName] method.
+ */
+class FlagGroupReadQueryParameter(
+    name: String,
+    private val uriField: FieldSpec,
+    logger: Logger
+) : FlagGroup<Boolean>(name, logger), ReadQueryParameter {
+
+    private val groupName = name.split(NON_IDENTIFIER_REGEX)
+        .joinToString("") { part -> part.replaceFirstChar { it.uppercaseChar() } }
+
+    val readMethodName = "read${groupName}FlagGroup"
+
+    override val paramField: FieldSpec
+        get() = FieldSpec.builder(maskType, "m${groupName}FlagGroup", Modifier.PRIVATE).build()
+
+    override val encoded: Boolean
+        get() = false
+
+    override val synthetic: Boolean
+        get() = true
+
+    override fun createMethodSignature(annotationHandler: AnnotationHandler): MethodSpec.Builder {
+        return MethodSpec.methodBuilder(readMethodName)
+            .addModifiers(Modifier.PRIVATE)
+            .returns(maskType)
+    }
+
+    override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
+        val defaultMask = flags.filterValues { it }.keys.fold(0L) { mask, bit ->
+            mask or (1L shl bit)
+        }
+        val defaultMaskBlock = if (maskType == TypeName.LONG) {
+            CodeBlock.of("\$LL", defaultMask)
+        } else {
+            CodeBlock.of("\$L", defaultMask)
+        }
+        val rawValueName = "queryParam"
+
+        return CodeBlock.builder()
+            .addStatement(
+                "\$T \$L = \$N.getQueryParameter(\$S)",
+                STRING,
+                rawValueName,
+                uriField,
+                name
+            )
+            .beginControlFlow("if (\$L == null)", rawValueName)
+            .addStatement("\$N = \$L", paramField, defaultMaskBlock)
+            .nextControlFlow("else")
+            .beginControlFlow("try")
+            .addStatement(
+                "\$N = \$T.parse\$L(\$L, \$L)",
+                paramField,
+                maskType.box(),
+                if (maskType == TypeName.LONG) "Long" else "Int",
+                rawValueName,
+                MASK_RADIX
+            )
+            .nextControlFlow("catch (\$T e)", NumberFormatException::class.java)
+            .addStatement("\$N = \$L", paramField, defaultMaskBlock)
+            .endControlFlow()
+            .endControlFlow()
+            .build()
+    }
+
+    fun buildBitCheckBlock(bit: Int): CodeBlock {
+        return CodeBlock.of("(\$L() & (\$L)) != 0", readMethodName, buildBitBlock(bit))
+    }
+
+    companion object {
+        private val NON_IDENTIFIER_REGEX = "[^a-zA-Z0-9]+".toRegex()
+    }
+
+}
+
+class FlagReadQueryParameter(
+    private val group: FlagGroupReadQueryParameter,
+    private val bit: Int,
+    override val paramField: FieldSpec,
+    private val defaultValue: String?,
+    private val parameterElement: XElement
+) : ReadQueryParameter {
+
+    override val name: String
+        get() = group.name
+
+    override val encoded: Boolean
+        get() = false
+
+    override fun createMethodSignature(annotationHandler: AnnotationHandler): MethodSpec.Builder {
+        return when (parameterElement) {
+            is XMethodElement -> {
+                parameterElement.createMethodSignature(defaultValue, annotationHandler)
+            }
+            is XVariableElement -> {
+                parameterElement.createMethodSignature(defaultValue, annotationHandler)
+            }
+            else -> throw IllegalStateException("Unexpected flag element $parameterElement")
+        }
+    }
+
+    override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
+        return CodeBlock.builder()
+            .addStatement("\$N = \$L", paramField, group.buildBitCheckBlock(bit))
+            .build()
+    }
+
+}
@@ -20,6 +20,7 @@ import androidx.room.compiler.processing.XElement
 import androidx.room.compiler.processing.XMethodElement
 import androidx.room.compiler.processing.XType
 import androidx.room.compiler.processing.XVariableElement
+import boringyuri.api.ValueFormat
 import boringyuri.processor.common.Logger
 import boringyuri.processor.common.base.AbortProcessingException
 import boringyuri.processor.common.steps.ext.createMethodSignature
@@ -94,20 +95,25 @@ class TemplatePathSegment(
 
 class VariableWritePathSegment(
     private val segment: XVariableElement,
+    private val typeAdapter: XType?,
     private val methodParam: ParameterSpec,
     private val defaultValue: String?,
     private val encoded: Boolean,
+    private val format: ValueFormat,
     private val builderName: String
 ) : PathSegment {
 
     override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
-        val typeAdapter = segment.findTypeAdapter()
+        if (typeAdapter == null) {
+            typeConverter.checkFormat(methodParam.type, format, segment)
+        }
 
         val valueBlock = CodeBlock.builder()
         val serializedSegment = typeConverter.buildSerializeBlock(
             methodParam,
             typeAdapter,
-            segment
+            segment,
+            format
         )
 
         val appendMethod = if (encoded) "appendEncodedPath" else "appendPath"
@@ -120,7 +126,12 @@ class VariableWritePathSegment(
 
         if (defaultValue != null) {
             valueBlock.nextControlFlow("else")
-            valueBlock.addStatement("\$L.\$L(\$S)", builderName, appendMethod, defaultValue)
+            valueBlock.addStatement(
+                "\$L.\$L(\$S)",
+                builderName,
+                appendMethod,
+                typeConverter.formatDefaultValue(defaultValue, methodParam.type, format, segment)
+            )
             valueBlock.endControlFlow()
         }
 
@@ -135,8 +146,18 @@ class VariableReadPathSegment(
     segmentField: FieldSpec,
     uriField: FieldSpec,
     private val defaultValue: String?,
-    private val segment: XVariableElement
-) : BaseReadPathSegment(segmentIndex, segmentName, segmentField, uriField, defaultValue, segment) {
+    format: ValueFormat,
+    private val segment: XVariableElement,
+    private val typeAdapter: XType?
+) : BaseReadPathSegment(
+    segmentIndex,
+    segmentName,
+    segmentField,
+    uriField,
+    defaultValue,
+    format,
+    segment
+) {
 
     override fun createMethodSignature(
         annotationHandler: AnnotationHandler
@@ -145,7 +166,7 @@ class VariableReadPathSegment(
     }
 
     override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
-        return createValueBlock(typeConverter, segment.findTypeAdapter())
+        return createValueBlock(typeConverter, typeAdapter)
     }
 
 }
@@ -156,8 +177,17 @@ class MethodReadPathSegment(
     segmentField: FieldSpec,
     uriField: FieldSpec,
     private val defaultValue: String?,
+    format: ValueFormat,
     private val segment: XMethodElement
-) : BaseReadPathSegment(segmentIndex, segmentName, segmentField, uriField, defaultValue, segment) {
+) : BaseReadPathSegment(
+    segmentIndex,
+    segmentName,
+    segmentField,
+    uriField,
+    defaultValue,
+    format,
+    segment
+) {
 
     override fun createMethodSignature(
         annotationHandler: AnnotationHandler
@@ -174,6 +204,7 @@ abstract class BaseReadPathSegment(
     override val segmentField: FieldSpec,
     private val uriField: FieldSpec,
     private val defaultValue: String?,
+    private val format: ValueFormat,
     private val segment: XElement
 ) : ReadPathSegment {
 
@@ -213,6 +244,10 @@ abstract class BaseReadPathSegment(
         )
 
 
+        if (typeAdapter == null) {
+            typeConverter.checkFormat(segmentField.type, format, segment)
+        }
+
         val deserializeBlock = if (typeAdapter != null) {
             typeConverter.buildCustomDeserializeBlock(
                 CodeBlock.of("\$L", segmentVariableName),
@@ -225,7 +260,8 @@ abstract class BaseReadPathSegment(
                 segmentField,
                 false,
                 defaultValue,
-                segment
+                segment,
+                format
             )
         }
 
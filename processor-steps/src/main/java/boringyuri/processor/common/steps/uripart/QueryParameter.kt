@@ -16,14 +16,23 @@
 
 package boringyuri.processor.common.steps.uripart
 
+import androidx.room.compiler.processing.XElement
 import androidx.room.compiler.processing.XMethodElement
+import androidx.room.compiler.processing.XType
 import androidx.room.compiler.processing.XVariableElement
+import boringyuri.api.Compressed
+import boringyuri.api.ValueFormat
+import boringyuri.api.codec.UriCompression
+import boringyuri.processor.common.ext.getAnnotation
 import boringyuri.processor.common.steps.ext.createMethodSignature
 import boringyuri.processor.common.steps.ext.findTypeAdapter
+import boringyuri.processor.common.steps.type.ComponentTypeVisitor
 import boringyuri.processor.common.steps.type.ConversionStrategyFactory
 import boringyuri.processor.common.steps.type.QueryConversionStrategy
+import boringyuri.processor.common.steps.type.QueryWriter
 import boringyuri.processor.common.steps.type.TypeConverter
 import boringyuri.processor.common.steps.util.AnnotationHandler
+import boringyuri.processor.common.visitor.accept
 import com.squareup.javapoet.CodeBlock
 import com.squareup.javapoet.FieldSpec
 import com.squareup.javapoet.MethodSpec
@@ -41,22 +50,41 @@ interface ReadQueryParameter : QueryParameter {
 
     val paramField: FieldSpec
 
+    val encoded: Boolean
+
+    /**
+     * Synthetic query parameters are private helpers of the generated class
+     * and don't implement any getter of the source element.
+     */
+    val synthetic: Boolean
+        get() = false
+
     fun createMethodSignature(annotationHandler: AnnotationHandler): MethodSpec.Builder
 
+    /**
+     * Creates the parameter that writes the [value] in place of this one or `null` if
+     * the parameter can't be written on its own.
+     */
+    fun createWriteParameter(value: ParameterSpec, queryWriter: QueryWriter): QueryParameter? {
+        return null
+    }
+
 }
 
 class VariableWriteQueryParameter(
     override val name: String,
     private val methodParam: ParameterSpec,
-    private val parameter: XVariableElement,
+    private val type: XType,
+    private val parameter: XElement,
+    private val typeAdapter: XType?,
     private val nullable: Boolean,
     private val defaultValue: String?,
-    private val builderName: String
+    private val encoded: Boolean,
+    private val format: ValueFormat,
+    private val queryWriter: QueryWriter
 ) : QueryParameter {
 
     override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
-        val typeAdapter = parameter.findTypeAdapter()
-
         val appendQueryBlock = CodeBlock.builder()
 
         if (nullable) {
@@ -64,15 +92,17 @@ class VariableWriteQueryParameter(
         }
 
         val serializeStrategy = ConversionStrategyFactory.createQueryStrategy(
-            parameter.type,
+            type,
             typeAdapter,
             typeConverter,
-            parameter
+            parameter,
+            encoded,
+            format
         )
 
         appendQueryBlock.add(
             serializeStrategy.buildSerializeBlock(
-                builderName,
+                queryWriter,
                 name,
                 methodParam
             )
@@ -80,12 +110,20 @@ class VariableWriteQueryParameter(
 
         if (nullable) {
             if (defaultValue != null) {
+                val valueType = type.accept(ComponentTypeVisitor(), null) ?: type
+                val formattedDefaultValue = typeConverter.formatDefaultValue(
+                    defaultValue,
+                    valueType.typeName,
+                    format,
+                    parameter
+                ).let { value ->
+                    parameter.getAnnotation<Compressed>()
+                        ?.let { UriCompression.compress(value, it.threshold) }
+                        ?: value
+                }
                 appendQueryBlock.nextControlFlow("else")
-                appendQueryBlock.addStatement(
-                    "\$L.appendQueryParameter(\$S, \$S)",
-                    builderName,
-                    name,
-                    defaultValue
+                appendQueryBlock.add(
+                    queryWriter.buildAppendConstantBlock(name, formattedDefaultValue, encoded)
                 )
             }
             appendQueryBlock.endControlFlow()
@@ -96,13 +134,28 @@ class VariableWriteQueryParameter(
 
 }
 
+class ConstantWriteQueryParameter(
+    override val name: String,
+    private val value: Any,
+    private val queryWriter: QueryWriter
+) : QueryParameter {
+
+    override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
+        return queryWriter.buildAppendConstantBlock(name, value)
+    }
+
+}
+
 class VariableReadQueryParameter(
     name: String,
     paramField: FieldSpec,
     uriField: FieldSpec,
     nullable: Boolean,
     private val defaultValue: String?,
-    private val parameterElement: XVariableElement
+    override val encoded: Boolean,
+    private val format: ValueFormat,
+    private val parameterElement: XVariableElement,
+    private val typeAdapter: XType?
 ) : BaseReadQueryParameter(name, paramField, uriField, nullable, defaultValue) {
 
     override fun createMethodSignature(
@@ -111,12 +164,32 @@ class VariableReadQueryParameter(
         return parameterElement.createMethodSignature(defaultValue, annotationHandler)
     }
 
+    override fun createWriteParameter(
+        value: ParameterSpec,
+        queryWriter: QueryWriter
+    ): QueryParameter {
+        return VariableWriteQueryParameter(
+            name,
+            value,
+            parameterElement.type,
+            parameterElement,
+            typeAdapter,
+            nullable,
+            defaultValue,
+            encoded,
+            format,
+            queryWriter
+        )
+    }
+
     override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
         val deserializeStrategy = ConversionStrategyFactory.createQueryStrategy(
             parameterElement.type,
-            parameterElement.findTypeAdapter(),
+            typeAdapter,
             typeConverter,
-            parameterElement
+            parameterElement,
+            encoded,
+            format
         )
 
         return createValueBlock(deserializeStrategy)
@@ -130,6 +203,8 @@ class MethodReadQueryParameter(
     uriField: FieldSpec,
     nullable: Boolean,
     private val defaultValue: String?,
+    override val encoded: Boolean,
+    private val format: ValueFormat,
     private val parameterElement: XMethodElement
 ) : BaseReadQueryParameter(name, paramField, uriField, nullable, defaultValue) {
 
@@ -139,12 +214,32 @@ class MethodReadQueryParameter(
         return parameterElement.createMethodSignature(defaultValue, annotationHandler)
     }
 
+    override fun createWriteParameter(
+        value: ParameterSpec,
+        queryWriter: QueryWriter
+    ): QueryParameter {
+        return VariableWriteQueryParameter(
+            name,
+            value,
+            parameterElement.returnType,
+            parameterElement,
+            parameterElement.findTypeAdapter(),
+            nullable,
+            defaultValue,
+            encoded,
+            format,
+            queryWriter
+        )
+    }
+
     override fun createValueBlock(typeConverter: TypeConverter): CodeBlock {
         val deserializeStrategy = ConversionStrategyFactory.createQueryStrategy(
             parameterElement.returnType,
             parameterElement.findTypeAdapter(),
             typeConverter,
-            parameterElement
+            parameterElement,
+            encoded,
+            format
         )
 
         return createValueBlock(deserializeStrategy)
@@ -156,7 +251,7 @@ abstract class BaseReadQueryParameter(
     override val name: String,
     override val paramField: FieldSpec,
     private val uriField: FieldSpec,
-    private val nullable: Boolean,
+    protected val nullable: Boolean,
     private val defaultValue: String?
 ) : ReadQueryParameter {
 
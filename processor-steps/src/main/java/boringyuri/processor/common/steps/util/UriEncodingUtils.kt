@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+@file:JvmName("UriEncodingUtils")
+package boringyuri.processor.common.steps.util
+
+private const val ALLOWED_SYMBOLS = "_-!.~'()*"
+private const val HEX_DIGITS = "0123456789ABCDEF"
+
+/**
+ * Encodes the given [value] at compile time exactly the way `android.net.Uri.encode()`
+ * does it in runtime: letters, digits, `_-!.~'()*` and the characters from [allow] are kept
+ * as is, every other character is converted to UTF-8 and each byte is escaped as `%XX`.
+ */
+fun encodeUriComponent(value: String, allow: String = ""): String {
+    if (value.all { isAllowed(it, allow) }) {
+        return value
+    }
+
+    val encoded = StringBuilder(value.length * 3)
+    var index = 0
+    while (index < value.length) {
+        val char = value[index]
+        if (isAllowed(char, allow)) {
+            encoded.append(char)
+            index++
+            continue
+        }
+
+        var end = index + 1
+        while (end < value.length && !isAllowed(value[end], allow)) {
+            end++
+        }
+        value.substring(index, end).toByteArray(Charsets.UTF_8).forEach {
+            val byte = it.toInt() and 0xFF
+            encoded.append('%')
+                .append(HEX_DIGITS[byte shr 4])
+                .append(HEX_DIGITS[byte and 0x0F])
+        }
+        index = end
+    }
+
+    return encoded.toString()
+}
+
+private fun isAllowed(char: Char, allow: String): Boolean {
+    return char in 'a'..'z' || char in 'A'..'Z' || char in '0'..'9' || char in ALLOWED_SYMBOLS
+            || char in allow
+}
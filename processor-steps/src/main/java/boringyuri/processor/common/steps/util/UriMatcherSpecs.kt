@@ -0,0 +1,127 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.processor.common.steps.util
+
+import boringyuri.processor.common.steps.type.CommonTypeName.NON_NULL
+import boringyuri.processor.common.steps.type.CommonTypeName.OVERRIDE
+import boringyuri.processor.common.steps.type.CommonTypeName.STRING
+import boringyuri.processor.common.steps.type.CommonTypeName.UNSUPPORTED_OPERATION
+import boringyuri.processor.common.steps.type.UriBackend
+import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.FieldSpec
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.TypeName
+import com.squareup.javapoet.TypeSpec
+import javax.lang.model.element.Modifier
+
+/**
+ * Adds the members of a generated `UriMatcher` subclass which registers its paths with
+ * [initMatcher] lazily on the first match or warm-up and can't be modified from the outside.
+ */
+fun TypeSpec.Builder.addLazyUriMatcherMembers(
+    matcherClassName: ClassName,
+    uriBackend: UriBackend,
+    initMatcher: MethodSpec
+): TypeSpec.Builder {
+    val isInitializedField = FieldSpec.builder(
+        TypeName.BOOLEAN,
+        "mIsInitialized",
+        Modifier.PRIVATE,
+        Modifier.VOLATILE
+    ).initializer("\$L", false).build()
+    val ensureInitializedMethod = generateEnsureInitialized(initMatcher, isInitializedField)
+
+    addField(isInitializedField)
+    addMethod(
+        MethodSpec.constructorBuilder()
+            .addModifiers(Modifier.PUBLIC)
+            .addStatement("super(NO_MATCH)")
+            .build()
+    )
+
+    addMethod(generateAddUri())
+    addMethod(generateMatch(uriBackend, ensureInitializedMethod))
+    addMethods(
+        buildWarmUpMethods(
+            matcherClassName,
+            CodeBlock.of("\$N();\n", ensureInitializedMethod),
+            Modifier.PUBLIC
+        )
+    )
+    addMethod(ensureInitializedMethod)
+    addMethod(initMatcher)
+
+    return this
+}
+
+private fun generateAddUri(): MethodSpec {
+    val method = MethodSpec.methodBuilder("addURI")
+        .addModifiers(Modifier.PUBLIC)
+        .addAnnotation(OVERRIDE)
+        .addParameter(STRING, "authority")
+        .addParameter(STRING, "path")
+        .addParameter(TypeName.INT, "code")
+
+    method.addStatement(
+        "throw new \$T(\$S)",
+        UNSUPPORTED_OPERATION,
+        "Adding new URIs to this matcher is not supported."
+    )
+    return method.build()
+}
+
+private fun generateMatch(uriBackend: UriBackend, ensureInitialized: MethodSpec): MethodSpec {
+    val methodName = "match"
+    val uriParamName = "uri"
+    val method = MethodSpec.methodBuilder(methodName)
+        .addModifiers(Modifier.PUBLIC)
+        .addAnnotation(OVERRIDE)
+        .addParameter(
+            ParameterSpec.builder(
+                uriBackend.uri,
+                uriParamName
+            ).addAnnotation(NON_NULL).build()
+        )
+        .returns(TypeName.INT)
+
+    method.addStatement("\$N()", ensureInitialized)
+    method.addCode("\n")
+    method.addStatement("return super.\$L(\$L)", methodName, uriParamName)
+
+    return method.build()
+}
+
+private fun generateEnsureInitialized(
+    initMatcher: MethodSpec,
+    isInitialized: FieldSpec
+): MethodSpec {
+    val method = MethodSpec.methodBuilder("ensureInitialized")
+        .addModifiers(Modifier.PRIVATE)
+
+    method.beginControlFlow("if (!\$N)", isInitialized)
+    method.beginControlFlow("synchronized(this)")
+    method.beginControlFlow("if (!\$N)", isInitialized)
+    method.addStatement("\$N()", initMatcher)
+    method.addStatement("\$N = \$L", isInitialized, true)
+    method.endControlFlow()
+    method.endControlFlow()
+    method.endControlFlow()
+
+    return method.build()
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.processor.common.steps.util
+
+import boringyuri.processor.common.steps.type.CommonTypeName.EXECUTOR
+import boringyuri.processor.common.steps.type.CommonTypeName.NON_NULL
+import boringyuri.processor.common.steps.type.CommonTypeName.NULLABLE
+import boringyuri.processor.common.steps.type.CommonTypeName.OVERRIDE
+import boringyuri.processor.common.steps.type.CommonTypeName.RUNNABLE
+import boringyuri.processor.common.steps.type.CommonTypeName.WARM_UP_LISTENER
+import com.squareup.javapoet.ClassName
+import com.squareup.javapoet.CodeBlock
+import com.squareup.javapoet.MethodSpec
+import com.squareup.javapoet.ParameterSpec
+import com.squareup.javapoet.TypeSpec
+import javax.lang.model.element.Modifier
+
+private const val WARM_UP_METHOD_NAME = "warmUp"
+
+/**
+ * Builds the `warmUp(Executor)` and `warmUp(Executor, WarmUpListener)` methods which run
+ * [warmUpBlock] on the executor and report its duration to the listener.
+ *
+ * @param targetClassName the generated class reported to the listener.
+ * @param modifiers the modifiers of the generated methods.
+ */
+fun buildWarmUpMethods(
+    targetClassName: ClassName,
+    warmUpBlock: CodeBlock,
+    vararg modifiers: Modifier
+): List<MethodSpec> {
+    val executorParam = ParameterSpec.builder(EXECUTOR, "executor", Modifier.FINAL)
+        .addAnnotation(NON_NULL)
+        .build()
+    val listenerParam = ParameterSpec.builder(WARM_UP_LISTENER, "listener", Modifier.FINAL)
+        .addAnnotation(NULLABLE)
+        .build()
+
+    val warmUpTask = TypeSpec.anonymousClassBuilder("")
+        .addSuperinterface(RUNNABLE)
+        .addMethod(
+            MethodSpec.methodBuilder("run")
+                .addModifiers(Modifier.PUBLIC)
+                .addAnnotation(OVERRIDE)
+                .addStatement("long startNanos = \$T.nanoTime()", System::class.java)
+                .addCode(warmUpBlock)
+                .beginControlFlow("if (\$N != null)", listenerParam)
+                .addStatement(
+                    "\$N.onWarmedUp(\$T.class, \$T.nanoTime() - startNanos)",
+                    listenerParam,
+                    targetClassName,
+                    System::class.java
+                )
+                .endControlFlow()
+                .build()
+        )
+        .build()
+
+    val warmUpWithListener = MethodSpec.methodBuilder(WARM_UP_METHOD_NAME)
+        .addModifiers(*modifiers)
+        .addParameter(executorParam)
+        .addParameter(listenerParam)
+        .addStatement("\$N.execute(\$L)", executorParam, warmUpTask)
+        .build()
+
+    val warmUp = MethodSpec.methodBuilder(WARM_UP_METHOD_NAME)
+        .addModifiers(*modifiers)
+        .addParameter(executorParam)
+        .addStatement("\$N(\$N, null)", warmUpWithListener, executorParam)
+        .build()
+
+    return listOf(warmUp, warmUpWithListener)
+}
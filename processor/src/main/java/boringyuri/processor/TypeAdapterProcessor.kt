@@ -31,10 +31,33 @@ import javax.lang.model.SourceVersion
 @Suppress("unused") // class is used by @AutoService
 @AutoService(Processor::class)
 @SupportedSourceVersion(SourceVersion.RELEASE_11)
-@SupportedOptions(ProcessorOptions.OPT_TYPE_ADAPTER_FACTORY)
+@SupportedOptions(
+    ProcessorOptions.OPT_TYPE_ADAPTER_FACTORY,
+    ProcessorOptions.OPT_TYPE_ADAPTER_HOLDERS,
+    ProcessorOptions.OPT_STATS,
+    ProcessorOptions.OPT_CODEGEN_THREADS
+)
 class TypeAdapterProcessor : AptBoringAnnotationProcessor() {
 
     override fun initSteps(session: ProcessingSession): Iterable<BoringProcessingStep> {
         return ImmutableSet.of(TypeAdapterFactoryGeneratorStep(session))
     }
+
+    /**
+     * The processor is registered as dynamic for the Gradle incremental annotation
+     * processing. It aggregates all the adapters into a single factory, unless the
+     * adapters are held by the generated classes and nothing is written at all.
+     */
+    override fun getSupportedOptions(): Set<String> {
+        val holdersEnabled = isInitialized &&
+                ProcessorOptions.isTypeAdapterHoldersEnabled(processingEnv.options)
+        val incrementalType = if (holdersEnabled) GRADLE_ISOLATING else GRADLE_AGGREGATING
+
+        return super.getSupportedOptions() + incrementalType
+    }
+
+    private companion object {
+        const val GRADLE_ISOLATING = "org.gradle.annotation.processing.isolating"
+        const val GRADLE_AGGREGATING = "org.gradle.annotation.processing.aggregating"
+    }
 }
\ No newline at end of file
@@ -33,7 +33,11 @@ import javax.lang.model.SourceVersion
 @AutoService(Processor::class)
 @SupportedSourceVersion(SourceVersion.RELEASE_11)
 @SupportedOptions(
-    ProcessorOptions.OPT_TYPE_ADAPTER_FACTORY
+    ProcessorOptions.OPT_TYPE_ADAPTER_FACTORY,
+    ProcessorOptions.OPT_TYPE_ADAPTER_HOLDERS,
+    ProcessorOptions.OPT_URI_BACKEND,
+    ProcessorOptions.OPT_STATS,
+    ProcessorOptions.OPT_CODEGEN_THREADS
 )
 class UriFactoryProcessor : AptBoringAnnotationProcessor() {
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.jvm;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+import boringyuri.api.uri.UriString;
+
+/**
+ * <p>
+ * Immutable hierarchical {@code Uri} for the code generated with the {@code jvm} uri backend.
+ * </p><p>
+ * It mirrors the part of the {@code android.net.Uri} API the generated builders, data classes
+ * and matchers depend on, so the same {@code @UriFactory} interfaces can be used off-device.
+ * Values are encoded and decoded the same way as {@code android.net.Uri} does.
+ * </p>
+ */
+public final class Uri {
+
+    /**
+     * The empty {@code Uri}, equivalent to "".
+     */
+    public static final Uri EMPTY = new Uri("");
+
+    @NonNull
+    private final String mUriString;
+
+    @NonNull
+    private final UriString mParsed;
+
+    private Uri(@NonNull String uriString) {
+        mUriString = uriString;
+        mParsed = UriString.parse(uriString);
+    }
+
+    /**
+     * Creates a {@code Uri} from an encoded string. Path and query boundaries are located
+     * immediately, values are decoded when requested.
+     */
+    @NonNull
+    public static Uri parse(@NonNull String uriString) {
+        return new Uri(uriString);
+    }
+
+    /**
+     * Encodes every character of the {@code value} except letters, digits and {@code _-!.~'()*}.
+     * Returns <code>null</code> if the {@code value} is <code>null</code>.
+     */
+    @Nullable
+    public static String encode(@Nullable String value) {
+        return value == null ? null : UriString.encode(value);
+    }
+
+    @Nullable
+    public String getScheme() {
+        return mParsed.getScheme();
+    }
+
+    @Nullable
+    public String getAuthority() {
+        return mParsed.getAuthority();
+    }
+
+    @NonNull
+    public List<String> getPathSegments() {
+        return mParsed.getPathSegments();
+    }
+
+    @Nullable
+    public String getEncodedQuery() {
+        return mParsed.getEncodedQuery();
+    }
+
+    @Nullable
+    public String getQueryParameter(@NonNull String key) {
+        return mParsed.getQueryParameter(key);
+    }
+
+    @NonNull
+    public List<String> getQueryParameters(@NonNull String key) {
+        return mParsed.getQueryParameters(key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Uri && mUriString.equals(((Uri) o).mUriString);
+    }
+
+    @Override
+    public int hashCode() {
+        return mUriString.hashCode();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return mUriString;
+    }
+
+    /**
+     * Helper class for building {@code Uri}s with the same behavior as
+     * {@code android.net.Uri.Builder}.
+     */
+    public static final class Builder {
+
+        @Nullable
+        private String mScheme;
+
+        @Nullable
+        private String mEncodedAuthority;
+
+        @NonNull
+        private final StringBuilder mEncodedPath = new StringBuilder();
+
+        @Nullable
+        private String mEncodedQuery;
+
+        @NonNull
+        public Builder scheme(@Nullable String scheme) {
+            mScheme = scheme;
+            return this;
+        }
+
+        @NonNull
+        public Builder authority(@Nullable String authority) {
+            mEncodedAuthority = authority == null ? null : UriString.encode(authority);
+            return this;
+        }
+
+        @NonNull
+        public Builder appendPath(@NonNull String segment) {
+            return appendEncodedPath(UriString.encode(segment));
+        }
+
+        @NonNull
+        public Builder appendEncodedPath(@NonNull String segment) {
+            int length = mEncodedPath.length();
+            if (length == 0 || mEncodedPath.charAt(length - 1) != '/') {
+                mEncodedPath.append('/');
+            }
+            mEncodedPath.append(segment);
+            return this;
+        }
+
+        @NonNull
+        public Builder encodedQuery(@Nullable String query) {
+            mEncodedQuery = query;
+            return this;
+        }
+
+        @NonNull
+        public Builder appendQueryParameter(@NonNull String key, @Nullable String value) {
+            // null value is written as "null" the same way as android.net.Uri.Builder does
+            String parameter = UriString.encode(key) + '='
+                    + UriString.encode(String.valueOf(value));
+            mEncodedQuery = mEncodedQuery == null ? parameter : mEncodedQuery + '&' + parameter;
+            return this;
+        }
+
+        @NonNull
+        public Uri build() {
+            StringBuilder uri = new StringBuilder();
+            if (mScheme != null) {
+                uri.append(mScheme).append(':');
+            }
+            if (mEncodedAuthority != null) {
+                uri.append("//").append(mEncodedAuthority);
+            }
+            uri.append(mEncodedPath);
+            if (mEncodedQuery != null) {
+                uri.append('?').append(mEncodedQuery);
+            }
+            return new Uri(uri.toString());
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return build().toString();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boringyuri.jvm;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Utility class to aid in matching {@link Uri}s, the counterpart of
+ * {@code android.content.UriMatcher} for the code generated with the {@code jvm} uri backend.
+ * </p><p>
+ * Paths may contain {@code *} to match any text segment and {@code #} to match a segment
+ * of digits. Nodes are checked in the order they were added and the first matching node
+ * wins on every level, the same way as the Android implementation does.
+ * </p>
+ */
+public class UriMatcher {
+
+    public static final int NO_MATCH = -1;
+
+    private static final int EXACT = 0;
+    private static final int NUMBER = 1;
+    private static final int TEXT = 2;
+
+    private int mCode;
+    private final int mWhich;
+
+    @Nullable
+    private final String mText;
+
+    @NonNull
+    private final List<UriMatcher> mChildren = new ArrayList<>();
+
+    /**
+     * Creates the root node of the matcher.
+     *
+     * @param code the code to match for the root uri
+     */
+    public UriMatcher(int code) {
+        this(code, EXACT, null);
+    }
+
+    private UriMatcher(int code, int which, @Nullable String text) {
+        mCode = code;
+        mWhich = which;
+        mText = text;
+    }
+
+    /**
+     * Adds a {@code Uri} to match, and the code to return when this {@code Uri} is matched.
+     * A leading slash of the {@code path} is ignored.
+     */
+    public void addURI(@Nullable String authority, @Nullable String path, int code) {
+        if (code < 0) {
+            throw new IllegalArgumentException(
+                    "code " + code + " is invalid: it must be positive"
+            );
+        }
+
+        String[] tokens = null;
+        if (path != null) {
+            String newPath = path;
+            if (!path.isEmpty() && path.charAt(0) == '/') {
+                newPath = path.substring(1);
+            }
+            tokens = newPath.split("/");
+        }
+
+        int tokenCount = tokens != null ? tokens.length : 0;
+        UriMatcher node = this;
+        for (int i = -1; i < tokenCount; i++) {
+            String token = i < 0 ? authority : tokens[i];
+            UriMatcher child = null;
+            for (UriMatcher candidate : node.mChildren) {
+                if (token != null && token.equals(candidate.mText)) {
+                    child = candidate;
+                    break;
+                }
+            }
+            if (child == null) {
+                child = new UriMatcher(NO_MATCH, whichOf(token), token);
+                node.mChildren.add(child);
+            }
+            node = child;
+        }
+        node.mCode = code;
+    }
+
+    /**
+     * Tries to match against the path in the {@code uri}.
+     *
+     * @return the code for the matched node (added using {@link #addURI}),
+     * or {@link #NO_MATCH} if there is no matched node.
+     */
+    public int match(@NonNull Uri uri) {
+        List<String> pathSegments = uri.getPathSegments();
+        int segmentCount = pathSegments.size();
+
+        UriMatcher node = this;
+
+        if (segmentCount == 0 && uri.getAuthority() == null) {
+            return mCode;
+        }
+
+        for (int i = -1; i < segmentCount; i++) {
+            String token = i < 0 ? uri.getAuthority() : pathSegments.get(i);
+            List<UriMatcher> children = node.mChildren;
+
+            // a leaf doesn't match the remaining segments, so the longer uri is not matched
+            node = null;
+            for (UriMatcher child : children) {
+                if (child.matches(token)) {
+                    node = child;
+                    break;
+                }
+            }
+
+            if (node == null) {
+                return NO_MATCH;
+            }
+        }
+
+        return node.mCode;
+    }
+
+    private boolean matches(@Nullable String token) {
+        switch (mWhich) {
+            case NUMBER:
+                return isNumber(token);
+            case TEXT:
+                return true;
+            default:
+                return mText != null ? mText.equals(token) : token == null;
+        }
+    }
+
+    private static int whichOf(@Nullable String token) {
+        if ("#".equals(token)) {
+            return NUMBER;
+        }
+        if ("*".equals(token)) {
+            return TEXT;
+        }
+        return EXACT;
+    }
+
+    private static boolean isNumber(@Nullable String token) {
+        if (token == null || token.isEmpty()) {
+            return false;
+        }
+        int length = token.length();
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
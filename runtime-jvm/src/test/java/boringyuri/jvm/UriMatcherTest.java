@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.jvm;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Checks that {@link UriMatcher} matches the same {@code Uri}s as
+ * {@code android.content.UriMatcher} does.
+ */
+public class UriMatcherTest {
+
+    private static final int USER = 1;
+    private static final int USER_POSTS = 2;
+    private static final int AUTHORITY = 3;
+
+    private final UriMatcher mMatcher = createMatcher();
+
+    @Test
+    public void exactPath() {
+        assertEquals(USER, mMatcher.match(Uri.parse("content://auth/user/5")));
+        assertEquals(USER_POSTS, mMatcher.match(Uri.parse("content://auth/user/5/posts/any")));
+        assertEquals(AUTHORITY, mMatcher.match(Uri.parse("content://auth")));
+    }
+
+    @Test
+    public void trailingSegments() {
+        assertEquals(UriMatcher.NO_MATCH, mMatcher.match(Uri.parse("content://auth/user/5/extra")));
+        assertEquals(
+                UriMatcher.NO_MATCH,
+                mMatcher.match(Uri.parse("content://auth/user/5/extra/more"))
+        );
+        assertEquals(
+                UriMatcher.NO_MATCH,
+                mMatcher.match(Uri.parse("content://auth/user/5/posts/any/more"))
+        );
+    }
+
+    @Test
+    public void missingTrailingSegment() {
+        assertEquals(UriMatcher.NO_MATCH, mMatcher.match(Uri.parse("content://auth/user")));
+        assertEquals(UriMatcher.NO_MATCH, mMatcher.match(Uri.parse("content://auth/user/5/posts")));
+    }
+
+    @Test
+    public void mismatchedSegment() {
+        assertEquals(UriMatcher.NO_MATCH, mMatcher.match(Uri.parse("content://auth/user/five")));
+        assertEquals(UriMatcher.NO_MATCH, mMatcher.match(Uri.parse("content://other/user/5")));
+    }
+
+    private static UriMatcher createMatcher() {
+        UriMatcher matcher = new UriMatcher(UriMatcher.NO_MATCH);
+        matcher.addURI("auth", "user/#", USER);
+        matcher.addURI("auth", "user/#/posts/*", USER_POSTS);
+        matcher.addURI("auth", null, AUTHORITY);
+        return matcher;
+    }
+}
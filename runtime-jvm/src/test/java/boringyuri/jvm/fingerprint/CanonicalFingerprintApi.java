@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.jvm.fingerprint;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import boringyuri.api.Param;
+import boringyuri.api.UriBuilder;
+import boringyuri.api.UriFactory;
+import boringyuri.api.constant.StringParam;
+import boringyuri.jvm.Uri;
+
+/**
+ * Fingerprints of the factory with the canonical query order.
+ */
+@UriFactory(
+        scheme = "https",
+        authority = "example.com",
+        fingerprints = true,
+        canonicalQuery = true
+)
+public interface CanonicalFingerprintApi {
+
+    @NonNull
+    @UriBuilder("search")
+    @StringParam(name = "format", value = "json")
+    Uri buildSearchUri(
+            @Nullable @Param("query") String query,
+            @NonNull @Param("tag") String[] tags,
+            @Param("a") int first);
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.jvm.fingerprint;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+
+import boringyuri.api.Compressed;
+import boringyuri.api.DefaultValue;
+import boringyuri.api.Param;
+import boringyuri.api.Path;
+import boringyuri.api.UriBuilder;
+import boringyuri.api.UriFactory;
+import boringyuri.api.ValueFormat;
+import boringyuri.api.constant.BooleanParam;
+import boringyuri.api.constant.DoubleParam;
+import boringyuri.api.constant.LongParam;
+import boringyuri.api.constant.StringParam;
+import boringyuri.jvm.Uri;
+
+/**
+ * Every kind of the builder method parameters the fingerprint methods are checked against.
+ */
+@UriFactory(scheme = "https", authority = "user@example.com:8080", fingerprints = true)
+public interface FingerprintApi {
+
+    @NonNull
+    @UriBuilder("user/{id}/{name}")
+    Uri buildPathUri(@Path long id, @NonNull @Path String name, @Nullable @Param String query);
+
+    @NonNull
+    @UriBuilder("constant")
+    @StringParam(name = "type", value = "photo & video")
+    @BooleanParam(name = "hd", value = true)
+    @LongParam(name = "limit", value = 100L)
+    @DoubleParam(name = "ratio", value = 1.5)
+    Uri buildConstantUri(@Param int page);
+
+    @NonNull
+    @UriBuilder("encoded")
+    Uri buildEncodedUri(@NonNull @Param(encoded = true) String token, @Nullable @Param String plain);
+
+    @NonNull
+    @UriBuilder("binary")
+    Uri buildBinaryUri(
+            @NonNull @Param(format = ValueFormat.BASE64_URL) byte[] cursor,
+            @NonNull @Param ByteBuffer buffer,
+            @Param(format = ValueFormat.BASE64_URL) long id,
+            @Param(format = ValueFormat.RADIX_36) int offset);
+
+    @NonNull
+    @UriBuilder("compressed")
+    Uri buildCompressedUri(@Nullable @Compressed(threshold = 16) @Param String filter);
+
+    @NonNull
+    @UriBuilder("defaults/{section}")
+    Uri buildDefaultsUri(
+            @Nullable @Path @DefaultValue("main section") String section,
+            @Nullable @Param @DefaultValue("10") Integer size,
+            @Nullable @Param @DefaultValue("a&b c") String label);
+
+    @NonNull
+    @UriBuilder("array")
+    Uri buildArrayUri(@NonNull @Param("id") int[] ids, @Nullable @Param("tag") String[] tags);
+}
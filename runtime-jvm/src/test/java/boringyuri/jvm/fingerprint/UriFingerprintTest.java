@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Anton Novikau
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boringyuri.jvm.fingerprint;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import boringyuri.api.uri.UriFingerprint;
+import boringyuri.jvm.Uri;
+
+/**
+ * Checks that every generated {@code fingerprintXxx(args)} method returns the same value as
+ * {@code UriFingerprint.of(buildXxx(args).toString())}.
+ */
+public class UriFingerprintTest {
+
+    private static final int ITERATIONS = 2000;
+
+    // reserved, non-ASCII and surrogate pair characters besides the plain ones
+    private static final String[] ALPHABET = {
+            "a", "Z", "0", "-", "_", ".", "~", "*", " ", "&", "=", "?", "#", "/", "%", "+", ":",
+            "@", "\u00e9", "\u65e5", "\ud83d\ude00", "\ud800",
+    };
+
+    private final Random mRandom = new Random(42);
+
+    @Test
+    public void pathSegments() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            long id = mRandom.nextLong();
+            String name = randomString(false);
+            String query = randomString(true);
+
+            assertFingerprint(
+                    FingerprintApiImpl.INSTANCE.buildPathUri(id, name, query),
+                    FingerprintApiImpl.fingerprintPathUri(id, name, query)
+            );
+        }
+    }
+
+    @Test
+    public void constantParams() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            int page = mRandom.nextInt();
+
+            assertFingerprint(
+                    FingerprintApiImpl.INSTANCE.buildConstantUri(page),
+                    FingerprintApiImpl.fingerprintConstantUri(page)
+            );
+        }
+    }
+
+    @Test
+    public void encodedParams() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            String token = Uri.encode(randomString(false));
+            String plain = randomString(true);
+
+            assertFingerprint(
+                    FingerprintApiImpl.INSTANCE.buildEncodedUri(token, plain),
+                    FingerprintApiImpl.fingerprintEncodedUri(token, plain)
+            );
+        }
+    }
+
+    @Test
+    public void binaryParams() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] cursor = randomBytes();
+            ByteBuffer buffer = ByteBuffer.wrap(randomBytes());
+            long id = mRandom.nextLong();
+            int offset = mRandom.nextInt();
+
+            assertFingerprint(
+                    FingerprintApiImpl.INSTANCE.buildBinaryUri(cursor, buffer, id, offset),
+                    FingerprintApiImpl.fingerprintBinaryUri(cursor, buffer, id, offset)
+            );
+        }
+    }
+
+    @Test
+    public void compressedParams() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            // repeated values are long enough to be compressed
+            String filter = mRandom.nextBoolean()
+                    ? randomString(true)
+                    : repeat(randomString(false), 2 + mRandom.nextInt(20));
+
+            assertFingerprint(
+                    FingerprintApiImpl.INSTANCE.buildCompressedUri(filter),
+                    FingerprintApiImpl.fingerprintCompressedUri(filter)
+            );
+        }
+    }
+
+    @Test
+    public void nullableParamsWithDefaultValues() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            String section = randomString(true);
+            Integer size = mRandom.nextBoolean() ? null : mRandom.nextInt();
+            String label = randomString(true);
+
+            assertFingerprint(
+                    FingerprintApiImpl.INSTANCE.buildDefaultsUri(section, size, label),
+                    FingerprintApiImpl.fingerprintDefaultsUri(section, size, label)
+            );
+        }
+    }
+
+    @Test
+    public void arrayParams() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            int[] ids = new int[mRandom.nextInt(5)];
+            for (int j = 0; j < ids.length; j++) {
+                ids[j] = mRandom.nextInt();
+            }
+            String[] tags = randomStrings();
+
+            assertFingerprint(
+                    FingerprintApiImpl.INSTANCE.buildArrayUri(ids, tags),
+                    FingerprintApiImpl.fingerprintArrayUri(ids, tags)
+            );
+        }
+    }
+
+    @Test
+    public void canonicalQuery() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            String query = randomString(true);
+            String[] tags = randomStrings();
+            int first = mRandom.nextInt();
+            if (tags == null) {
+                tags = new String[0];
+            }
+
+            assertFingerprint(
+                    CanonicalFingerprintApiImpl.INSTANCE.buildSearchUri(query, tags, first),
+                    CanonicalFingerprintApiImpl.fingerprintSearchUri(query, tags, first)
+            );
+        }
+    }
+
+    private static void assertFingerprint(@NonNull Uri uri, long fingerprint) {
+        assertEquals(uri.toString(), UriFingerprint.of(uri.toString()), fingerprint);
+    }
+
+    @Nullable
+    private String randomString(boolean nullable) {
+        if (nullable && mRandom.nextInt(5) == 0) {
+            return null;
+        }
+
+        int length = mRandom.nextInt(12);
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            value.append(ALPHABET[mRandom.nextInt(ALPHABET.length)]);
+        }
+        return value.toString();
+    }
+
+    @Nullable
+    private String[] randomStrings() {
+        if (mRandom.nextInt(5) == 0) {
+            return null;
+        }
+
+        String[] values = new String[mRandom.nextInt(5)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = randomString(true);
+        }
+        return values;
+    }
+
+    @NonNull
+    private byte[] randomBytes() {
+        byte[] bytes = new byte[mRandom.nextInt(16)];
+        mRandom.nextBytes(bytes);
+        return bytes;
+    }
+
+    @NonNull
+    private static String repeat(@Nullable String value, int count) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            result.append(value);
+        }
+        return result.toString();
+    }
+}
@@ -17,6 +17,7 @@
 package boringyuri.sample.test
 
 import boringyuri.api.DefaultValue
+import boringyuri.api.Flag
 import boringyuri.api.Param
 import boringyuri.api.Path
 import boringyuri.api.UriData
@@ -58,4 +59,13 @@ interface BooleanTestUriData {
     @Param
     @DefaultValue("true")
     fun getNullableWithDefaultArrayParam(): Array<Boolean>?
+
+    @Param("flags")
+    @Flag(0)
+    fun isFirstFlag(): Boolean
+
+    @Param("flags")
+    @Flag(40)
+    @DefaultValue("true")
+    fun isWideFlag(): Boolean
 }
\ No newline at end of file
@@ -21,7 +21,7 @@ import boringyuri.api.Param
 import boringyuri.api.Path
 import boringyuri.api.UriData
 
-@UriData("/path/segment/{int}/{int_with_default}")
+@UriData(value = "/path/segment/{int}/{int_with_default}", reusable = true)
 interface IntTestUriData {
 
     @Path("int")
@@ -21,7 +21,7 @@ import boringyuri.api.Param
 import boringyuri.api.Path
 import boringyuri.api.UriData
 
-@UriData("/path/segment/{string}")
+@UriData(value = "/path/segment/{string}", fromString = true)
 interface StringTestUriData {
 
     @Path("string")
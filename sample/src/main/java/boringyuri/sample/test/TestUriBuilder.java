@@ -21,11 +21,16 @@ import android.net.Uri;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.nio.ByteBuffer;
+
+import boringyuri.api.Compressed;
 import boringyuri.api.DefaultValue;
+import boringyuri.api.Flag;
 import boringyuri.api.Param;
 import boringyuri.api.Path;
 import boringyuri.api.UriBuilder;
 import boringyuri.api.UriFactory;
+import boringyuri.api.ValueFormat;
 import boringyuri.api.WithUriData;
 import boringyuri.sample.data.User;
 
@@ -40,6 +45,7 @@ public interface TestUriBuilder {
         static final String DEFAULT_CHAR = "c";
         static final String DEFAULT_NUMBER = "1";
         static final String DEFAULT_FLOAT_NUMBER = "1.2";
+        static final String DEFAULT_BINARY = "AQID";
     }
 
     @NonNull
@@ -53,6 +59,15 @@ public interface TestUriBuilder {
             @Nullable @Param @DefaultValue(Contract.DEFAULT_STRING) String nullableWithDefaultParam,
             @NonNull @Param @DefaultValue(Contract.DEFAULT_STRING) String nonNullWithDefaultParam);
 
+    @NonNull
+    @UriBuilder("/path/segment/encoded")
+    @WithUriData
+    Uri buildEncodedStringUri(
+            @Nullable @Param(encoded = true) String nullableParam,
+            @NonNull @Param(encoded = true) String nonNullParam,
+            @NonNull @Param String decodedParam,
+            @NonNull @Param(encoded = true) @DefaultValue(Contract.DEFAULT_STRING) String nonNullWithDefaultParam);
+
     @NonNull
     @UriBuilder("/path/segment/{uri}")
     @WithUriData
@@ -172,4 +187,38 @@ public interface TestUriBuilder {
             @Nullable @Path @DefaultValue(Contract.DEFAULT_USER) User user,
             @Nullable @Param User param,
             @Nullable @Param @DefaultValue(Contract.DEFAULT_USER) User paramWithDefault);
+
+    @NonNull
+    @UriBuilder("/path/segment/{segment}")
+    @WithUriData
+    Uri buildBinaryUri(
+            @NonNull @Path byte[] segment,
+            @NonNull @Param(format = ValueFormat.BASE64_URL) byte[] nonNullParam,
+            @Nullable @Param ByteBuffer nullableParam,
+            @NonNull @Param @DefaultValue(Contract.DEFAULT_BINARY) ByteBuffer nonNullWithDefaultParam);
+
+    @NonNull
+    @UriBuilder("/path/segment/flags")
+    @WithUriData
+    Uri buildFlagsUri(
+            @Param("flags") @Flag(0) boolean firstFlag,
+            @Param("flags") @Flag(1) @DefaultValue(Contract.DEFAULT_BOOLEAN) boolean secondFlag,
+            @Param("wide_flags") @Flag(40) boolean wideFlag);
+
+    @NonNull
+    @UriBuilder("/path/segment/{id}")
+    @WithUriData
+    Uri buildCompactNumberUri(
+            @Path(format = ValueFormat.RADIX_36) long id,
+            @Param(format = ValueFormat.BASE64_URL) long timestamp,
+            @Nullable @Param(format = ValueFormat.RADIX_36) @DefaultValue(Contract.DEFAULT_NUMBER) Integer count,
+            @NonNull @Param(format = ValueFormat.RADIX_36) int[] ids);
+
+    @NonNull
+    @UriBuilder("/path/segment/compressed")
+    @WithUriData
+    Uri buildCompressedUri(
+            @Nullable @Param @Compressed(threshold = 64) User user,
+            @Nullable @Param @Compressed String text,
+            @Nullable @Param @Compressed @DefaultValue(Contract.DEFAULT_STRING) String[] texts);
 }
@@ -16,6 +16,7 @@
 
 package boringyuri.sample.test
 
+import boringyuri.api.Compressed
 import boringyuri.api.DefaultValue
 import boringyuri.api.Param
 import boringyuri.api.Path
@@ -48,4 +49,7 @@ interface UserTestUriData {
     @DefaultValue("42;John Doe")
     fun getNonNullWithDefaultArrayParam(): Array<User>
 
-}
\ No newline at end of file
+    @Param
+    @Compressed(threshold = 64)
+    fun getCompressedParam(): User?
+}
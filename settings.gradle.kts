@@ -27,3 +27,6 @@ include(":dagger-ksp")
 include(":processor-common-apt")
 include(":processor-common-ksp")
 include(":processor-steps")
+include(":runtime-jvm")
+include(":benchmarks")
+include(":processor-harness")